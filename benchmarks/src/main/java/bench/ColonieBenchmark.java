@@ -0,0 +1,128 @@
+package bench;
+
+import app.Affectation;
+import app.Algorithme;
+import app.Colonie;
+import app.ColonieCompilee;
+import app.Controle;
+import app.RechercheLocale;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks des chemins critiques de Colonie : calcul de la jalousie (par les colons et sur la vue compilée),
+ * un balayage des échanges de assignerObjets2(), chargement d'un fichier et sauvegarde de l'assignation.
+ * Les colonies sont aléatoires, de graine fixe : n colons, n ressources, et chaque couple de colons en relation
+ * avec la probabilité densite.
+ * Lancement : mvn -f benchmarks/pom.xml package, puis java -jar benchmarks/target/benchmarks.jar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector") // Charge le noyau vectoriel de calculerJalousie
+public class ColonieBenchmark {
+    private static final long GRAINE = 42;
+
+    @Param({"10", "100", "1000"})
+    private int nombreColons;
+
+    @Param({"0.01", "0.1", "0.5"})
+    private double densite;
+
+    private Path fichierColonie;
+    private Path fichierSolution;
+    private Colonie colonie;
+    private ColonieCompilee compilee;
+    private int[] objets; // Assignation de départ, celle de assignerObjets()
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException {
+        fichierColonie = Files.createTempFile("colonie", ".txt");
+        fichierSolution = Files.createTempFile("solution", ".txt");
+        Files.write(fichierColonie, genererFichier(nombreColons, densite, GRAINE).getBytes(StandardCharsets.UTF_8));
+        colonie = new Colonie();
+        colonie.chargerFichier(fichierColonie.toString());
+        objets = colonie.resoudre(Algorithme.NAIF, new Controle()).getObjets(); // Assignation de assignerObjets()
+        compilee = colonie.compiler();
+    }
+
+    @TearDown(Level.Trial)
+    public void nettoyer() throws IOException {
+        Files.deleteIfExists(fichierColonie);
+        Files.deleteIfExists(fichierSolution);
+    }
+
+    @Benchmark
+    public int calculerColonsJaloux() {
+        return colonie.calculerColonsJaloux();
+    }
+
+    @Benchmark
+    public int calculerJalousie() {
+        return compilee.calculerJalousie(objets);
+    }
+
+    @Benchmark
+    public boolean balayageEchanges(Balayage balayage) {
+        return RechercheLocale.balayer(balayage.affectation);
+    }
+
+    @Benchmark
+    public Colonie chargerFichier() throws IOException {
+        Colonie chargee = new Colonie();
+        chargee.chargerFichier(fichierColonie.toString());
+        return chargee;
+    }
+
+    @Benchmark
+    public void enregistreFichier() throws IOException {
+        colonie.enregistreFichier(fichierSolution.toString());
+    }
+
+    /**
+     * Assignation de départ recopiée avant chaque balayage, pour que chaque mesure parte du même état.
+     * Un état à part évite d'imposer cette préparation par appel aux autres benchmarks.
+     */
+    @State(Scope.Thread)
+    public static class Balayage {
+        private Affectation affectation;
+
+        @Setup(Level.Invocation)
+        public void copierAssignation(ColonieBenchmark etat) {
+            affectation = new Affectation(etat.compilee, etat.objets);
+        }
+    }
+
+    /**
+     * Écrit une colonie aléatoire au format texte : n colons, n ressources, relations tirées avec la probabilité
+     * donnée et préférences mélangées pour chaque colon.
+     */
+    static String genererFichier(int n, double densite, long graine) {
+        Random random = new Random(graine);
+        StringBuilder contenu = new StringBuilder();
+        for (int i = 0; i < n; i++) contenu.append("colon(c").append(i).append(").\n");
+        for (int r = 0; r < n; r++) contenu.append("ressource(r").append(r).append(").\n");
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (random.nextDouble() < densite) contenu.append("deteste(c").append(i).append(",c").append(j).append(").\n");
+            }
+        }
+        List<Integer> preferences = new ArrayList<>();
+        for (int r = 0; r < n; r++) preferences.add(r);
+        for (int i = 0; i < n; i++) {
+            Collections.shuffle(preferences, random);
+            contenu.append("preferences(c").append(i);
+            for (int r : preferences) contenu.append(",r").append(r);
+            contenu.append(").\n");
+        }
+        return contenu.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package app;
+
+import java.util.Arrays;
+
+/**
+ * Classe Adjacence : ensemble des relations d'une colonie, indexé par le numéro des colons, qui détecte une relation
+ * déjà présente en O(1) au lieu de parcourir les relations du colon.
+ * La représentation est choisie selon la densité du graphe : une table de hachage des couples tant que le graphe est
+ * peu dense, puis une matrice de bits n × n (un long pour 64 colons) dès qu'elle occupe moins de mémoire que la table.
+ * Les petites colonies utilisent directement la matrice. Un colon ajouté ne change pas la table ; la matrice n'est
+ * recopiée que lorsque ses lignes doivent s'allonger d'un long, tous les 64 colons.
+ */
+class Adjacence {
+    private static final int CAPACITE_INITIALE = 16; // Taille initiale de la table de hachage, une puissance de 2
+    private static final long VIDE = -1L; // Case libre de la table de hachage
+
+    private int nombreColons;
+    private int motsParLigne; // Nombre de long d'une ligne de la matrice
+    private long[] matrice; // Bit b du mot c * motsParLigne + b / 64 : relation entre c et b, ou null si peu dense ;
+                            // des lignes vides au-delà de nombreColons attendent les prochains colons
+    private long[] table; // Table de hachage à adressage ouvert des couples (min, max), ou null si dense
+    private int nombreRelations;
+
+    /**
+     * Constructeur d'un graphe sans relation.
+     * @param nombreColons le nombre de colons, numérotés de 0 à nombreColons - 1.
+     */
+    Adjacence(int nombreColons) {
+        this.nombreColons = nombreColons;
+        this.motsParLigne = (nombreColons + 63) >>> 6;
+        if ((long) nombreColons * motsParLigne <= CAPACITE_INITIALE) {
+            matrice = new long[nombreColons * motsParLigne];
+        } else {
+            table = new long[CAPACITE_INITIALE];
+            Arrays.fill(table, VIDE);
+        }
+    }
+
+    /**
+     * Ajoute un colon sans relation, qui reçoit le numéro nombreColons. Les relations existantes sont gardées : la
+     * table de hachage ne dépend pas du nombre de colons, et la matrice n'est élargie qu'au passage d'un multiple de 64.
+     */
+    void ajouterColon() {
+        nombreColons++;
+        if (matrice == null) return;
+        int mots = (nombreColons + 63) >>> 6;
+        if (mots > motsParLigne) {
+            long[] ancienne = matrice;
+            matrice = new long[mots * 64 * mots]; // Lignes réservées jusqu'au prochain élargissement
+            for (int c = 0; c < nombreColons - 1; c++) {
+                System.arraycopy(ancienne, c * motsParLigne, matrice, c * mots, motsParLigne);
+            }
+            motsParLigne = mots;
+        } else if (nombreColons * motsParLigne > matrice.length) {
+            int lignes = Math.min(motsParLigne * 64, 2 * nombreColons); // Doublées, jusqu'au prochain élargissement
+            matrice = Arrays.copyOf(matrice, lignes * motsParLigne);
+        }
+    }
+
+    /**
+     * Ajoute une relation entre deux colons distincts, si elle n'existe pas encore.
+     * @param a le numéro du premier colon.
+     * @param b le numéro du second colon.
+     * @return true si la relation a été ajoutée, false si elle existait déjà.
+     */
+    boolean ajouter(int a, int b) {
+        if (matrice != null) {
+            int mot = a * motsParLigne + (b >>> 6);
+            if ((matrice[mot] & (1L << b)) != 0) return false;
+            matrice[mot] |= 1L << b;
+            matrice[b * motsParLigne + (a >>> 6)] |= 1L << a;
+            nombreRelations++;
+            return true;
+        }
+        if (!insererCouple(table, cle(a, b))) return false;
+        nombreRelations++;
+        if (nombreRelations * 2 > table.length) agrandir(); // Taux de remplissage maximal de 1/2
+        return true;
+    }
+
+    /**
+     * Indique si deux colons sont en relation.
+     * @param a le numéro du premier colon.
+     * @param b le numéro du second colon.
+     * @return true si la relation existe.
+     */
+    boolean contient(int a, int b) {
+        if (matrice != null) {
+            return (matrice[a * motsParLigne + (b >>> 6)] & (1L << b)) != 0;
+        }
+        long cle = cle(a, b);
+        int masque = table.length - 1;
+        for (int i = melanger(cle) & masque; table[i] != VIDE; i = (i + 1) & masque) {
+            if (table[i] == cle) return true;
+        }
+        return false;
+    }
+
+    int getNombreRelations() {
+        return nombreRelations;
+    }
+
+    /**
+     * Indique la représentation choisie.
+     * @return true si les relations sont rangées dans la matrice de bits, false dans la table de hachage.
+     */
+    boolean estDense() {
+        return matrice != null;
+    }
+
+    // Double la table, ou passe à la matrice si elle occupe désormais moins de mémoire
+    private void agrandir() {
+        long[] ancienne = table;
+        if ((long) ancienne.length * 2 >= (long) nombreColons * motsParLigne) {
+            matrice = new long[nombreColons * motsParLigne];
+            table = null;
+            for (long cle : ancienne) {
+                if (cle == VIDE) continue;
+                int a = (int) (cle >>> 32), b = (int) cle;
+                matrice[a * motsParLigne + (b >>> 6)] |= 1L << b;
+                matrice[b * motsParLigne + (a >>> 6)] |= 1L << a;
+            }
+            return;
+        }
+        table = new long[ancienne.length * 2];
+        Arrays.fill(table, VIDE);
+        for (long cle : ancienne) {
+            if (cle != VIDE) insererCouple(table, cle);
+        }
+    }
+
+    // Insère une clé dans une table à adressage ouvert ; renvoie false si elle y est déjà
+    private static boolean insererCouple(long[] table, long cle) {
+        int masque = table.length - 1;
+        int i = melanger(cle) & masque;
+        while (table[i] != VIDE) {
+            if (table[i] == cle) return false;
+            i = (i + 1) & masque;
+        }
+        table[i] = cle;
+        return true;
+    }
+
+    // Clé d'un couple de colons, indépendante de l'ordre des deux numéros
+    private static long cle(int a, int b) {
+        return a < b ? (long) a << 32 | b : (long) b << 32 | a;
+    }
+
+    private static int melanger(long cle) {
+        long h = cle * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,152 @@
+package app;
+
+import java.util.Arrays;
+
+/**
+ * Classe Affectation : assignation modifiable des ressources aux colons d'une colonie compilée.
+ * Elle maintient pour chaque colon le nombre de voisins dont il préfère l'objet au sien, ce qui permet de
+ * connaître le nombre de colons jaloux à tout moment et de le mettre à jour en O(deg) à chaque modification.
+ * Seuls les couples de colons ayant tous les deux un objet sont pris en compte : une affectation complète
+ * donne donc le même résultat que ColonieCompilee.calculerJalousie.
+ */
+public class Affectation {
+    private final ColonieCompilee colonie;
+    private final int nombreRessources;
+    private final int[] rangs; // Table des rangs de la colonie compilée, ou null en mode creux
+    private final int[] debutVoisins; // Relations de la colonie compilée, au format CSR
+    private final int[] voisins;
+    private final int[] objets; // Identifiant de la ressource de chaque colon, ou -1
+    private final int[] envies; // envies[c] : nombre de voisins de c dont il préfère l'objet au sien
+    private int jalousie; // Nombre de colons ayant au moins une envie
+
+    /**
+     * Constructeur d'une affectation vide : aucun colon n'a d'objet.
+     * @param colonie la colonie compilée à affecter.
+     */
+    public Affectation(ColonieCompilee colonie) {
+        this.colonie = colonie;
+        this.nombreRessources = colonie.getNombreRessources();
+        this.rangs = colonie.getRangs();
+        this.debutVoisins = colonie.getDebutVoisins();
+        this.voisins = colonie.getVoisins();
+        this.objets = new int[colonie.getNombreColons()];
+        this.envies = new int[colonie.getNombreColons()];
+        Arrays.fill(objets, -1);
+    }
+
+    /**
+     * Constructeur d'une affectation initialisée avec une assignation donnée.
+     * @param colonie la colonie compilée à affecter.
+     * @param objets l'identifiant de la ressource de chaque colon, ou -1. Le tableau est copié.
+     */
+    public Affectation(ColonieCompilee colonie, int[] objets) {
+        this(colonie);
+        for (int c = 0; c < objets.length; c++) {
+            affecter(c, objets[c]);
+        }
+    }
+
+    /**
+     * Affecte une ressource à un colon, en remplaçant son objet précédent, et met à jour la jalousie en O(deg).
+     * Plusieurs colons peuvent temporairement partager la même ressource, ce qui permet d'échanger deux objets
+     * en deux affectations successives.
+     * @param colon l'identifiant du colon.
+     * @param ressource l'identifiant de la ressource, ou -1 pour retirer l'objet du colon.
+     */
+    public void affecter(int colon, int ressource) {
+        int ancien = objets[colon];
+        if (ancien == ressource) return;
+
+        // Pour chaque voisin, seule la comparaison avec l'objet de ce colon change
+        for (int k = debutVoisins[colon]; k < debutVoisins[colon + 1]; k++) {
+            int voisin = voisins[k];
+            int objetVoisin = objets[voisin];
+            if (objetVoisin < 0) continue;
+            int rangVoisin = rang(voisin, objetVoisin);
+            boolean avant = ancien >= 0 && rang(voisin, ancien) < rangVoisin;
+            boolean apres = ressource >= 0 && rang(voisin, ressource) < rangVoisin;
+            if (avant != apres) {
+                if (apres) {
+                    if (envies[voisin]++ == 0) jalousie++; // Le voisin devient jaloux
+                } else {
+                    if (--envies[voisin] == 0) jalousie--; // Le voisin n'est plus jaloux
+                }
+            }
+        }
+
+        // Les envies du colon lui-même sont recalculées par rapport à son nouvel objet
+        objets[colon] = ressource;
+        int nouvellesEnvies = 0;
+        if (ressource >= 0) {
+            int rangPropre = rang(colon, ressource);
+            for (int k = debutVoisins[colon]; k < debutVoisins[colon + 1]; k++) {
+                int objetVoisin = objets[voisins[k]];
+                if (objetVoisin >= 0 && rang(colon, objetVoisin) < rangPropre) {
+                    nouvellesEnvies++;
+                }
+            }
+        }
+        if (envies[colon] > 0) jalousie--;
+        if (nouvellesEnvies > 0) jalousie++;
+        envies[colon] = nouvellesEnvies;
+    }
+
+    // Rang d'une ressource pour un colon : lecture directe de la table dense, ou recherche dans la ligne creuse
+    private int rang(int colon, int ressource) {
+        return rangs != null ? rangs[colon * nombreRessources + ressource] : colonie.rang(colon, ressource);
+    }
+
+    /**
+     * Retire l'objet d'un colon.
+     * @param colon l'identifiant du colon.
+     */
+    public void liberer(int colon) {
+        affecter(colon, -1);
+    }
+
+    /**
+     * Échange les objets de deux colons, en O(deg(a) + deg(b)).
+     * @param a l'identifiant du premier colon.
+     * @param b l'identifiant du second colon.
+     */
+    public void echanger(int a, int b) {
+        int objetA = objets[a];
+        affecter(a, objets[b]);
+        affecter(b, objetA);
+    }
+
+    /**
+     * Calcule le nombre de colons jaloux qu'il y aurait après l'échange des objets de deux colons,
+     * sans modifier l'affectation, en O(deg(a) + deg(b)).
+     * @param a l'identifiant du premier colon.
+     * @param b l'identifiant du second colon.
+     * @return la jalousie après l'échange.
+     */
+    public int evaluerEchange(int a, int b) {
+        echanger(a, b);
+        int resultat = jalousie;
+        echanger(a, b); // Annule l'échange
+        return resultat;
+    }
+
+    public ColonieCompilee getColonie() {
+        return colonie;
+    }
+    public int getJalousie() {
+        return jalousie;
+    }
+    public int getObjet(int colon) {
+        return objets[colon];
+    }
+    public boolean estJaloux(int colon) {
+        return envies[colon] > 0;
+    }
+
+    /**
+     * Renvoie une copie de l'assignation courante.
+     * @return l'identifiant de la ressource de chaque colon, ou -1.
+     */
+    public int[] getObjets() {
+        return objets.clone();
+    }
+}
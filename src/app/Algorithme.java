@@ -0,0 +1,154 @@
+package app;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Énumération Algorithme : les algorithmes d'assignation de la colonie, sous l'interface commune Solveur.
+ * Tous respectent l'échéance et l'annulation du contrôle, signalent leurs améliorations successives à son écouteur
+ * et renvoient la meilleure assignation trouvée. Les algorithmes de la partie 2 demandent au moins autant de
+ * ressources que de colons.
+ */
+public enum Algorithme implements Solveur {
+    /**
+     * Algorithme de la partie 1 : chaque colon, dans l'ordre, reçoit son premier choix disponible.
+     */
+    NAIF {
+        @Override
+        public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+            int[] objets = solutionNaive(colonie);
+            int jalousie = colonie.calculerJalousie(objets);
+            controle.signalerAmelioration(jalousie, 1);
+            return new Solution(objets, jalousie, jalousie == 0, 1, controle.getTempsEcouleMillis());
+        }
+    },
+    /**
+     * Premier algorithme de la partie 2 : le i-ème colon reçoit la i-ème ressource, puis les échanges améliorants
+     * sont appliqués jusqu'à un optimum local. Une itération est un balayage de tous les couples de colons.
+     */
+    LOCAL {
+        @Override
+        public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+            verifierRessourcesSuffisantes(colonie);
+            Affectation affectation = new Affectation(colonie);
+            for (int c = 0; c < colonie.getNombreColons(); c++) {
+                affectation.affecter(c, c);
+            }
+            int signalee = affectation.getJalousie();
+            controle.signalerAmelioration(signalee, 0);
+
+            long balayages = 0;
+            boolean amelioration = true;
+            while (amelioration && !controle.doitArreter()) {
+                amelioration = RechercheLocale.balayer(affectation, controle::doitArreter);
+                balayages++;
+                if (affectation.getJalousie() < signalee) {
+                    signalee = affectation.getJalousie();
+                    controle.signalerAmelioration(signalee, balayages);
+                }
+            }
+            return new Solution(affectation.getObjets(), affectation.getJalousie(), affectation.getJalousie() == 0,
+                    balayages, controle.getTempsEcouleMillis());
+        }
+    },
+    /**
+     * Recherche locale relancée depuis des assignations aléatoires, en parallèle sur tous les cœurs, jusqu'à
+     * l'échéance (ou un nombre fixe de départs sans échéance). Une itération est une recherche locale terminée.
+     */
+    MULTI_DEPART {
+        @Override
+        public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+            verifierRessourcesSuffisantes(colonie);
+            int departs = controle.aUneEcheance() ? Integer.MAX_VALUE : DEPARTS_SANS_ECHEANCE;
+            return RechercheLocale.multiDepart(colonie, departs, 0, controle);
+        }
+    },
+    /**
+     * Recuit simulé à partir de la solution de l'algorithme naïf, jusqu'à l'échéance. Une itération est un
+     * mouvement essayé.
+     */
+    RECUIT {
+        @Override
+        public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+            verifierRessourcesSuffisantes(colonie);
+            RecuitSimule recuit = new RecuitSimule(colonie, controle.getGraine());
+            int[] objets = recuit.resoudre(solutionNaive(colonie), controle);
+            int jalousie = colonie.calculerJalousie(objets);
+            return new Solution(objets, jalousie, jalousie == 0, recuit.getIterations(), controle.getTempsEcouleMillis());
+        }
+    },
+    /**
+     * Second algorithme de la partie 2 : recherche exacte par séparation et évaluation, dont la borne initiale est
+     * la solution de LOCAL. Une itération est une affectation essayée.
+     */
+    EXACT {
+        @Override
+        public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+            Solution initiale = LOCAL.resoudre(colonie, controle);
+            RechercheExacte recherche = new RechercheExacte(colonie);
+            int[] objets = recherche.resoudre(initiale.getObjets(), controle);
+            return solutionExacte(recherche, objets, controle);
+        }
+    },
+    /**
+     * La recherche exacte de EXACT, répartie sur le ForkJoinPool commun.
+     */
+    EXACT_PARALLELE {
+        @Override
+        public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+            Solution initiale = LOCAL.resoudre(colonie, controle);
+            RechercheExacte recherche = new RechercheExacte(colonie);
+            int[] objets = recherche.resoudreEnParallele(initiale.getObjets(), ForkJoinPool.commonPool(), controle);
+            return solutionExacte(recherche, objets, controle);
+        }
+    },
+    /**
+     * Évaluation de toutes les permutations des ressources, sans élagage, conservée comme référence.
+     * Une itération est une permutation évaluée.
+     */
+    EXHAUSTIF {
+        @Override
+        public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+            verifierRessourcesSuffisantes(colonie);
+            return RechercheExacte.exhaustive(colonie, controle);
+        }
+    };
+
+    private static final int DEPARTS_SANS_ECHEANCE = 100; // Nombre de départs de MULTI_DEPART sans échéance
+
+    /**
+     * Vérifie qu'il y a au moins autant de ressources que de colons, condition nécessaire aux algorithmes de la partie 2.
+     * @param colonie la colonie compilée.
+     * @throws IllegalStateException s'il y a moins de ressources que de colons.
+     */
+    static void verifierRessourcesSuffisantes(ColonieCompilee colonie) {
+        if (colonie.getNombreRessources() < colonie.getNombreColons()) {
+            throw new IllegalStateException("Il n'y a pas assez de ressources pour tous les colons.");
+        }
+    }
+
+    /**
+     * Calcule la solution de l'algorithme de la partie 1 : chaque colon, dans l'ordre, reçoit son premier choix disponible.
+     * @param colonie la colonie compilée.
+     * @return l'identifiant de la ressource de chaque colon, ou -1 s'il ne reste plus de ressource.
+     */
+    static int[] solutionNaive(ColonieCompilee colonie) {
+        int n = colonie.getNombreColons();
+        int m = colonie.getNombreRessources();
+        boolean[] pris = new boolean[m]; // Objets déjà attribués à un colon
+        int[] curseur = new int[1]; // Première ressource peut-être libre, pour les ressources non listées
+        int[] objets = new int[n];
+
+        for (int c = 0; c < n; c++) { // Parcourt tous les colons de la colonie
+            objets[c] = colonie.ressourceLibrePreferee(c, pris, curseur); // Premier choix disponible, ou -1
+            if (objets[c] >= 0) pris[objets[c]] = true; // Retire l'objet des objets disponibles
+        }
+        return objets;
+    }
+
+    // Résultat d'une recherche exacte : l'assignation n'est prouvée optimale que si la recherche n'a pas été interrompue
+    private static Solution solutionExacte(RechercheExacte recherche, int[] objets, Controle controle) {
+        int jalousie = recherche.getMeilleureJalousie();
+        return new Solution(objets, jalousie, jalousie == 0 || !recherche.estInterrompue(), recherche.getNoeuds(),
+                controle.getTempsEcouleMillis());
+    }
+}
@@ -0,0 +1,358 @@
+package app;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Classe CacheSolutions : cache des meilleures solutions connues, placé devant un solveur avec devant().
+ * Une colonie est identifiée par une empreinte SHA-256 de sa forme canonique : colons et ressources triés par nom,
+ * rangs des préférences et relations. L'empreinte ne dépend donc ni de l'ordre des HashMap de Colonie ni de celui
+ * du fichier, et une colonie relue à l'identique retrouve sa solution pour le prix d'un calcul d'empreinte.
+ * Une solution en cache est servie si elle est optimale, ou si elle est au moins aussi bonne qu'une solution déjà
+ * trouvée par le même solveur avec un temps de calcul au moins égal à celui demandé (Controle.getDureeMillis()) ;
+ * sinon le solveur est appelé et le cache garde la meilleure des deux. Une solution trouvée en 10 ms n'est donc
+ * pas renvoyée à une requête qui accorde 10 s : le cache s'améliore à mesure que les budgets augmentent.
+ * Les entrées les moins récemment utilisées sont évincées au-delà de la capacité, comptée en colons pour borner la
+ * mémoire quelle que soit la taille des colonies.
+ * Le cache peut être enregistré dans un fichier et rechargé au démarrage suivant.
+ */
+public class CacheSolutions {
+    private static final int MAGIE = 0x43414348; // "CACH"
+    private static final int VERSION = 2; // La version 1 n'enregistrait pas le temps de calcul des solveurs
+
+    private final long capacite; // Nombre maximal de colons, toutes entrées confondues
+    private final LinkedHashMap<String, Entree> entrees = new LinkedHashMap<>(16, 0.75f, true); // Ordre d'accès
+    private long taille; // Nombre de colons des entrées présentes
+    private long succes;
+    private long echecs;
+
+    /**
+     * Constructeur de la classe CacheSolutions.
+     * @param capacite le nombre maximal de colons gardés en cache, toutes solutions confondues.
+     * @throws IllegalArgumentException si la capacité est négative.
+     */
+    public CacheSolutions(long capacite) {
+        if (capacite < 0) {
+            throw new IllegalArgumentException("La capacité du cache ne peut pas être négative.");
+        }
+        this.capacite = capacite;
+    }
+
+    /**
+     * Place le cache devant un solveur.
+     * @param solveur le solveur appelé quand le cache ne peut pas répondre.
+     * @return un solveur qui consulte le cache, puis le complète avec la solution trouvée.
+     */
+    public Solveur devant(Solveur solveur) {
+        return new Solveur() {
+            @Override
+            public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+                return CacheSolutions.this.resoudre(solveur, colonie, controle);
+            }
+
+            @Override
+            public String toString() {
+                return "Cache(" + solveur + ")";
+            }
+        };
+    }
+
+    private Solution resoudre(Solveur solveur, ColonieCompilee colonie, Controle controle) {
+        Canonique canonique = new Canonique(colonie);
+        String nomSolveur = String.valueOf(solveur);
+        long budget = controle.getDureeMillis();
+        Entree entree;
+        synchronized (this) {
+            entree = entrees.get(canonique.empreinte);
+            if (entree != null && (entree.optimale || entree.budgets.getOrDefault(nomSolveur, -1L) >= budget)) {
+                succes++;
+            } else {
+                echecs++;
+                entree = null;
+            }
+        }
+        if (entree != null) {
+            return new Solution(canonique.versColonie(entree.objets), entree.jalousie, entree.optimale, 0,
+                    controle.getTempsEcouleMillis());
+        }
+
+        Solution solution = solveur.resoudre(colonie, controle);
+        if (controle.estAnnule()) budget = Math.min(budget, controle.getTempsEcouleMillis()); // Arrêtée avant l'échéance
+        ajouter(canonique.empreinte, new Entree(Map.of(nomSolveur, budget), solution.getJalousie(),
+                solution.estOptimale(), canonique.versCanonique(solution.getObjets())));
+        return solution;
+    }
+
+    /**
+     * Ajoute une entrée, ou garde la meilleure des deux si le cache en a déjà une, puis évince les moins récentes.
+     * Les solveurs des deux entrées sont conservés avec le plus grand de leurs temps de calcul : la solution gardée
+     * est au moins aussi bonne que la leur.
+     */
+    private synchronized void ajouter(String empreinte, Entree nouvelle) {
+        if (nouvelle.objets.length > capacite) return; // Ne tiendrait pas même seule
+        Entree ancienne = entrees.remove(empreinte);
+        if (ancienne != null) {
+            taille -= ancienne.objets.length;
+            Map<String, Long> budgets = new HashMap<>(ancienne.budgets);
+            nouvelle.budgets.forEach((solveur, budget) -> budgets.merge(solveur, budget, Math::max));
+            boolean moinsBonne = ancienne.optimale && !nouvelle.optimale
+                    || ancienne.optimale == nouvelle.optimale && ancienne.jalousie < nouvelle.jalousie;
+            Entree gardee = moinsBonne ? ancienne : nouvelle;
+            nouvelle = new Entree(budgets, gardee.jalousie, gardee.optimale, gardee.objets);
+        }
+        entrees.put(empreinte, nouvelle);
+        taille += nouvelle.objets.length;
+        Iterator<Entree> plusAnciennes = entrees.values().iterator();
+        while (taille > capacite) {
+            taille -= plusAnciennes.next().objets.length;
+            plusAnciennes.remove();
+        }
+    }
+
+    /**
+     * Calcule l'empreinte d'une colonie, la clé de sa solution dans le cache.
+     * @param colonie la colonie compilée.
+     * @return l'empreinte SHA-256 de la forme canonique de la colonie, en hexadécimal.
+     */
+    public static String empreinte(ColonieCompilee colonie) {
+        return new Canonique(colonie).empreinte;
+    }
+
+    public synchronized int getNombreEntrees() {
+        return entrees.size();
+    }
+    public synchronized long getTaille() {
+        return taille;
+    }
+    public synchronized long getSucces() {
+        return succes;
+    }
+    public synchronized long getEchecs() {
+        return echecs;
+    }
+
+    /**
+     * Enregistre le cache dans un fichier, remplacé en une seule fois.
+     * @param chemin le chemin du fichier.
+     * @throws IOException si une erreur d'entrée/sortie se produit lors de l'écriture.
+     */
+    public void enregistrer(Path chemin) throws IOException {
+        List<Map.Entry<String, Entree>> copie;
+        synchronized (this) {
+            copie = new ArrayList<>(entrees.entrySet()); // De la moins récente à la plus récente
+        }
+        Path temporaire = chemin.resolveSibling(chemin.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+        try {
+            try (DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporaire, StandardOpenOption.CREATE_NEW)))) {
+                sortie.writeInt(MAGIE);
+                sortie.writeInt(VERSION);
+                sortie.writeInt(copie.size());
+                for (Map.Entry<String, Entree> e : copie) {
+                    Entree entree = e.getValue();
+                    sortie.writeUTF(e.getKey());
+                    sortie.writeInt(entree.budgets.size());
+                    for (Map.Entry<String, Long> budget : entree.budgets.entrySet()) {
+                        sortie.writeUTF(budget.getKey());
+                        sortie.writeLong(budget.getValue());
+                    }
+                    sortie.writeInt(entree.jalousie);
+                    sortie.writeBoolean(entree.optimale);
+                    sortie.writeInt(entree.objets.length);
+                    for (int objet : entree.objets) sortie.writeInt(objet);
+                }
+            }
+            try {
+                Files.move(temporaire, chemin, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) { // Système de fichiers sans renommage atomique
+                Files.move(temporaire, chemin, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaire);
+        }
+    }
+
+    /**
+     * Ajoute au cache les entrées d'un fichier écrit par enregistrer(), dans leur ordre d'utilisation. Les entrées
+     * d'un fichier de version 1, dont le temps de calcul n'était pas enregistré, comptent pour un temps nul : si
+     * elles ne sont pas optimales, les requêtes suivantes appellent leur solveur et les améliorent.
+     * @param chemin le chemin du fichier.
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas un cache de solutions.
+     */
+    public void charger(Path chemin) throws IOException {
+        try (DataInputStream entree = new DataInputStream(new BufferedInputStream(Files.newInputStream(chemin)))) {
+            int version = entree.readInt() == MAGIE ? entree.readInt() : -1;
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Le fichier " + chemin + " n'est pas un cache de solutions.");
+            }
+            int nombre = entree.readInt();
+            for (int i = 0; i < nombre; i++) {
+                String empreinte = entree.readUTF();
+                int nombreSolveurs = entree.readInt();
+                Map<String, Long> budgets = new HashMap<>();
+                for (int s = 0; s < nombreSolveurs; s++) {
+                    budgets.put(entree.readUTF(), version == 1 ? 0L : entree.readLong());
+                }
+                int jalousie = entree.readInt();
+                boolean optimale = entree.readBoolean();
+                int n = entree.readInt();
+                if (n < 0) {
+                    throw new IOException("Le fichier " + chemin + " n'est pas un cache de solutions.");
+                }
+                int[] objets = new int[n];
+                for (int c = 0; c < n; c++) objets[c] = entree.readInt();
+                ajouter(empreinte, new Entree(budgets, jalousie, optimale, objets));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Le fichier de cache " + chemin + " est tronqué.");
+        }
+    }
+
+    /**
+     * Solution en cache, dans l'ordre canonique : objets[k] est la ressource canonique du k-ième colon par ordre
+     * alphabétique, ou -1.
+     */
+    private static class Entree {
+        final Map<String, Long> budgets; // Solveurs dont la solution n'est pas meilleure, et leur plus grand temps accordé
+        final int jalousie;
+        final boolean optimale;
+        final int[] objets;
+
+        Entree(Map<String, Long> budgets, int jalousie, boolean optimale, int[] objets) {
+            this.budgets = budgets;
+            this.jalousie = jalousie;
+            this.optimale = optimale;
+            this.objets = objets;
+        }
+    }
+
+    /**
+     * Forme canonique d'une colonie compilée : numérotation des colons et des ressources par ordre alphabétique,
+     * et empreinte de la colonie dans cette numérotation.
+     */
+    private static class Canonique {
+        final int[] colons; // colons[k] : identifiant du k-ième colon par ordre alphabétique
+        final int[] ressources; // ressources[k] : identifiant de la k-ième ressource par ordre alphabétique
+        final int[] rangRessource; // rangRessource[r] : position de la ressource r par ordre alphabétique
+        final String empreinte;
+
+        Canonique(ColonieCompilee colonie) {
+            int n = colonie.getNombreColons();
+            int m = colonie.getNombreRessources();
+            this.colons = trier(n, colonie::getNomColon);
+            this.ressources = trier(m, colonie::getNomRessource);
+            int[] rangColon = new int[n];
+            for (int k = 0; k < n; k++) rangColon[colons[k]] = k;
+            this.rangRessource = new int[m];
+            for (int k = 0; k < m; k++) rangRessource[ressources[k]] = k;
+
+            Empreinte hachage = new Empreinte();
+            hachage.entier(n);
+            hachage.entier(m);
+            for (int k = 0; k < m; k++) hachage.texte(colonie.getNomRessource(ressources[k]));
+            int[] rangs = colonie.getRangs(); // null en mode creux : on hache alors les ressources listées
+            if (rangs == null) hachage.entier(-1);
+            int[] debutVoisins = colonie.getDebutVoisins();
+            int[] voisins = colonie.getVoisins();
+            int[] voisinsCanoniques = new int[0];
+            for (int k = 0; k < n; k++) {
+                int c = colons[k];
+                hachage.texte(colonie.getNomColon(c));
+                if (rangs != null) {
+                    for (int i = 0; i < m; i++) hachage.entier(rangs[c * m + ressources[i]]);
+                } else {
+                    int[] preferees = colonie.lignePreferences(c);
+                    hachage.entier(preferees.length);
+                    for (int r : preferees) hachage.entier(rangRessource[r]);
+                }
+                int degre = debutVoisins[c + 1] - debutVoisins[c];
+                if (voisinsCanoniques.length < degre) voisinsCanoniques = new int[degre];
+                for (int i = 0; i < degre; i++) voisinsCanoniques[i] = rangColon[voisins[debutVoisins[c] + i]];
+                Arrays.sort(voisinsCanoniques, 0, degre);
+                hachage.entier(degre);
+                for (int i = 0; i < degre; i++) hachage.entier(voisinsCanoniques[i]);
+            }
+            this.empreinte = hachage.terminer();
+        }
+
+        // Identifiants triés par nom
+        private static int[] trier(int nombre, IntFunction<String> nom) {
+            Integer[] ids = new Integer[nombre];
+            for (int i = 0; i < nombre; i++) ids[i] = i;
+            Arrays.sort(ids, Comparator.comparing(nom::apply));
+            int[] tries = new int[nombre];
+            for (int i = 0; i < nombre; i++) tries[i] = ids[i];
+            return tries;
+        }
+
+        int[] versCanonique(int[] objets) {
+            int[] canoniques = new int[colons.length];
+            for (int k = 0; k < colons.length; k++) {
+                int objet = objets[colons[k]];
+                canoniques[k] = objet < 0 ? -1 : rangRessource[objet];
+            }
+            return canoniques;
+        }
+
+        int[] versColonie(int[] canoniques) {
+            int[] objets = new int[colons.length];
+            for (int k = 0; k < colons.length; k++) {
+                objets[colons[k]] = canoniques[k] < 0 ? -1 : ressources[canoniques[k]];
+            }
+            return objets;
+        }
+    }
+
+    /**
+     * Calcul SHA-256 par blocs d'entiers et de chaînes préfixées par leur longueur.
+     */
+    private static class Empreinte {
+        private final MessageDigest sha;
+        private final ByteBuffer tampon = ByteBuffer.allocate(1 << 16);
+
+        Empreinte() {
+            try {
+                sha = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) { // Toujours disponible dans la plateforme Java
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void entier(int valeur) {
+            if (tampon.remaining() < Integer.BYTES) vider();
+            tampon.putInt(valeur);
+        }
+
+        void texte(String valeur) {
+            byte[] octets = valeur.getBytes(StandardCharsets.UTF_8);
+            entier(octets.length);
+            if (tampon.remaining() < octets.length) vider();
+            if (octets.length > tampon.capacity()) {
+                sha.update(octets);
+            } else {
+                tampon.put(octets);
+            }
+        }
+
+        String terminer() {
+            vider();
+            return HexFormat.of().formatHex(sha.digest());
+        }
+
+        private void vider() {
+            tampon.flip();
+            sha.update(tampon);
+            tampon.clear();
+        }
+    }
+}
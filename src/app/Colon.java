@@ -11,6 +11,10 @@ public class Colon {
     private final ArrayList<String> preferences; // Liste triée des préférences d'objets du colon
     private final ArrayList<Colon> relations; // Liste des autres colons avec qui ce colon a des relations négatives
     private String objetAssigne; // Objet actuellement assigné au colon
+    private int[] idsPreferences; // Préférences numérotées selon nomsRessources, ou null (voir ColonieCompilee)
+    private String[] nomsRessources; // Numérotation des ressources à laquelle se rapporte idsPreferences
+    private boolean aNommer; // Vrai si preferences est encore vide et doit être remplie à partir de idsPreferences
+    private int numero; // Numéro d'ordre du colon dans sa colonie, qui indexe le graphe des relations (Adjacence)
 
     /**
      * Constructeur de la classe Colon.
@@ -31,10 +35,67 @@ public class Colon {
         if (objet == null) {
             throw new NullPointerException("La préférence ne peut pas être nul");
         }
-        if (preferences.contains(objet)){
+        if (getPreferences().contains(objet)){
             throw new NullPointerException("La préférence existe deja.");
         }
         preferences.add(objet);
+        idsPreferences = null;
+    }
+
+    /**
+     * Ajoute des objets à la liste des préférences du colon, sans vérification : ils doivent être non nuls,
+     * distincts et absents des préférences actuelles.
+     * @param objets les objets à ajouter, dans l'ordre des préférences.
+     * @param nombre le nombre d'objets à prendre au début du tableau.
+     */
+    void ajouterPreferences(String[] objets, int nombre) {
+        getPreferences().ensureCapacity(preferences.size() + nombre);
+        for (int i = 0; i < nombre; i++) {
+            preferences.add(objets[i]);
+        }
+        idsPreferences = null;
+    }
+
+    /**
+     * Renvoie les préférences sous forme d'identifiants de ressources, si elles ont été numérotées pour la
+     * numérotation donnée.
+     * @param nomsRessources le nom de chaque ressource, indexé par son identifiant.
+     * @return l'identifiant de chaque préférence dans l'ordre, ou null si elles n'ont pas été numérotées ainsi.
+     */
+    int[] getIdsPreferences(String[] nomsRessources) {
+        return this.nomsRessources == nomsRessources ? idsPreferences : null;
+    }
+
+    /**
+     * Retient les préférences actuelles sous forme d'identifiants, une fois vérifiées par la colonie : une liste
+     * d'identifiants distincts, qui peut ne classer que les premières ressources ; celles qui n'y sont pas partagent
+     * le rang qui suit la dernière listée.
+     * @param ids l'identifiant de chaque préférence, dans l'ordre.
+     * @param nomsRessources le nom de chaque ressource, indexé par son identifiant.
+     */
+    void setIdsPreferences(int[] ids, String[] nomsRessources) {
+        this.idsPreferences = ids;
+        this.nomsRessources = nomsRessources;
+    }
+
+    /**
+     * Remplace les préférences par une liste déjà vérifiée d'identifiants, par exemple lue depuis une image
+     * (ImageColonie) : les noms ne sont recherchés qu'au premier appel de getPreferences().
+     * @param ids l'identifiant de chaque préférence, dans l'ordre.
+     * @param nomsRessources le nom de chaque ressource, indexé par son identifiant.
+     */
+    void definirIdsPreferences(int[] ids, String[] nomsRessources) {
+        preferences.clear();
+        setIdsPreferences(ids, nomsRessources);
+        aNommer = ids.length > 0;
+    }
+
+    /**
+     * Renvoie le nombre de préférences du colon, sans nommer celles qui ne sont connues que par leurs identifiants.
+     * @return le nombre de ressources listées.
+     */
+    int getNombrePreferences() {
+        return aNommer ? idsPreferences.length : preferences.size();
     }
 
     /**
@@ -51,13 +112,48 @@ public class Colon {
         relations.add(autreColon);
     }
 
+    /**
+     * Ajoute un autre colon à la liste des relations du colon, sans vérification : la colonie a déjà vérifié qu'il
+     * est distinct de ce colon et absent de ses relations.
+     * @param autreColon avec qui établir une relation
+     */
+    void ajouterRelationVerifiee(Colon autreColon) {
+        relations.add(autreColon);
+    }
+
+    /**
+     * Ajoute des colons à la liste des relations du colon, sans vérification : ils doivent être distincts de ce
+     * colon et absents de ses relations actuelles.
+     * @param autres les colons à ajouter.
+     * @param nombre le nombre de colons à prendre au début du tableau.
+     */
+    void ajouterRelations(Colon[] autres, int nombre) {
+        relations.ensureCapacity(relations.size() + nombre);
+        for (int i = 0; i < nombre; i++) {
+            relations.add(autres[i]);
+        }
+    }
+
     public String getNom() {
         return nom;
     }
-    public ArrayList<String> getPreferences() { return preferences; }
+    public ArrayList<String> getPreferences() {
+        if (aNommer) {
+            aNommer = false;
+            preferences.ensureCapacity(idsPreferences.length);
+            for (int id : idsPreferences) preferences.add(nomsRessources[id]);
+        }
+        return preferences;
+    }
     public ArrayList<Colon> getRelations() {
         return relations;
     }
+    int getNumero() {
+        return numero;
+    }
+    void setNumero(int numero) {
+        this.numero = numero;
+    }
     public String getObjetAssigne() {
         return objetAssigne;
     }
@@ -71,6 +167,8 @@ public class Colon {
 
     public void supprimerPreferences() {
         preferences.clear();
+        idsPreferences = null;
+        aNommer = false;
     }
 
     /**
@@ -82,7 +180,7 @@ public class Colon {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Colon: ").append(nom)
-                .append(", Préférences: ").append(preferences);
+                .append(", Préférences: ").append(getPreferences());
         if (!relations.isEmpty()){
             sb.append(", Relations: [");
             for (Colon relation : relations) {
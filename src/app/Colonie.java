@@ -1,14 +1,29 @@
 package app;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Classe Colonie : gère l'ensemble des colons et leurs relations dans la colonie.
  */
 public class Colonie {
+    private static final int SEUIL_LECTURE_PARALLELE = 1 << 16; // Nombre de colons lus en parallèle par lireAssignation
     private final Map<String, Colon> colons; // Dictionnaire associant les noms de colons à leurs objets Colon respectifs
     private Set<String> ressources; // Ensemble des ressources disponibles dans la colonie
+    private String[] nomsRessources; // Numérotation des ressources, partagée avec la vue compilée ; null à recalculer
+    private Map<String, Integer> idsRessources; // Identifiant de chaque ressource dans cette numérotation
+    private int[] vues = new int[0]; // Marque de chaque ressource déjà vue dans la liste de préférences en cours
+    private int marque; // Valeur de vues qui désigne la liste en cours
+    private Adjacence adjacence; // Relations indexées par numéro de colon, construites à la première relation ajoutée
+    private ColonieCompilee compilee; // Vue compilée de la colonie, recalculée après chaque modification
+    private final Set<Colon> aRecompiler = new HashSet<>(); // Colons modifiés depuis la compilation, mis à jour seuls
+    private boolean preferencesARecompiler; // Vrai si des préférences ont changé depuis la compilation
+    private Set<Colon> region; // Colons modifiés depuis la dernière assignation, ou null avant la première (reparer())
+    private ExportateurSolution exportateur; // Exportateur de la dernière vue compilée, pour enregistreFichier()
 
     /**
      * Constructeur de la classe Colonie, initialise les collections pour les colons et les ressources.
@@ -30,7 +45,11 @@ public class Colonie {
         else if (colons.containsKey(nom)) {
             throw new IllegalArgumentException("Le colon " + nom + " existe déjà.");
         } else {
-            colons.put(nom, new Colon(nom));  // Ajoute un nouveau colon s'il n'est pas déjà présent
+            Colon colon = new Colon(nom);
+            colon.setNumero(colons.size()); // Les colons sont numérotés dans l'ordre d'ajout
+            colons.put(nom, colon);  // Ajoute un nouveau colon s'il n'est pas déjà présent
+            compilee = null;
+            if (adjacence != null) adjacence.ajouterColon(); // Relations gardées, le nouveau colon n'en a aucune
         }
     }
 
@@ -38,7 +57,8 @@ public class Colonie {
      * Ajoute une relation entre deux colons.
      * @param nom1 du premier colon.
      * @param nom2 du second colon.
-     * @throws IllegalArgumentException Si les colons n'existent pas, ou si un colon tente de se mettre en relation avec lui-même.
+     * @throws IllegalArgumentException Si les colons n'existent pas, si un colon tente de se mettre en relation avec lui-même,
+     * ou si la relation existe déjà.
      */
     public void ajouterRelation(String nom1, String nom2) {
         if (nom1.equals(nom2)) {
@@ -49,35 +69,94 @@ public class Colonie {
         if (colon1 == null || colon2 == null) { // Vérifie que les deux colons existent
             throw new IllegalArgumentException("Un ou les deux colons spécifiés n'existent pas.");
         }
-        colon1.ajouterRelation(colon2); // Ajoute une relation du premier colon vers le second
-        colon2.ajouterRelation(colon1); // ... du second colon vers le premier
+        ajouterRelation(colon1, colon2);
     }
 
     /**
      * Ajoute des préférences à un colon.
      * @param nom du colon.
-     * @param preferences la liste des préférences du colon.
-     * @throws IllegalArgumentException Si le colon n'existe pas, ou si les préférences ne correspondent pas aux ressources.
+     * @param preferences la liste des préférences du colon : toutes les ressources, ou seulement les premières de son
+     *                    classement ; les ressources absentes partagent le rang qui suit la dernière listée.
+     * @throws IllegalArgumentException Si le colon n'existe pas, si la liste est vide, si une préférence est
+     * inconnue, ou si une liste partielle répète une ressource.
+     * @throws NullPointerException Si la liste contient toutes les ressources mais en répète une ; les préférences
+     * qui précèdent la répétition sont alors ajoutées, comme lors de la lecture d'un fichier.
      */
     public void ajouterPreferences(String nom, List<String> preferences) {
         Colon colon = colons.get(nom); // Récupère le colon par son nom
         if (colon == null) { // Vérifie que le colon existe
             throw new IllegalArgumentException("Le colon n'existe pas");
         }
-        Set<String> preferencesUniques = new HashSet<>(preferences); // Vérification que les préférences sont bien toutes différentes
-        if (preferencesUniques.size() != ressources.size()) {
-            // Vérifie que les préférences données ne se répètent pas
+        int[] ids = numeroterPreferences(preferences);
+        // Préférences déjà vérifiées, toutes distinctes : ajout sans la vérification en O(m) de chaque préférence
+        remplacerPreferences(colon, preferences.toArray(new String[0]), ids);
+        if (ids.length < preferences.size()) { // Toutes les ressources sont présentes, mais l'une d'elles est répétée
+            throw new NullPointerException("La préférence existe deja.");
+        }
+    }
+
+    /**
+     * Vérifie en O(k) qu'une liste de k préférences contient des ressources distinctes : chaque ressource est marquée
+     * dans un tableau réutilisé d'une liste à l'autre, indexé par son identifiant. La liste peut ne classer qu'une
+     * partie des ressources. Les erreurs sont celles de la lecture d'un fichier (voir LecteurColonie).
+     * @param preferences la liste des préférences d'un colon.
+     * @return l'identifiant de chaque préférence, dans l'ordre de la liste ; seulement celles qui précèdent la première
+     * répétition si la liste contient toutes les ressources mais en répète une.
+     * @throws IllegalArgumentException si la liste est vide, si une ressource est inconnue, ou si une liste partielle
+     * répète une ressource.
+     */
+    private int[] numeroterPreferences(List<String> preferences) {
+        int m = ressources.size();
+        if (preferences.isEmpty()) {
             throw new IllegalArgumentException("Les préférences ne peuvent pas se répéter");
         }
-        if (!ressources.containsAll(preferencesUniques)){
-            // Vérifie que les préférences données soient identiques qu'à l'origine
+        numeroterRessources();
+        if (vues.length < m) vues = new int[m];
+        marque++;
+        int[] ids = new int[preferences.size()];
+        int distinctes = 0;
+        int doublon = -1; // Position de la première ressource répétée
+        int i = 0;
+        for (String preference : preferences) {
+            Integer id = idsRessources.get(preference);
+            if (id == null) { // Ressource inconnue
+                throw new IllegalArgumentException("Les préférences ne peuvent pas se répéter");
+            }
+            if (vues[id] != marque) {
+                vues[id] = marque;
+                distinctes++;
+            } else if (doublon < 0) {
+                doublon = i;
+            }
+            ids[i++] = id;
+        }
+        if (doublon < 0) return ids;
+        if (distinctes != m) { // Liste partielle acceptée sans répétition
             throw new IllegalArgumentException("Les préférences ne peuvent pas se répéter");
         }
-        if (!colon.getPreferences().isEmpty()) {
-            colon.supprimerPreferences(); // Si on redéfinit des préférences, on supprime celle deja existantes
-            System.out.println("--> Suppression des anciennes préférences...");
+        return Arrays.copyOf(ids, doublon);
+    }
+
+    // Numérote les ressources une fois tant qu'elles ne changent pas ; la vue compilée reprend cette numérotation
+    private void numeroterRessources() {
+        if (nomsRessources != null) return;
+        nomsRessources = ressources.toArray(new String[0]);
+        idsRessources = new HashMap<>();
+        for (int r = 0; r < nomsRessources.length; r++) {
+            idsRessources.put(nomsRessources[r], r);
         }
-        preferences.forEach(colon::ajouterPreference); // Ajoute chaque préférence à la liste des préférences du colon
+    }
+
+    /**
+     * Note un colon dont les relations ou les préférences ont changé : la vue compilée ne recalcule que ses lignes
+     * (voir ColonieCompilee.mettreAJour()), et reparer() le place dans la zone à réparer.
+     */
+    private void marquerModifie(Colon colon, boolean preferences) {
+        if (compilee != null) {
+            aRecompiler.add(colon);
+            preferencesARecompiler |= preferences;
+        }
+        if (region != null) region.add(colon);
     }
 
     /**
@@ -88,7 +167,7 @@ public class Colonie {
         boolean complet = true;
         StringBuilder sb = new StringBuilder();
         for (Colon colon : colons.values()) {
-            if (colon.getPreferences().isEmpty()) {
+            if (colon.getNombrePreferences() == 0) {
                 sb.append("Préférences manquantes pour le colon ");
                 sb.append(colon.getNom());
                 sb.append(".\n");
@@ -104,17 +183,8 @@ public class Colonie {
      * @return Le nombre de colons jaloux.
      */
     public int calculerColonsJaloux() {
-        int colonsJaloux = 0; // Compteur de colons jaloux
-        for (Colon colon : colons.values()) { // Parcourt tous les colons de la colonie
-            for (Colon relation : colon.getRelations()) { // Parcourt les colons en relation
-                // Si le colon préfère l'objet de la relation à celui qui lui a été assigné, il est jaloux
-                if (colon.getPreferences().indexOf(relation.getObjetAssigne()) < colon.getPreferences().indexOf(colon.getObjetAssigne())) {
-                    colonsJaloux++; // Incrémente le compteur de jalousie
-                    break; // Un colon jaloux n'est compté qu'une seule fois
-                }
-            }
-        }
-        return colonsJaloux; // Retourne le nombre total de colons jaloux
+        ColonieCompilee compilee = compiler();
+        return compilee.calculerJalousie(lireAssignation(compilee)); // Évaluation en O(E) sur la vue compilée
     }
 
     /**
@@ -141,68 +211,132 @@ public class Colonie {
      * @throws IOException Si une erreur d'entrée/sortie se produit lors de la lecture du fichier.
      */
     public void chargerFichier(String cheminFichier) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(cheminFichier));
-        String ligne;
-        int numLigne = 0;
-        String section = "colon"; // Indique la section actuelle : colons, ressources, relations et préférences
-
-        while ((ligne = reader.readLine()) != null) { // Tant que le fichier texte n'as pas été lu entièrement, on boucle
-            numLigne +=1;
-            ligne = ligne.trim(); // Supprime les espaces blancs de la ligne
-            if (ligne.isEmpty()) continue; // Passe à la ligne suivante si celle-ci est vide
-
-            if (ligne.startsWith("colon(") && ligne.endsWith(").")) { // Vérifie que la ligne commence et termine avec les bons caractères
-                if (!section.equals("colon")) { // Vérifie que la 1ére section est bien celle des colons
-                    throw new IllegalArgumentException("Les colons doivent être définis avant toute autre section, (ligne " + numLigne + ").");
-                }
-                String nomColon = ligne.substring(6, ligne.length() - 2); // Récupère le nom du colon entre les parenthèses
-                if (nomColon.split(",").length !=1){ // Vérifie que l'on n'a pas plusieurs paramètres
-                    throw new IllegalArgumentException("L'élément 'colon' prends 1 unique paramètres, (ligne " + numLigne + ").");
-                }
-                ajouterColon(nomColon); // Ajoute le colon à la colonie
-            }
-            else if (ligne.startsWith("ressource(") && ligne.endsWith(").")) {
-                if (!section.equals("ressource") && !section.equals("colon")) { // Vérifie que la 2e section ressource est celle des ressources
-                    throw new IllegalArgumentException("Les ressources doivent être définies après les colons, (ligne " + numLigne + ").");
-                }
-                section = "ressource"; // Passe à la section "ressource"
-                String nomRessource = ligne.substring(10, ligne.length() - 2); // Récupère le nom de la ressource entre les parenthèses
-                if (nomRessource.split(",").length !=1){ // Vérifie que l'on n'a pas plusieurs paramètres
-                    throw new IllegalArgumentException("L'élément 'ressource' prends 1 unique paramètres, (ligne " + numLigne + ").");
-                }
-                ressources.add(nomRessource); // Ajoute la ressource son ensemble
-            }
-            else if (ligne.startsWith("deteste(") && ligne.endsWith(").")) {
-                if (!section.equals("deteste") && !section.equals("ressource")) { // Vérifie que la 3e section ressource est celle des relations
-                    throw new IllegalArgumentException("Les relations 'deteste' doivent être définies après les ressources, (ligne " + numLigne + ").");
-                }
-                section = "deteste"; // Passe à la section "deteste"
-                String contenu = ligne.substring(8, ligne.length() - 2); // Récupère les noms des colons entre les parenthèses
-                String[] noms = contenu.split(",");
-                if (noms.length != 2) { // Vérifie le nombre de noms spécifiés
-                    throw new IllegalArgumentException("L'élément 'deteste' prends 2 paramètres et non " + noms.length + ", (ligne " + numLigne + ").");
-                }
-                try{ ajouterRelation(noms[0], noms[1]); } // Attrape les erreurs jetées
-                catch (IllegalArgumentException e) { System.err.println(e.getMessage() + ", (ligne " + numLigne + ").");}
-            }
-            else if (ligne.startsWith("preferences(") && ligne.endsWith(").")) {
-                if (!section.equals("preferences") && !section.equals("deteste")) {  // Vérifie que la 4e section ressource est celle des préférences
-                    throw new IllegalArgumentException("Les préférences doivent être définies après les relations, (ligne " + numLigne + ").");
+        new LecteurColonie(this).lire(Path.of(cheminFichier), false); // Lecture du fichier projeté en mémoire, sans chaîne intermédiaire
+    }
+
+    /**
+     * Charge les données d'une colonie depuis un fichier texte, en analysant les relations et les préférences en
+     * parallèle. Le résultat et les erreurs signalées sont les mêmes qu'avec chargerFichier().
+     * @param cheminFichier Le chemin du fichier à charger.
+     * @throws IOException Si une erreur d'entrée/sortie se produit lors de la lecture du fichier.
+     */
+    public void chargerFichierEnParallele(String cheminFichier) throws IOException {
+        new LecteurColonie(this).lire(Path.of(cheminFichier), true);
+    }
+
+    /**
+     * Charge les données d'une colonie depuis un texte au format du fichier, par exemple reçu par ServiceSolveur.
+     * @param contenu Les lignes de la colonie.
+     * @throws IllegalArgumentException Si une ligne est inconnue, mal formée ou hors de sa section.
+     */
+    public void chargerTexte(String contenu) {
+        new LecteurColonie(this).lire(ByteBuffer.wrap(contenu.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Charge une colonie depuis une image binaire écrite par enregistrerImage(), sans analyse ligne par ligne.
+     * La vue compilée est lue directement depuis l'image, ainsi que l'assignation si elle a été enregistrée.
+     * @param cheminImage Le chemin de l'image à charger.
+     * @throws IOException Si le fichier ne peut pas être lu ou n'est pas une image de colonie valide.
+     * @throws IllegalStateException Si la colonie contient déjà des colons ou des ressources.
+     */
+    public void chargerImage(String cheminImage) throws IOException {
+        ImageColonie.charger(this, Path.of(cheminImage));
+    }
+
+    /**
+     * Enregistre la colonie, avec l'assignation actuelle, dans une image binaire relue par chargerImage().
+     * @param cheminImage Le chemin de l'image à écrire.
+     * @throws IOException Si une erreur d'entrée/sortie se produit lors de l'écriture.
+     */
+    public void enregistrerImage(String cheminImage) throws IOException {
+        ImageColonie.enregistrer(this, Path.of(cheminImage));
+    }
+
+    // Accès réservés à LecteurColonie et ImageColonie, qui ont déjà vérifié les données lues
+
+    Colon getColon(String nom) {
+        return colons.get(nom);
+    }
+    Collection<Colon> getColons() {
+        return colons.values();
+    }
+    Set<String> getRessources() {
+        return ressources;
+    }
+    void definirCompilee(ColonieCompilee compilee) { // Vue lue depuis une image, cohérente avec les colons
+        this.compilee = compilee;
+        this.nomsRessources = compilee.getNomsRessources(); // La numérotation de l'image devient celle de la colonie
+        this.idsRessources = compilee.getIdsRessources();
+    }
+    int getNombreRessources() {
+        return ressources.size();
+    }
+
+    void ajouterRessource(String nom) {
+        ressources.add(nom);
+        compilee = null;
+        nomsRessources = null;
+    }
+
+    /**
+     * Ajoute une relation entre deux colons existants et distincts. Une relation déjà présente est détectée en O(1)
+     * par le graphe des relations (Adjacence), quel que soit le nombre de relations des deux colons.
+     * @throws IllegalArgumentException si la relation existe déjà.
+     */
+    void ajouterRelation(Colon colon1, Colon colon2) {
+        if (!adjacence().ajouter(colon1.getNumero(), colon2.getNumero())) {
+            throw new IllegalArgumentException("La relation existe deja.");
+        }
+        colon1.ajouterRelationVerifiee(colon2); // Ajoute une relation du premier colon vers le second
+        colon2.ajouterRelationVerifiee(colon1); // ... du second colon vers le premier
+        marquerModifie(colon1, false);
+        marquerModifie(colon2, false);
+    }
+
+    // Graphe des relations, construit en O(E) à partir des colons à la première relation ajoutée ou après le chargement
+    // d'une image, puis tenu à jour
+    private Adjacence adjacence() {
+        if (adjacence == null) {
+            adjacence = new Adjacence(colons.size());
+            for (Colon colon : colons.values()) {
+                for (Colon relation : colon.getRelations()) {
+                    if (colon.getNumero() < relation.getNumero()) adjacence.ajouter(colon.getNumero(), relation.getNumero());
                 }
-                section = "preferences"; // Passe à la section "preferences"
-                String contenu = ligne.substring(12, ligne.length() - 2); // Récupère le nom du colon concerné et ces ressources voulues
-                String[] parties = contenu.split(",");
-                String nomColon = parties[0]; // Nom du colon
-                List<String> prefs = Arrays.stream(parties).skip(1).toList(); // Ajoute les préférences (partie[n] sans n = 0) à la liste prefs
-                try{ ajouterPreferences(nomColon, prefs); } // Attrape les erreurs jetées
-                catch (IllegalArgumentException e) { System.err.println(e.getMessage() + ", (ligne " + numLigne + ").");}
-            }
-            else { // Si la ligne ne contient aucun début de phrase connu, ou que la syntaxe n'est pas respecté
-                throw new IllegalArgumentException("Ligne inconnue ou mauvaise syntaxe (ligne " + numLigne + ").");
             }
         }
+        return adjacence;
+    }
 
-        reader.close();
+    /**
+     * Remplace les préférences d'un colon par une liste déjà vérifiée : des ressources connues, chacune une fois.
+     */
+    void remplacerPreferences(Colon colon, String[] preferences, int nombre) {
+        if (colon.getNombrePreferences() > 0) {
+            colon.supprimerPreferences(); // Si on redéfinit des préférences, on supprime celle deja existantes
+            System.out.println("--> Suppression des anciennes préférences...");
+        }
+        colon.ajouterPreferences(preferences, nombre);
+        marquerModifie(colon, true);
+    }
+
+    /**
+     * Remplace les préférences d'un colon par une liste déjà vérifiée de ressources distinctes, dont les
+     * identifiants (voir getIdRessource()) sont recopiés tels quels par la compilation.
+     */
+    void remplacerPreferences(Colon colon, String[] preferences, int[] ids) {
+        remplacerPreferences(colon, preferences, ids.length);
+        colon.setIdsPreferences(ids, nomsRessources);
+    }
+
+    /**
+     * Renvoie l'identifiant d'une ressource dans la numérotation de la colonie, celle de sa vue compilée.
+     * @return l'identifiant, ou -1 si la ressource n'existe pas.
+     */
+    int getIdRessource(String nom) {
+        numeroterRessources();
+        Integer id = idsRessources.get(nom);
+        return id == null ? -1 : id;
     }
 
     /**
@@ -211,14 +345,26 @@ public class Colonie {
      * @throws IOException Si une erreur d'entrée/sortie se produit lors de la sauvegarde dans le fichier.
      */
     public void enregistreFichier(String cheminFichier) throws IOException {
-        BufferedWriter writer = new BufferedWriter(new FileWriter(cheminFichier));
-        for (Colon colon : colons.values()) { // Écrit pour chaque colon de la colonie son nom et sa ressource donnée
-            if (colon.getObjetAssigne() == null){
-                throw new NullPointerException("Le colon " + colon.getNom() + " n'as pas de ressource assignée.");
-            }
-            writer.write(colon.getNom() +":"+colon.getObjetAssigne()+"\n");
+        enregistreFichier(cheminFichier, false, false);
+    }
+
+    /**
+     * Sauvegarde l'assignation de la colonie dans un fichier texte, une ligne "nom:objet" par colon.
+     * L'assignation est vérifiée avant l'écriture, et le fichier est remplacé en une seule fois (voir ExportateurSolution).
+     * @param cheminFichier Le chemin du fichier où sauvegarder l'assignation.
+     * @param trie true pour écrire les colons par ordre alphabétique, false pour l'ordre de la colonie.
+     * @param avecJalousie true pour ajouter à chaque ligne ":1" si le colon est jaloux, ":0" sinon.
+     * @throws NullPointerException Si un colon n'a pas de ressource assignée ; le fichier n'est alors pas modifié.
+     * @throws IOException Si une erreur d'entrée/sortie se produit lors de la sauvegarde dans le fichier.
+     */
+    public void enregistreFichier(String cheminFichier, boolean trie, boolean avecJalousie) throws IOException {
+        ColonieCompilee compilee = compiler();
+        if (exportateur == null || exportateur.getColonie() != compilee) {
+            exportateur = new ExportateurSolution(compilee); // Noms encodés et tampon réutilisés tant que la colonie ne change pas
         }
-        writer.close();
+        exportateur.setTrie(trie);
+        exportateur.setAvecJalousie(avecJalousie);
+        exportateur.exporter(lireAssignation(compilee), Path.of(cheminFichier));
     }
 
     /**
@@ -247,6 +393,8 @@ public class Colonie {
             ressources.add(String.valueOf(i));
         }
         this.ressources = ressources;
+        this.compilee = null;
+        this.nomsRessources = null;
     }
 
     /**
@@ -263,176 +411,202 @@ public class Colonie {
     }
 
     /**
-     * Assigne des objets aux colons selon leurs préférences.
-     * Algorithme de la partie 1 du projet.
+     * Renvoie la vue compilée de la colonie, indexée par entiers, sur laquelle travaillent les algorithmes.
+     * La vue est mise en cache et recalculée après toute modification faite à travers la colonie ; après l'ajout
+     * de relations ou de préférences, seules les lignes des colons concernés sont recalculées.
+     * @return la vue compilée de la colonie.
      */
-    public void assignerObjets() {
-        Set<String> objetsDisponibles = ressources; // Ensemble des objets encore disponibles pour les colons
-
-        for (Colon colon : colons.values()) { // Parcourt tous les colons de la colonie
-            for (String preference : colon.getPreferences()) { // Parcourt les préférences du colon
-                if (objetsDisponibles.contains(preference)) { // Si l'objet préféré est disponible
-                    colon.setObjetAssigne(preference); // Assigne cet objet au colon
-                    objetsDisponibles.remove(preference); // Retire l'objet de la liste des objets disponibles
-                    break; // Sort de la boucle dès qu'un objet est assigné
-                }
+    public ColonieCompilee compiler() {
+        if (compilee == null) {
+            numeroterRessources();
+            compilee = new ColonieCompilee(colons.values(), nomsRessources, idsRessources);
+        } else if (!aRecompiler.isEmpty()) { // Seules les lignes des colons modifiés sont recalculées
+            compilee = compilee.mettreAJour(aRecompiler, preferencesARecompiler);
+        }
+        aRecompiler.clear();
+        preferencesARecompiler = false;
+        return compilee;
+    }
+
+    /**
+     * Lit l'assignation actuelle des colons sous forme d'identifiants de ressources.
+     * @param compilee la vue compilée de la colonie.
+     * @return l'identifiant de la ressource de chaque colon, ou -1 s'il n'en a pas.
+     */
+    int[] lireAssignation(ColonieCompilee compilee) {
+        int[] objets = new int[compilee.getNombreColons()];
+        IntStream indices = IntStream.range(0, objets.length);
+        if (objets.length >= SEUIL_LECTURE_PARALLELE) indices = indices.parallel(); // Les tables ne sont que lues
+        indices.forEach(c -> objets[c] = compilee.getIdRessource(colons.get(compilee.getNomColon(c)).getObjetAssigne()));
+        return objets;
+    }
+
+    /**
+     * Applique une assignation calculée sur la vue compilée aux colons de la colonie.
+     * @param compilee la vue compilée de la colonie.
+     * @param objets l'identifiant de la ressource de chaque colon, les colons à -1 restant inchangés.
+     */
+    private void appliquerAssignation(ColonieCompilee compilee, int[] objets) {
+        for (int c = 0; c < objets.length; c++) {
+            if (objets[c] >= 0) {
+                colons.get(compilee.getNomColon(c)).setObjetAssigne(compilee.getNomRessource(objets[c]));
             }
         }
+        region = new HashSet<>(); // Les modifications suivantes seront réparées à partir de cette assignation
     }
 
     /**
-     * Assigne des objets aux colons selon leurs préférences.
-     * Premier algorithme de la partie 2 du projet, expliqué en details dans le README.
+     * Cherche une assignation avec le solveur donné et l'applique aux colons.
+     * @param solveur l'algorithme d'assignation, par exemple l'une des valeurs de Algorithme.
+     * @param controle l'échéance, l'annulation, l'écouteur de progression et la graine de la résolution.
+     * @return la solution appliquée, avec sa jalousie et les informations sur la recherche.
+     * @throws IllegalStateException si le solveur a besoin d'au moins autant de ressources que de colons.
      */
-    public void assignerObjets2() {
-        // Liste des colons et des objets disponibles
-        List<Colon> colonList = new ArrayList<>(colons.values());
-        List<String> objetsDisponibles = new ArrayList<>(ressources);
-
-        // Créer une assignation initiale aléatoire
-        Map<Colon, String> meilleureAssignation = new HashMap<>();
-        for (Colon colon : colonList) {
-            String objet = objetsDisponibles.removeFirst();
-            meilleureAssignation.put(colon, objet);
+    public Solution resoudre(Solveur solveur, Controle controle) {
+        ColonieCompilee compilee = compiler();
+        Solution solution = solveur.resoudre(compilee, controle);
+        appliquerAssignation(compilee, solution.getObjets());
+        return solution;
+    }
+
+    /**
+     * Répare l'assignation actuelle après l'ajout de relations ou de préférences, au lieu de tout recalculer.
+     * La zone à réparer contient les colons modifiés depuis la dernière assignation, leurs voisins, et les colons
+     * sans objet, qui reçoivent d'abord leur ressource libre préférée. Seuls les mouvements qui touchent cette zone
+     * sont essayés (voir RechercheLocale.reparer()) : une petite modification d'une grande colonie se répare en
+     * quelques millisecondes, là où assignerObjets2() ou assignerObjets3() repartiraient de zéro. La solution
+     * n'est pas meilleure que l'assignation réparée ne le permet, et n'est pas prouvée optimale sauf sans jalousie.
+     * @param controle l'échéance et l'annulation de la réparation.
+     * @return la solution appliquée ; ses itérations sont les balayages de la zone.
+     * @throws IllegalStateException s'il y a moins de ressources que de colons.
+     */
+    public Solution reparer(Controle controle) {
+        ColonieCompilee compilee = compiler();
+        Algorithme.verifierRessourcesSuffisantes(compilee);
+        int n = compilee.getNombreColons();
+        int m = compilee.getNombreRessources();
+        int[] initiaux = lireAssignation(compilee);
+        int[] objets = initiaux.clone();
+        boolean[] prise = new boolean[m];
+        for (int objet : objets) {
+            if (objet >= 0) prise[objet] = true;
         }
 
-        // Calculer la jalousie pour la solution initiale
-        int meilleureJalousie = calculerJalousie(meilleureAssignation);
-
-        // Algorithme glouton avec amélioration locale
-        boolean amelioration = true;
-        while (amelioration) {
-            amelioration = false;
-
-            // Explorer les échanges entre tous les couples de colons
-            for (int i = 0; i < colonList.size(); i++) {
-                for (int j = i + 1; j < colonList.size(); j++) {
-                    Colon colon1 = colonList.get(i);
-                    Colon colon2 = colonList.get(j);
-
-                    // Échanger les objets assignés entre colon1 et colon2
-                    Map<Colon, String> nouvelleAssignation = new HashMap<>(meilleureAssignation);
-                    String temp = nouvelleAssignation.get(colon1);
-                    nouvelleAssignation.put(colon1, nouvelleAssignation.get(colon2));
-                    nouvelleAssignation.put(colon2, temp);
-
-                    // Calculer la jalousie après l'échange
-                    int nouvelleJalousie = calculerJalousie(nouvelleAssignation);
-
-                    // Si la nouvelle assignation est meilleure (moins de jalousie), on l'adopte
-                    if (nouvelleJalousie < meilleureJalousie) {
-                        meilleureAssignation = nouvelleAssignation;
-                        meilleureJalousie = nouvelleJalousie;
-                        amelioration = true; // Il y a eu une amélioration, donc on continue
-                    }
+        boolean[] modifie = new boolean[n];
+        int[] curseur = new int[1];
+        for (int c = 0; c < n; c++) {
+            if (objets[c] >= 0) continue;
+            modifie[c] = true;
+            objets[c] = compilee.ressourceLibrePreferee(c, prise, curseur); // Ressource libre préférée
+            if (objets[c] >= 0) prise[objets[c]] = true;
+        }
+        if (region != null) {
+            for (Colon colon : region) modifie[compilee.getIdColon(colon.getNom())] = true;
+        }
+        int[] debutVoisins = compilee.getDebutVoisins();
+        int[] voisins = compilee.getVoisins();
+        boolean[] dansZone = new boolean[n];
+        int[] zone = new int[n];
+        int taille = 0;
+        for (int c = 0; c < n; c++) {
+            if (!modifie[c]) continue;
+            if (!dansZone[c]) {
+                dansZone[c] = true;
+                zone[taille++] = c;
+            }
+            for (int k = debutVoisins[c]; k < debutVoisins[c + 1]; k++) {
+                if (!dansZone[voisins[k]]) {
+                    dansZone[voisins[k]] = true;
+                    zone[taille++] = voisins[k];
                 }
             }
         }
 
-        // Appliquer la meilleure assignation trouvée
-        for (Map.Entry<Colon, String> entry : meilleureAssignation.entrySet()) {
-            entry.getKey().setObjetAssigne(entry.getValue());
+        Affectation affectation = new Affectation(compilee, objets);
+        long balayages = taille == 0 ? 0
+                : RechercheLocale.reparer(affectation, Arrays.copyOf(zone, taille), controle::doitArreter);
+        int[] repares = affectation.getObjets();
+        int jalousie = affectation.getJalousie();
+        int[] changes = repares.clone();
+        for (int c = 0; c < n; c++) { // N'écrit que les colons dont l'objet a changé
+            if (changes[c] == initiaux[c]) changes[c] = -1;
         }
+        appliquerAssignation(compilee, changes);
+        controle.signalerAmelioration(jalousie, balayages);
+        return new Solution(repares, jalousie, jalousie == 0, balayages, controle.getTempsEcouleMillis());
     }
 
     /**
-     * Calcule le nombre de colons jaloux pour une assignation donnée.
-     * Nécessaire pour l'algorithme de la méthode assignerObjets2().
-     * @param assignation Une correspondance entre les colons et leurs objets assignés.
-     * @return Le nombre total de colons jaloux.
+     * Assigne des objets aux colons selon leurs préférences.
+     * Algorithme de la partie 1 du projet.
      */
-    private int calculerJalousie(Map<Colon, String> assignation) {
-        int jalousie = 0;
-
-        for (Map.Entry<Colon, String> entry : assignation.entrySet()) {
-            Colon colon = entry.getKey();
-            String objetAssigne = entry.getValue();
-
-            for (Colon relation : colon.getRelations()) {
-                String objetRelation = assignation.get(relation);
+    public void assignerObjets() {
+        resoudre(Algorithme.NAIF, new Controle());
+    }
 
-                if (colon.getPreferences().indexOf(objetRelation) < colon.getPreferences().indexOf(objetAssigne)) {
-                    jalousie++;
-                    break; // Un colon jaloux n'est compté qu'une fois
-                }
-            }
-        }
-        return jalousie;
+    /**
+     * Assigne des objets aux colons selon leurs préférences.
+     * Premier algorithme de la partie 2 du projet, expliqué en details dans le README.
+     */
+    public void assignerObjets2() {
+        resoudre(Algorithme.LOCAL, new Controle());
     }
 
     /**
      * Assigne des objets aux colons selon leurs préférences.
      * Second algorithme de la partie 2 du projet, expliqué en details dans le README.
-     * Attention, la complexité de cet algorithme est O(n!), avec n le nombre de colons.
+     * Recherche exacte par séparation et évaluation, dont la borne initiale est la solution de assignerObjets2(),
+     * appliquée après avoir retiré les colons sans relation (voir Reduction).
+     * Attention, la complexité de cet algorithme reste exponentielle dans le pire cas.
      */
     public void assignerObjets3() {
         System.out.println("--> Cherche l'assignation optimale...");
-        // Liste des colons et des objets disponibles
-        List<Colon> colonList = new ArrayList<>(colons.values());
-        List<String> objetsDisponibles = new ArrayList<>(ressources);
-
-        // Initialiser les variables pour stocker la meilleure assignation
-        Map<Colon, String> meilleureAssignation = new HashMap<>();
-        int meilleureJalousie = Integer.MAX_VALUE;
-
-        // Générer toutes les permutations possibles des objets disponibles
-        List<List<String>> permutations = genererPermutations(objetsDisponibles);
-
-        // Parcourir chaque permutation pour calculer la jalousie
-        for (List<String> permutation : permutations) {
-            // Créer une assignation actuelle en utilisant la permutation
-            Map<Colon, String> assignationActuelle = new HashMap<>();
-            for (int i = 0; i < colonList.size(); i++) {
-                assignationActuelle.put(colonList.get(i), permutation.get(i));
-            }
-
-            // Calculer la jalousie pour cette assignation
-            int jalousieActuelle = calculerJalousie(assignationActuelle);
+        resoudre(new Reduction(Algorithme.EXACT), new Controle());
+    }
 
-            // Vérifier si cette assignation est meilleure que la meilleure trouvée jusqu'à présent
-            if (jalousieActuelle < meilleureJalousie) {
-                meilleureJalousie = jalousieActuelle; // Mettre à jour la jalousie minimale
-                meilleureAssignation = new HashMap<>(assignationActuelle); // Enregistrer la nouvelle meilleure assignation
-            }
-        }
+    /**
+     * Assigne des objets aux colons selon leurs préférences, avec la même recherche exacte que assignerObjets3(),
+     * répartie sur tous les cœurs disponibles (ForkJoinPool commun).
+     */
+    public void assignerObjets3Parallele() {
+        System.out.println("--> Cherche l'assignation optimale...");
+        resoudre(new Reduction(Algorithme.EXACT_PARALLELE), new Controle());
+    }
 
-        // Appliquer la meilleure assignation trouvée à chaque colon
-        for (Map.Entry<Colon, String> entry : meilleureAssignation.entrySet()) {
-            entry.getKey().setObjetAssigne(entry.getValue());
-        }
+    /**
+     * Assigne des objets aux colons en relançant la recherche locale de assignerObjets2() depuis des assignations
+     * aléatoires, en parallèle sur tous les cœurs, et en gardant la meilleure.
+     * @param departs le nombre de recherches locales à lancer.
+     * @param dureeMillis le temps de calcul accordé, en millisecondes.
+     * @param jalousieCible la jalousie à partir de laquelle on arrête de chercher, par exemple 0.
+     * @param graine la graine des générateurs aléatoires.
+     */
+    public void assignerObjetsMultiDepart(int departs, long dureeMillis, int jalousieCible, long graine) {
+        ColonieCompilee compilee = compiler();
+        Algorithme.verifierRessourcesSuffisantes(compilee);
+        Controle controle = new Controle(dureeMillis);
+        controle.setGraine(graine);
+        appliquerAssignation(compilee, RechercheLocale.multiDepart(compilee, departs, jalousieCible, controle).getObjets());
     }
 
     /**
-     * Génère toutes les permutations possibles d'une liste donnée.
-     * Nécessaire pour l'algorithme de la méthode assignerObjets3().
-     * @param liste La liste des éléments pour lesquels générer les permutations.
-     * @return Une liste contenant toutes les permutations possibles.
+     * Assigne des objets aux colons par recuit simulé, à partir de la solution de assignerObjets().
+     * Adapté aux grandes colonies, pour lesquelles la recherche exacte est hors de portée.
+     * @param dureeMillis le temps de calcul accordé, en millisecondes.
+     * @param graine la graine du générateur aléatoire.
      */
-    private List<List<String>> genererPermutations(List<String> liste) {
-        List<List<String>> result = new ArrayList<>();
-        permuter(result, new ArrayList<>(), liste);
-        return result;
+    public void assignerObjetsRecuit(long dureeMillis, long graine) {
+        Controle controle = new Controle(dureeMillis);
+        controle.setGraine(graine);
+        resoudre(Algorithme.RECUIT, controle);
     }
 
     /**
-     * Fonction récursive pour générer les permutations d'une liste.
-     * Nécessaire pour l'algorithme de la méthode assignerObjets3().
-     * @param result La liste finale contenant toutes les permutations.
-     * @param temp Une liste temporaire pour construire les permutations actuelles.
-     * @param liste La liste initiale des éléments à permuter.
+     * Assigne des objets aux colons en évaluant toutes les permutations possibles des ressources.
+     * Exploration exhaustive sans élagage, conservée comme référence pour valider assignerObjets3().
+     * Attention, la complexité de cet algorithme est O(n!), avec n le nombre de colons.
      */
-    private void permuter(List<List<String>> result, List<String> temp, List<String> liste) {
-        // Condition de terminaison : si la permutation temporaire a la même taille que la liste de départ
-        if (temp.size() == liste.size()) {
-            result.add(new ArrayList<>(temp)); // Ajouter la permutation actuelle au résultat
-            return;
-        }
-        // Explorer chaque élément de la liste
-        for (int i = 0; i < liste.size(); i++) {
-            if (temp.contains(liste.get(i))) continue; // Éviter d'ajouter deux fois le même élément
-            temp.add(liste.get(i)); // Ajouter l'élément actuel à la permutation temporaire
-            permuter(result, temp, liste); // Appel récursif pour compléter la permutation
-            temp.removeLast(); // Retirer l'élément pour explorer d'autres possibilités
-        }
+    public void assignerObjetsExhaustif() {
+        resoudre(Algorithme.EXHAUSTIF, new Controle());
     }
-}
\ No newline at end of file
+}
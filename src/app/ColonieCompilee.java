@@ -0,0 +1,650 @@
+package app;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Classe ColonieCompilee : vue compacte et indexée par entiers d'une colonie, utilisée par les algorithmes
+ * d'assignation. Les colons et les ressources sont numérotés de 0 à n-1 et de 0 à m-1, les préférences sont
+ * stockées dans une table de rangs aplatie et les relations dans deux tableaux d'entiers (format CSR).
+ * Quand les colons ne classent que quelques ressources, seules les ressources listées sont gardées (mode creux,
+ * en O(n·k) au lieu de O(n·m)) : les autres partagent le rang qui suit la dernière listée.
+ * Une assignation est représentée par un tableau int[] donnant pour chaque colon l'identifiant de sa ressource,
+ * ou -1 si aucune ressource ne lui est assignée.
+ */
+public class ColonieCompilee {
+    private static final long SEUIL_CREUX = 1 << 20; // Nombre de rangs en dessous duquel la table dense est toujours gardée
+    private static final int SEUIL_VECTORIEL = 1 << 12; // Nombre d'arêtes à partir duquel le noyau vectoriel est utilisé
+    private static final int SEUIL_PARALLELE = 1 << 18; // Nombre d'arêtes à partir duquel l'évaluation est répartie
+    private static final int MORCEAUX_PAR_FIL = 4; // Nombre de morceaux visé par fil pour équilibrer la charge
+    private static final NoyauJalousie NOYAU_VECTORIEL = NoyauJalousie.chargerVectoriel(); // Ou null sans le module
+
+    /**
+     * Chemin de calcul de calculerJalousie(), choisi selon le nombre d'arêtes et les moyens de la machine.
+     */
+    public enum Evaluation {
+        SEQUENTIELLE, // Boucle scalaire, colon par colon
+        VECTORIELLE, // Noyau vectoriel sur toutes les arêtes, quand il est chargé et que la table des rangs est dense
+        PARALLELE, // Morceaux de colons répartis sur le ForkJoinPool commun, chacun par la boucle scalaire
+        PARALLELE_VECTORIELLE // Morceaux répartis, chacun par le noyau vectoriel
+    }
+
+    private final String[] nomsColons; // Nom de chaque colon, indexé par son identifiant
+    private final String[] nomsRessources; // Nom de chaque ressource, indexé par son identifiant
+    private final Map<String, Integer> idsColons; // Identifiant de chaque colon à partir de son nom
+    private final Map<String, Integer> idsRessources; // Identifiant de chaque ressource à partir de son nom
+    private final int[] rangs; // rangs[c * m + r] : rang de la ressource r dans les préférences du colon c (0 = préférée), ou null en mode creux
+    private final int[] ordre; // ordre[c * m + k] : ressource de rang k dans les préférences du colon c, ou null en mode creux
+    private final int[] nombresPreferences; // Nombre de ressources listées par chaque colon en mode dense, ou null en mode creux
+    private final PreferencesCreuses creuses; // Ressources listées par chaque colon en mode creux, ou null
+    private final int[] debutVoisins; // Les voisins du colon c sont voisins[debutVoisins[c]] ... voisins[debutVoisins[c+1]-1]
+    private final int[] voisins; // Relations négatives de tous les colons, mises bout à bout
+
+    /**
+     * Compile une colonie à partir de ses colons et de ses ressources.
+     * Le rang d'une ressource est sa position dans la liste de préférences du colon ; les ressources absentes
+     * de la liste partagent le dernier rang, de sorte qu'un colon sans préférences n'est jamais jaloux.
+     * @param colons les colons de la colonie, dans l'ordre qui définit leurs identifiants, numérotés de 0 à n - 1
+     *               par la colonie (Colon.getNumero()).
+     * @param nomsRessources les ressources de la colonie, dans l'ordre qui définit leurs identifiants. Le tableau est
+     *                       repris tel quel : les préférences déjà numérotées pour ce tableau sont copiées sans recherche.
+     * @param idsRessources l'identifiant de chaque ressource à partir de son nom.
+     */
+    ColonieCompilee(Collection<Colon> colons, String[] nomsRessources, Map<String, Integer> idsRessources) {
+        int n = colons.size();
+        int m = nomsRessources.length;
+        this.nomsColons = new String[n];
+        this.nomsRessources = nomsRessources;
+        this.idsColons = new HashMap<>();
+        this.idsRessources = idsRessources;
+        int[] ids = new int[n]; // Identifiant de chaque colon à partir de son numéro, pour les relations
+        int c = 0;
+        for (Colon colon : colons) {
+            nomsColons[c] = colon.getNom();
+            idsColons.put(colon.getNom(), c);
+            ids[colon.getNumero()] = c;
+            c++;
+        }
+
+        // Table des rangs et ordre des préférences de chaque colon, ou ressources listées seules si les listes sont courtes
+        long listees = 0;
+        for (Colon colon : colons) listees += Math.min(colon.getNombrePreferences(), m);
+        if (estCreuse(n, m, listees)) {
+            this.rangs = null;
+            this.ordre = null;
+            this.nombresPreferences = null;
+            this.creuses = lireCreuses(colons.toArray(new Colon[0]), null);
+        } else {
+            this.rangs = new int[n * m];
+            this.ordre = new int[n * m];
+            this.nombresPreferences = new int[n];
+            this.creuses = null;
+            int[] tampon = new int[m];
+            boolean[] listee = new boolean[m]; // Ressources déjà présentes dans la liste du colon courant
+            c = 0;
+            for (Colon colon : colons) {
+                remplirPreferences(colon, c, tampon, listee);
+                c++;
+            }
+        }
+
+        // Relations au format CSR
+        this.debutVoisins = new int[n + 1];
+        c = 0;
+        for (Colon colon : colons) {
+            debutVoisins[c + 1] = debutVoisins[c] + colon.getRelations().size();
+            c++;
+        }
+        this.voisins = new int[debutVoisins[n]];
+        c = 0;
+        for (Colon colon : colons) {
+            int k = debutVoisins[c];
+            for (Colon relation : colon.getRelations()) {
+                voisins[k++] = ids[relation.getNumero()];
+            }
+            c++;
+        }
+    }
+
+    /**
+     * Construit une vue à partir des préférences et des relations déjà numérotées, par exemple lues depuis une image
+     * binaire (ImageColonie), sans passer par les colons. Le mode, dense ou creux, est choisi comme à la compilation.
+     * Les tableaux sont repris tels quels, sans copie ni vérification : les ressources listées par chaque colon
+     * doivent être distinctes.
+     * @param debutPreferences les ressources listées du colon c sont preferees[debutPreferences[c]] ...
+     *                         preferees[debutPreferences[c+1]-1], dans l'ordre de ses préférences.
+     */
+    ColonieCompilee(String[] nomsColons, String[] nomsRessources, int[] debutPreferences, int[] preferees,
+                    int[] debutVoisins, int[] voisins) {
+        this.nomsColons = nomsColons;
+        this.nomsRessources = nomsRessources;
+        this.idsColons = indexer(nomsColons);
+        this.idsRessources = indexer(nomsRessources);
+        this.debutVoisins = debutVoisins;
+        this.voisins = voisins;
+        int n = nomsColons.length;
+        int m = nomsRessources.length;
+        if (estCreuse(n, m, preferees.length)) {
+            this.rangs = null;
+            this.ordre = null;
+            this.nombresPreferences = null;
+            this.creuses = new PreferencesCreuses(debutPreferences, preferees);
+        } else {
+            this.rangs = new int[n * m];
+            this.ordre = new int[n * m];
+            this.nombresPreferences = new int[n];
+            this.creuses = null;
+            boolean[] listee = new boolean[m];
+            for (int c = 0; c < n; c++) {
+                remplirPreferences(c, preferees, debutPreferences[c], debutPreferences[c + 1] - debutPreferences[c], listee);
+            }
+        }
+    }
+
+    // Constructeur d'une vue déjà calculée, utilisé par restreindre() et mettreAJour()
+    private ColonieCompilee(String[] nomsColons, String[] nomsRessources, Map<String, Integer> idsColons,
+                            Map<String, Integer> idsRessources, int[] rangs, int[] ordre, int[] nombresPreferences,
+                            PreferencesCreuses creuses, int[] debutVoisins, int[] voisins) {
+        this.nomsColons = nomsColons;
+        this.nomsRessources = nomsRessources;
+        this.idsColons = idsColons;
+        this.idsRessources = idsRessources;
+        this.rangs = rangs;
+        this.ordre = ordre;
+        this.nombresPreferences = nombresPreferences;
+        this.creuses = creuses;
+        this.debutVoisins = debutVoisins;
+        this.voisins = voisins;
+    }
+
+    // Mode creux si la table dense ne tient pas dans un tableau, ou si elle est grande et les listes courtes
+    private static boolean estCreuse(int n, int m, long listees) {
+        return (long) n * m > Integer.MAX_VALUE || ((long) n * m > SEUIL_CREUX && listees * 4 <= (long) n * m);
+    }
+
+    private static Map<String, Integer> indexer(String[] noms) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < noms.length; i++) {
+            ids.put(noms[i], i);
+        }
+        return ids;
+    }
+
+    /**
+     * Construit la vue restreinte à une partie des colons, avec toutes les ressources. Les colons gardés sont
+     * renumérotés dans l'ordre donné, et seules les relations entre colons gardés sont conservées.
+     * @param gardes les identifiants des colons à garder, sans doublon.
+     * @return la vue restreinte, où le colon i correspond au colon gardes[i] de cette vue.
+     */
+    ColonieCompilee restreindre(int[] gardes) {
+        int m = nomsRessources.length;
+        int[] nouvelId = new int[nomsColons.length];
+        Arrays.fill(nouvelId, -1);
+        for (int i = 0; i < gardes.length; i++) nouvelId[gardes[i]] = i;
+
+        String[] noms = new String[gardes.length];
+        int[] rangsGardes = creuses == null ? new int[gardes.length * m] : null;
+        int[] ordreGardes = creuses == null ? new int[gardes.length * m] : null;
+        int[] nombresGardes = creuses == null ? new int[gardes.length] : null;
+        int[] debut = new int[gardes.length + 1];
+        int aretes = 0;
+        for (int i = 0; i < gardes.length; i++) {
+            int c = gardes[i];
+            noms[i] = nomsColons[c];
+            if (creuses == null) {
+                System.arraycopy(rangs, c * m, rangsGardes, i * m, m);
+                System.arraycopy(ordre, c * m, ordreGardes, i * m, m);
+                nombresGardes[i] = nombresPreferences[c];
+            }
+            for (int k = debutVoisins[c]; k < debutVoisins[c + 1]; k++) {
+                if (nouvelId[voisins[k]] >= 0) aretes++;
+            }
+            debut[i + 1] = aretes;
+        }
+        int[] voisinsGardes = new int[aretes];
+        for (int i = 0, j = 0; i < gardes.length; i++) {
+            int c = gardes[i];
+            for (int k = debutVoisins[c]; k < debutVoisins[c + 1]; k++) {
+                if (nouvelId[voisins[k]] >= 0) voisinsGardes[j++] = nouvelId[voisins[k]];
+            }
+        }
+        PreferencesCreuses creusesGardees = null;
+        if (creuses != null) {
+            int[] debutPreferees = new int[gardes.length + 1];
+            for (int i = 0; i < gardes.length; i++) {
+                debutPreferees[i + 1] = debutPreferees[i] + creuses.debut[gardes[i] + 1] - creuses.debut[gardes[i]];
+            }
+            int[] preferees = new int[debutPreferees[gardes.length]];
+            for (int i = 0; i < gardes.length; i++) {
+                System.arraycopy(creuses.preferees, creuses.debut[gardes[i]], preferees, debutPreferees[i],
+                        debutPreferees[i + 1] - debutPreferees[i]);
+            }
+            creusesGardees = new PreferencesCreuses(debutPreferees, preferees);
+        }
+        return new ColonieCompilee(noms, nomsRessources, indexer(noms), idsRessources, rangsGardes, ordreGardes,
+                nombresGardes, creusesGardees, debut, voisinsGardes);
+    }
+
+    /**
+     * Construit la vue de la même colonie après la modification des préférences ou des relations de quelques
+     * colons : seules leurs lignes sont recalculées, les autres sont reprises de cette vue, qui n'est pas modifiée.
+     * Les tables de préférences ne sont copiées que si des préférences ont changé, et les relations sont
+     * reconstruites en O(n + E) : le coût ne dépend pas du nombre de préférences des colons inchangés.
+     * La vue à jour garde le mode, dense ou creux, de cette vue.
+     * @param modifies les colons modifiés, qui doivent tous appartenir à cette vue, comme leurs relations.
+     * @param preferencesModifiees vrai si des préférences ont changé, faux si seules des relations ont été ajoutées.
+     * @return la vue à jour, avec la même numérotation des colons et des ressources.
+     */
+    ColonieCompilee mettreAJour(Collection<Colon> modifies, boolean preferencesModifiees) {
+        int n = nomsColons.length;
+        int[] rangsAJour = rangs;
+        int[] ordreAJour = ordre;
+        int[] nombresAJour = nombresPreferences;
+        Colon[] lus = new Colon[n]; // Colons dont les relations sont relues, les autres étant reprises de cette vue
+        for (Colon colon : modifies) {
+            lus[idsColons.get(colon.getNom())] = colon;
+        }
+        int aretes = 0;
+        int[] debut = new int[n + 1];
+        for (int c = 0; c < n; c++) {
+            aretes += lus[c] != null ? lus[c].getRelations().size() : debutVoisins[c + 1] - debutVoisins[c];
+            debut[c + 1] = aretes;
+        }
+        int[] voisinsAJour = new int[aretes];
+        for (int c = 0; c < n; c++) {
+            if (lus[c] == null) {
+                System.arraycopy(voisins, debutVoisins[c], voisinsAJour, debut[c], debut[c + 1] - debut[c]);
+                continue;
+            }
+            int k = debut[c];
+            for (Colon relation : lus[c].getRelations()) {
+                voisinsAJour[k++] = idsColons.get(relation.getNom());
+            }
+        }
+        PreferencesCreuses creusesAJour = creuses;
+        if (preferencesModifiees && creuses != null) { // Lignes des colons modifiés relues, les autres recopiées
+            creusesAJour = lireCreuses(lus, creuses);
+        } else if (preferencesModifiees) {
+            rangsAJour = rangs.clone();
+            ordreAJour = ordre.clone();
+            nombresAJour = nombresPreferences.clone();
+        }
+        ColonieCompilee vue = new ColonieCompilee(nomsColons, nomsRessources, idsColons, idsRessources, rangsAJour,
+                ordreAJour, nombresAJour, creusesAJour, debut, voisinsAJour);
+        if (preferencesModifiees && creuses == null) {
+            int[] tampon = new int[nomsRessources.length];
+            boolean[] listee = new boolean[nomsRessources.length];
+            for (int c = 0; c < n; c++) {
+                if (lus[c] != null) vue.remplirPreferences(lus[c], c, tampon, listee);
+            }
+        }
+        return vue;
+    }
+
+    /**
+     * Remplit les lignes d'un colon dans les tables des rangs et de l'ordre des préférences (mode dense).
+     * Le rang d'une ressource est sa position dans la liste de préférences du colon ; les ressources absentes
+     * de la liste partagent le dernier rang, et sont rangées dans l'ordre par identifiant croissant.
+     * @param tampon tableau de travail d'une case par ressource.
+     * @param listee tableau de travail d'une case par ressource, entièrement faux.
+     */
+    private void remplirPreferences(Colon colon, int c, int[] tampon, boolean[] listee) {
+        remplirPreferences(c, tampon, 0, lirePreferences(colon, tampon, listee), listee);
+    }
+
+    /**
+     * Remplit les lignes d'un colon à partir des identifiants des ressources qu'il liste (mode dense).
+     * @param preferees contient les ressources listées, distinctes, de preferees[debut] à preferees[debut+nombre-1].
+     * @param listee tableau de travail d'une case par ressource, entièrement faux, et rendu tel quel.
+     */
+    private void remplirPreferences(int c, int[] preferees, int debut, int nombre, boolean[] listee) {
+        int m = nomsRessources.length;
+        int base = c * m;
+        nombresPreferences[c] = nombre;
+        for (int rang = 0; rang < nombre; rang++) {
+            int r = preferees[debut + rang];
+            rangs[base + r] = rang;
+            ordre[base + rang] = r;
+            listee[r] = true;
+        }
+        int rang = nombre; // Rang partagé par toutes les ressources absentes de la liste
+        for (int r = 0; r < m; r++) {
+            if (!listee[r]) {
+                rangs[base + r] = nombre;
+                ordre[base + rang++] = r;
+            } else {
+                listee[r] = false; // Tableau de travail remis à faux pour le colon suivant
+            }
+        }
+    }
+
+    /**
+     * Lit les ressources listées par un colon, dans l'ordre, sans les préférences inconnues ou répétées. Les
+     * préférences déjà vérifiées et numérotées pour les ressources de cette vue (voir Colonie.ajouterPreferences())
+     * sont recopiées sans chercher les noms.
+     * @param tampon reçoit les identifiants des ressources listées.
+     * @param listee tableau de travail d'une case par ressource, entièrement faux, et rendu tel quel.
+     * @return le nombre de ressources listées.
+     */
+    private int lirePreferences(Colon colon, int[] tampon, boolean[] listee) {
+        int[] numerotees = colon.getIdsPreferences(nomsRessources);
+        if (numerotees != null && numerotees.length == colon.getNombrePreferences()) {
+            System.arraycopy(numerotees, 0, tampon, 0, numerotees.length);
+            return numerotees.length;
+        }
+        int nombre = 0;
+        for (String preference : colon.getPreferences()) {
+            Integer r = idsRessources.get(preference);
+            if (r == null || listee[r]) continue; // Ignore les préférences inconnues ou répétées
+            listee[r] = true;
+            tampon[nombre++] = r;
+        }
+        for (int i = 0; i < nombre; i++) listee[tampon[i]] = false;
+        return nombre;
+    }
+
+    /**
+     * Construit les préférences creuses de tous les colons de cette vue.
+     * @param lus pour chaque identifiant, le colon dont les préférences sont lues, ou null pour reprendre sa ligne.
+     * @param anciennes les préférences creuses dont les lignes sont reprises, ou null si tous les colons sont lus.
+     */
+    private PreferencesCreuses lireCreuses(Colon[] lus, PreferencesCreuses anciennes) {
+        int n = lus.length;
+        int m = nomsRessources.length;
+        int[] tampon = new int[m];
+        boolean[] listee = new boolean[m];
+        int[] debut = new int[n + 1];
+        int[] preferees = new int[Math.max(16, n)];
+        for (int c = 0; c < n; c++) {
+            int[] source = tampon;
+            int position = 0;
+            int nombre;
+            if (lus[c] != null) {
+                nombre = lirePreferences(lus[c], tampon, listee);
+            } else {
+                source = anciennes.preferees;
+                position = anciennes.debut[c];
+                nombre = anciennes.debut[c + 1] - position;
+            }
+            if ((long) debut[c] + nombre > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("La colonie est trop grande pour être compilée (" + n + " colons, " + m + " ressources).");
+            }
+            if (debut[c] + nombre > preferees.length) {
+                preferees = Arrays.copyOf(preferees, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max(debut[c] + nombre, 2L * preferees.length)));
+            }
+            System.arraycopy(source, position, preferees, debut[c], nombre);
+            debut[c + 1] = debut[c] + nombre;
+        }
+        return new PreferencesCreuses(debut, Arrays.copyOf(preferees, debut[n]));
+    }
+
+    /**
+     * Calcule le nombre de colons jaloux pour une assignation donnée, en O(n + E).
+     * Un colon est jaloux s'il préfère strictement l'objet d'un colon avec qui il est en relation au sien. Comme
+     * l'absence d'objet dans une liste de préférences, un voisin sans objet n'est envié que si l'objet du colon figure
+     * dans sa liste : un colon sans préférences, ou dont l'objet n'est pas listé, ne l'envie pas.
+     * Sur une table dense d'au moins SEUIL_VECTORIEL arêtes, le calcul passe par le noyau vectoriel s'il est chargé
+     * (voir NoyauJalousie) ; sinon, chaque colon parcourt ses voisins jusqu'à sa première envie, sans allocation.
+     * À partir de SEUIL_PARALLELE arêtes, les colons sont en outre répartis en morceaux d'autant d'arêtes sur le
+     * ForkJoinPool commun, chaque morceau étant calculé de la même façon, et les comptes des morceaux sont additionnés.
+     * Le résultat est le même dans tous les cas (voir getEvaluation()).
+     * @param objets l'identifiant de la ressource assignée à chaque colon, ou -1.
+     * @return Le nombre total de colons jaloux.
+     */
+    public int calculerJalousie(int[] objets) {
+        int fils = ForkJoinPool.getCommonPoolParallelism();
+        switch (getEvaluation(fils)) {
+            case PARALLELE:
+            case PARALLELE_VECTORIELLE:
+                return calculerJalousieEnParallele(objets, fils * MORCEAUX_PAR_FIL);
+            case VECTORIELLE:
+                return compterMorceau(objets, 0, nomsColons.length);
+            default:
+                return calculerJalousie(objets, 0, nomsColons.length);
+        }
+    }
+
+    /**
+     * Renvoie le chemin de calcul que calculerJalousie() prend pour cette colonie.
+     * @param fils le nombre de fils disponibles ; calculerJalousie() utilise ForkJoinPool.getCommonPoolParallelism().
+     * @return à partir de SEUIL_PARALLELE arêtes avec plusieurs fils, PARALLELE_VECTORIELLE si le noyau vectoriel est
+     * chargé et la table des rangs dense, PARALLELE sinon ; avec moins d'arêtes ou un seul fil, VECTORIELLE à partir de
+     * SEUIL_VECTORIEL arêtes dans les mêmes conditions, SEQUENTIELLE sinon.
+     */
+    public Evaluation getEvaluation(int fils) {
+        boolean vectorielle = NOYAU_VECTORIEL != null && rangs != null;
+        if (fils > 1 && voisins.length >= SEUIL_PARALLELE) {
+            return vectorielle ? Evaluation.PARALLELE_VECTORIELLE : Evaluation.PARALLELE;
+        }
+        if (vectorielle && voisins.length >= SEUIL_VECTORIEL) return Evaluation.VECTORIELLE;
+        return Evaluation.SEQUENTIELLE;
+    }
+
+    /**
+     * Calcule le nombre de colons jaloux en répartissant les colons sur le ForkJoinPool commun. Les bornes des
+     * morceaux sont choisies sur le tableau des voisins, pour que chaque morceau ait à peu près autant d'arêtes
+     * même quand quelques colons concentrent la plupart des relations. Chaque morceau passe par le noyau vectoriel
+     * s'il est chargé et que la table des rangs est dense, par la boucle scalaire sinon.
+     * @param objets l'identifiant de la ressource assignée à chaque colon, ou -1.
+     * @param morceaux le nombre de morceaux, au moins 1.
+     * @return Le nombre total de colons jaloux, identique à celui du calcul séquentiel.
+     */
+    public int calculerJalousieEnParallele(int[] objets, int morceaux) {
+        int n = nomsColons.length;
+        int[] bornes = new int[morceaux + 1];
+        bornes[morceaux] = n;
+        for (int i = 1; i < morceaux; i++) {
+            int cible = (int) ((long) voisins.length * i / morceaux);
+            int c = Arrays.binarySearch(debutVoisins, 0, n + 1, cible);
+            if (c < 0) c = -c - 1; // Premier colon dont les voisins commencent après la cible
+            bornes[i] = Math.max(bornes[i - 1], Math.min(c, n));
+        }
+        return IntStream.range(0, morceaux).parallel().map(i -> compterMorceau(objets, bornes[i], bornes[i + 1])).sum();
+    }
+
+    // Nombre de colons jaloux parmi les colons debut ... fin-1, par le noyau vectoriel quand il s'applique
+    private int compterMorceau(int[] objets, int debut, int fin) {
+        if (NOYAU_VECTORIEL == null || rangs == null) return calculerJalousie(objets, debut, fin);
+        return NOYAU_VECTORIEL.compter(rangs, nomsRessources.length, nombresPreferences, debutVoisins, voisins, objets,
+                debut, fin);
+    }
+
+    // Nombre de colons jaloux parmi les colons debut ... fin-1
+    private int calculerJalousie(int[] objets, int debut, int fin) {
+        int jalousie = 0;
+        for (int c = debut; c < fin; c++) {
+            int rangPropre = rang(c, objets[c]);
+            int rangSansObjet = rangPropre < nombrePreferences(c) ? -1 : rangPropre; // Rang d'un voisin sans objet
+            for (int k = debutVoisins[c]; k < debutVoisins[c + 1]; k++) {
+                int objet = objets[voisins[k]];
+                if ((objet < 0 ? rangSansObjet : rang(c, objet)) < rangPropre) {
+                    jalousie++;
+                    break; // Un colon jaloux n'est compté qu'une fois
+                }
+            }
+        }
+        return jalousie;
+    }
+
+    /**
+     * Renvoie le rang d'une ressource dans les préférences d'un colon.
+     * Une ressource absente (-1) a le rang -1, comme un objet non assigné dans une liste de préférences.
+     * @param colon l'identifiant du colon.
+     * @param ressource l'identifiant de la ressource, ou -1.
+     * @return le rang de la ressource, 0 étant la ressource préférée.
+     */
+    public int rang(int colon, int ressource) {
+        if (ressource < 0) return -1;
+        return rangs != null ? rangs[colon * nomsRessources.length + ressource] : creuses.rang(colon, ressource);
+    }
+
+    /**
+     * Renvoie la ressource d'un rang donné dans les préférences d'un colon. Les ressources absentes de la liste du
+     * colon, qui partagent le dernier rang, suivent les ressources listées par identifiant croissant.
+     * @param colon l'identifiant du colon.
+     * @param rang le rang recherché, entre 0 et m-1.
+     * @return l'identifiant de la ressource.
+     */
+    public int ressourceDeRang(int colon, int rang) {
+        return ordre != null ? ordre[colon * nomsRessources.length + rang] : creuses.ressourceDeRang(colon, rang);
+    }
+
+    /**
+     * Renvoie la ressource libre que le colon préfère, comme le premier rang libre de ressourceDeRang(). En mode
+     * creux, une fois les ressources listées parcourues, la première ressource libre est cherchée à partir d'un
+     * curseur partagé par les appels successifs, au lieu de parcourir les m rangs du colon.
+     * @param colon l'identifiant du colon.
+     * @param prises les ressources déjà prises, qui ne sont jamais rendues entre deux appels avec le même curseur.
+     * @param curseur curseur[0] : toutes les ressources d'identifiant inférieur sont prises ; avancé par l'appel.
+     * @return l'identifiant de la ressource, ou -1 si toutes les ressources sont prises.
+     */
+    int ressourceLibrePreferee(int colon, boolean[] prises, int[] curseur) {
+        int m = nomsRessources.length;
+        if (creuses == null) {
+            for (int rang = 0; rang < m; rang++) {
+                int ressource = ordre[colon * m + rang];
+                if (!prises[ressource]) return ressource;
+            }
+            return -1;
+        }
+        for (int i = creuses.debut[colon]; i < creuses.debut[colon + 1]; i++) {
+            if (!prises[creuses.preferees[i]]) return creuses.preferees[i];
+        }
+        while (curseur[0] < m && prises[curseur[0]]) curseur[0]++; // Les ressources listées libres ont été prises avant
+        return curseur[0] < m ? curseur[0] : -1;
+    }
+
+    /**
+     * Renvoie une copie des préférences d'un colon, qui détermine tous ses rangs : deux colons ont les mêmes rangs
+     * si leurs lignes sont égales. C'est la ligne des rangs en mode dense, et les ressources listées en mode creux
+     * (sans la dernière si toutes le sont : elle a alors le rang qu'aurait une ressource absente).
+     * @param colon l'identifiant du colon.
+     * @return la ligne des préférences du colon.
+     */
+    int[] lignePreferences(int colon) {
+        int m = nomsRessources.length;
+        if (rangs != null) return Arrays.copyOfRange(rangs, colon * m, colon * m + m);
+        int debut = creuses.debut[colon];
+        int nombre = creuses.debut[colon + 1] - debut;
+        return Arrays.copyOfRange(creuses.preferees, debut, debut + (nombre == m ? m - 1 : nombre));
+    }
+
+    /**
+     * Renvoie le nombre de ressources listées par un colon : ses préférences sont ressourceDeRang(colon, 0) ...
+     * ressourceDeRang(colon, nombre - 1), et les autres ressources partagent le rang nombre.
+     * @param colon l'identifiant du colon.
+     * @return le nombre de ressources listées, entre 0 et m.
+     */
+    int nombrePreferences(int colon) {
+        return creuses == null ? nombresPreferences[colon] : creuses.debut[colon + 1] - creuses.debut[colon];
+    }
+
+    /**
+     * Indique si les préférences sont gardées en mode creux : getRangs() renvoie alors null.
+     * @return true si seules les ressources listées par chaque colon sont gardées.
+     */
+    boolean estCreuse() {
+        return creuses != null;
+    }
+
+    public int getNombreColons() {
+        return nomsColons.length;
+    }
+    public int getNombreRessources() {
+        return nomsRessources.length;
+    }
+    public int getNombreRelations() {
+        return voisins.length;
+    }
+    public String getNomColon(int colon) {
+        return nomsColons[colon];
+    }
+    public String getNomRessource(int ressource) {
+        return nomsRessources[ressource];
+    }
+
+    /**
+     * Renvoie l'identifiant d'un colon.
+     * @param nom du colon.
+     * @return l'identifiant du colon, ou -1 s'il n'existe pas.
+     */
+    public int getIdColon(String nom) {
+        Integer id = idsColons.get(nom);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Renvoie l'identifiant d'une ressource.
+     * @param nom de la ressource, éventuellement nul.
+     * @return l'identifiant de la ressource, ou -1 si elle est nulle ou n'existe pas.
+     */
+    public int getIdRessource(String nom) {
+        if (nom == null) return -1;
+        Integer id = idsRessources.get(nom);
+        return id == null ? -1 : id;
+    }
+
+    int[] getRangs() {
+        return rangs;
+    }
+    int[] getOrdre() {
+        return ordre;
+    }
+    int[] getDebutVoisins() {
+        return debutVoisins;
+    }
+    int[] getVoisins() {
+        return voisins;
+    }
+    String[] getNomsRessources() {
+        return nomsRessources;
+    }
+    Map<String, Integer> getIdsRessources() {
+        return idsRessources;
+    }
+
+    /**
+     * Préférences en mode creux : les ressources listées par chaque colon, au format CSR, dans l'ordre des
+     * préférences et triées par identifiant pour trouver un rang par dichotomie. O(n + K) entiers pour K
+     * ressources listées au total, au lieu de 2·n·m pour les tables denses.
+     */
+    private static class PreferencesCreuses {
+        final int[] debut; // Les ressources listées du colon c sont preferees[debut[c]] ... preferees[debut[c+1]-1]
+        final int[] preferees; // Ressources listées de tous les colons, dans l'ordre des préférences, mises bout à bout
+        final int[] triees; // Les mêmes ressources triées par identifiant dans chaque ligne
+        final int[] rangsTries; // rangsTries[i] : rang de la ressource triees[i]
+
+        PreferencesCreuses(int[] debut, int[] preferees) {
+            this.debut = debut;
+            this.preferees = preferees;
+            this.triees = new int[preferees.length];
+            this.rangsTries = new int[preferees.length];
+            long[] cles = new long[0]; // Ressource et rang, triés ensemble
+            for (int c = 0; c + 1 < debut.length; c++) {
+                int nombre = debut[c + 1] - debut[c];
+                if (cles.length < nombre) cles = new long[Math.max(nombre, 2 * cles.length)];
+                for (int rang = 0; rang < nombre; rang++) cles[rang] = (long) preferees[debut[c] + rang] << 32 | rang;
+                Arrays.sort(cles, 0, nombre);
+                for (int i = 0; i < nombre; i++) {
+                    triees[debut[c] + i] = (int) (cles[i] >>> 32);
+                    rangsTries[debut[c] + i] = (int) cles[i];
+                }
+            }
+        }
+
+        int rang(int colon, int ressource) {
+            int i = Arrays.binarySearch(triees, debut[colon], debut[colon + 1], ressource);
+            return i >= 0 ? rangsTries[i] : debut[colon + 1] - debut[colon]; // Rang commun des ressources absentes
+        }
+
+        int ressourceDeRang(int colon, int rang) {
+            int nombre = debut[colon + 1] - debut[colon];
+            if (rang < nombre) return preferees[debut[colon] + rang];
+            int ressource = rang - nombre; // La (rang - nombre)-ième ressource absente, par identifiant croissant
+            for (int i = debut[colon]; i < debut[colon + 1] && triees[i] <= ressource; i++) ressource++;
+            return ressource;
+        }
+    }
+}
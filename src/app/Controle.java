@@ -0,0 +1,99 @@
+package app;
+
+/**
+ * Classe Controle : paramètres d'exécution d'un solveur. Elle porte une échéance optionnelle, un jeton
+ * d'annulation utilisable depuis un autre fil, un écouteur des améliorations successives et la graine des
+ * solveurs aléatoires. Le temps écoulé est mesuré depuis la création du contrôle.
+ */
+public class Controle {
+    private final long debut; // Instant de création, en nanosecondes
+    private final long echeance; // Instant limite, en nanosecondes, valable seulement si limite est vrai
+    private final boolean limite; // Vrai si le contrôle a une échéance
+    private final long dureeMillis; // Temps de calcul accordé, ou Long.MAX_VALUE sans échéance
+    private volatile boolean annule; // Vrai dès que l'annulation a été demandée
+    private EcouteurProgression ecouteur; // Écouteur des améliorations, ou null
+    private long graine; // Graine des solveurs aléatoires
+
+    /**
+     * Constructeur d'un contrôle sans échéance.
+     */
+    public Controle() {
+        this.debut = System.nanoTime();
+        this.echeance = 0;
+        this.limite = false;
+        this.dureeMillis = Long.MAX_VALUE;
+    }
+
+    /**
+     * Constructeur d'un contrôle avec échéance.
+     * @param dureeMillis le temps de calcul accordé à partir de maintenant, en millisecondes.
+     */
+    public Controle(long dureeMillis) {
+        this.debut = System.nanoTime();
+        this.echeance = debut + Math.max(0, dureeMillis) * 1_000_000L;
+        this.limite = true;
+        this.dureeMillis = Math.max(0, dureeMillis);
+    }
+
+    /**
+     * Demande l'arrêt de la résolution. Le solveur s'arrête dès qu'il consulte le contrôle et renvoie
+     * la meilleure assignation trouvée jusque-là.
+     */
+    public void annuler() {
+        annule = true;
+    }
+
+    /**
+     * Indique si le solveur doit s'arrêter, parce que l'échéance est passée ou que l'annulation a été demandée.
+     * @return true si le solveur doit s'arrêter.
+     */
+    public boolean doitArreter() {
+        return annule || (limite && System.nanoTime() - echeance >= 0);
+    }
+
+    /**
+     * Transmet une amélioration à l'écouteur, s'il y en a un.
+     * @param jalousie le nombre de colons jaloux de la nouvelle meilleure assignation.
+     * @param iterations le nombre d'itérations effectuées par le solveur.
+     */
+    void signalerAmelioration(int jalousie, long iterations) {
+        if (ecouteur != null) {
+            ecouteur.amelioration(jalousie, getTempsEcouleMillis(), iterations);
+        }
+    }
+
+    public boolean estAnnule() {
+        return annule;
+    }
+    public boolean aUneEcheance() {
+        return limite;
+    }
+
+    /**
+     * @return le temps restant avant l'échéance en nanosecondes, 0 si elle est passée, Long.MAX_VALUE sans échéance.
+     */
+    public long getTempsRestantNanos() {
+        return limite ? Math.max(0, echeance - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return le temps de calcul accordé à la création du contrôle, en millisecondes, Long.MAX_VALUE sans échéance.
+     */
+    public long getDureeMillis() {
+        return dureeMillis;
+    }
+
+    public long getTempsEcouleMillis() {
+        return (System.nanoTime() - debut) / 1_000_000L;
+    }
+    public long getGraine() {
+        return graine;
+    }
+
+    public void setGraine(long graine) {
+        this.graine = graine;
+    }
+    public void setEcouteur(EcouteurProgression ecouteur) {
+        this.ecouteur = ecouteur;
+    }
+}
@@ -0,0 +1,16 @@
+package app;
+
+/**
+ * Interface EcouteurProgression : reçoit les améliorations successives trouvées par un solveur pendant sa recherche.
+ */
+@FunctionalInterface
+public interface EcouteurProgression {
+    /**
+     * Appelée à chaque fois que le solveur trouve une assignation meilleure que les précédentes.
+     * Peut être appelée depuis les fils de calcul du solveur : elle doit être rapide et ne pas bloquer.
+     * @param jalousie le nombre de colons jaloux de la nouvelle meilleure assignation.
+     * @param tempsEcouleMillis le temps écoulé depuis la création du contrôle, en millisecondes.
+     * @param iterations le nombre d'itérations effectuées, dans l'unité propre au solveur.
+     */
+    void amelioration(int jalousie, long tempsEcouleMillis, long iterations);
+}
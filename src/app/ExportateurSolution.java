@@ -0,0 +1,143 @@
+package app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Classe ExportateurSolution : écriture d'une assignation dans un fichier, une ligne "nom:objet" par colon.
+ * L'assignation est vérifiée en entier avant d'écrire quoi que ce soit, puis encodée dans un tampon réutilisé et
+ * écrite à travers un FileChannel dans un fichier temporaire, renommé à la fin : le fichier de destination contient
+ * soit l'ancienne version, soit la nouvelle, jamais une partie. Les noms sont encodés en UTF-8 une seule fois par
+ * exportateur, et l'écriture ne crée aucun objet par colon.
+ * Options : colons triés par nom, et colonne supplémentaire ":1" ou ":0" selon que le colon est jaloux ou non.
+ */
+public class ExportateurSolution {
+    private static final int TAILLE_TAMPON = 1 << 22; // Taille du tampon d'écriture, en octets
+
+    private final ColonieCompilee colonie;
+    private final ByteBuffer tampon = ByteBuffer.allocateDirect(TAILLE_TAMPON);
+    private byte[][] nomsColons; // Noms encodés, calculés à la première exportation
+    private byte[][] nomsRessources;
+    private int[] ordreTrie; // Identifiants des colons par ordre alphabétique de leurs noms, calculés au besoin
+    private boolean trie;
+    private boolean avecJalousie;
+
+    /**
+     * Constructeur de la classe ExportateurSolution.
+     * @param colonie la colonie compilée dont on exporte les assignations.
+     */
+    public ExportateurSolution(ColonieCompilee colonie) {
+        this.colonie = colonie;
+    }
+
+    /**
+     * Écrit une assignation complète dans un fichier, en remplaçant le fichier existant en une seule fois.
+     * @param objets l'identifiant de la ressource de chaque colon.
+     * @param chemin le chemin du fichier à écrire.
+     * @throws NullPointerException si un colon n'a pas de ressource assignée ; rien n'est alors écrit.
+     * @throws IOException si une erreur d'entrée/sortie se produit lors de l'écriture.
+     */
+    public void exporter(int[] objets, Path chemin) throws IOException {
+        int n = colonie.getNombreColons();
+        for (int c = 0; c < n; c++) { // Vérifie toute l'assignation avant d'écrire
+            if (objets[c] < 0) {
+                throw new NullPointerException("Le colon " + colonie.getNomColon(c) + " n'as pas de ressource assignée.");
+            }
+        }
+        encoderNoms();
+        Affectation affectation = avecJalousie ? new Affectation(colonie, objets) : null;
+        if (trie && ordreTrie == null) {
+            ordreTrie = trierColons();
+        }
+
+        // Fichier temporaire dans le même dossier, pour que le renommage reste sur le même système de fichiers
+        Path temporaire = chemin.resolveSibling(chemin.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+                tampon.clear();
+                for (int i = 0; i < n; i++) {
+                    int c = trie ? ordreTrie[i] : i;
+                    ecrire(canal, nomsColons[c]);
+                    ecrire(canal, (byte) ':');
+                    ecrire(canal, nomsRessources[objets[c]]);
+                    if (affectation != null) {
+                        ecrire(canal, (byte) ':');
+                        ecrire(canal, affectation.estJaloux(c) ? (byte) '1' : (byte) '0');
+                    }
+                    ecrire(canal, (byte) '\n');
+                }
+                vider(canal);
+            }
+            try {
+                Files.move(temporaire, chemin, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) { // Système de fichiers sans renommage atomique
+                Files.move(temporaire, chemin, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaire); // Fichier temporaire laissé par une erreur d'écriture
+        }
+    }
+
+    public ColonieCompilee getColonie() {
+        return colonie;
+    }
+
+    public void setTrie(boolean trie) {
+        this.trie = trie;
+    }
+    public void setAvecJalousie(boolean avecJalousie) {
+        this.avecJalousie = avecJalousie;
+    }
+
+    private void encoderNoms() {
+        if (nomsColons != null) return;
+        nomsColons = new byte[colonie.getNombreColons()][];
+        for (int c = 0; c < nomsColons.length; c++) {
+            nomsColons[c] = colonie.getNomColon(c).getBytes(StandardCharsets.UTF_8);
+        }
+        nomsRessources = new byte[colonie.getNombreRessources()][];
+        for (int r = 0; r < nomsRessources.length; r++) {
+            nomsRessources[r] = colonie.getNomRessource(r).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private int[] trierColons() {
+        Integer[] ids = new Integer[colonie.getNombreColons()];
+        for (int c = 0; c < ids.length; c++) ids[c] = c;
+        Arrays.sort(ids, Comparator.comparing(colonie::getNomColon));
+        return Arrays.stream(ids).mapToInt(Integer::intValue).toArray();
+    }
+
+    private void ecrire(FileChannel canal, byte[] octets) throws IOException {
+        if (octets.length <= tampon.remaining()) {
+            tampon.put(octets);
+            return;
+        }
+        for (int ecrits = 0; ecrits < octets.length; ) { // Nom plus long que la place restante dans le tampon
+            if (!tampon.hasRemaining()) vider(canal);
+            int nombre = Math.min(octets.length - ecrits, tampon.remaining());
+            tampon.put(octets, ecrits, nombre);
+            ecrits += nombre;
+        }
+    }
+
+    private void ecrire(FileChannel canal, byte octet) throws IOException {
+        if (!tampon.hasRemaining()) vider(canal);
+        tampon.put(octet);
+    }
+
+    private void vider(FileChannel canal) throws IOException {
+        tampon.flip();
+        while (tampon.hasRemaining()) canal.write(tampon);
+        tampon.clear();
+    }
+}
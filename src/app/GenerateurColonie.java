@@ -0,0 +1,403 @@
+package app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Classe GenerateurColonie : génération de colonies aléatoires de grande taille, au format texte de
+ * Colonie.chargerFichier() ou en image binaire (ImageColonie), pour les tests de charge et les benchmarks.
+ * Les colons se nomment c0, c1, ... et les ressources r0, r1, ... ; chaque colon a une liste de préférences complète,
+ * ou limitée à ses k ressources préférées (setNombrePreferences()).
+ * Seules les relations sont gardées en mémoire (deux entiers par relation) : les préférences sont tirées et écrites
+ * colon par colon, sans construire la colonie. Les relations et les préférences ont chacune leur générateur, issu
+ * de la graine : changer le modèle de relations ne change pas les préférences, et inversement.
+ */
+public class GenerateurColonie {
+    private static final int TAILLE_TAMPON = 1 << 22; // Taille du tampon d'écriture du format texte, en octets
+
+    /**
+     * Modèle du graphe des relations.
+     */
+    public enum Relations {
+        ERDOS_RENYI, // Chaque couple de colons est en relation avec la même probabilité
+        LOI_PUISSANCE, // Attachement préférentiel (Barabási-Albert) : quelques colons ont beaucoup de relations
+        GROUPES // Colons répartis en groupes, avec la plupart des relations à l'intérieur de leur groupe
+    }
+
+    /**
+     * Modèle des préférences.
+     */
+    public enum Preferences {
+        UNIFORMES, // Permutation aléatoire uniforme pour chaque colon
+        CORRELEES // Les ressources ont une qualité commune, mélangée à un bruit propre à chaque colon
+    }
+
+    private final int nombreColons;
+    private final long graine;
+    private int nombreRessources;
+    private Relations relations = Relations.ERDOS_RENYI;
+    private Preferences preferences = Preferences.UNIFORMES;
+    private double degreMoyen = 4; // Nombre moyen de relations par colon
+    private int tailleGroupes = 20; // Nombre de colons par groupe, pour le modèle GROUPES
+    private double partInterne = 0.8; // Part des relations à l'intérieur du groupe, pour le modèle GROUPES
+    private double correlation = 0.7; // Poids de la qualité commune des ressources, pour les préférences CORRELEES
+    private int nombrePreferences; // Longueur des listes de préférences, ou 0 pour des listes complètes
+
+    /**
+     * Constructeur de la classe GenerateurColonie, avec autant de ressources que de colons.
+     * @param nombreColons le nombre de colons à générer.
+     * @param graine la graine des générateurs aléatoires, pour reproduire une colonie.
+     * @throws IllegalArgumentException si le nombre de colons est négatif.
+     */
+    public GenerateurColonie(int nombreColons, long graine) {
+        if (nombreColons < 0) {
+            throw new IllegalArgumentException("Le nombre de colons ne peut pas être négatif.");
+        }
+        this.nombreColons = nombreColons;
+        this.nombreRessources = nombreColons;
+        this.graine = graine;
+    }
+
+    /**
+     * Génère la colonie et l'écrit au format texte.
+     * @param chemin le chemin du fichier à écrire.
+     * @throws IOException si une erreur d'entrée/sortie se produit lors de l'écriture.
+     */
+    public void ecrireTexte(Path chemin) throws IOException {
+        Aretes aretes = genererRelations();
+        try (Texte texte = new Texte(chemin)) {
+            for (int c = 0; c < nombreColons; c++) {
+                texte.ligne("colon(c").nombre(c).ligne(").\n");
+            }
+            for (int r = 0; r < nombreRessources; r++) {
+                texte.ligne("ressource(r").nombre(r).ligne(").\n");
+            }
+            for (int k = 0; k < aretes.taille; k++) {
+                texte.ligne("deteste(c").nombre(aretes.premiers[k]).ligne(",c").nombre(aretes.seconds[k]).ligne(").\n");
+            }
+            TiragePreferences tirage = new TiragePreferences();
+            int k = longueurPreferences();
+            for (int c = 0; c < nombreColons; c++) {
+                int[] ordre = tirage.suivant();
+                texte.ligne("preferences(c").nombre(c);
+                for (int i = 0; i < k; i++) texte.ligne(",r").nombre(ordre[i]);
+                texte.ligne(").\n");
+            }
+        }
+    }
+
+    /**
+     * Génère la colonie et l'écrit en image binaire, lisible par Colonie.chargerImage().
+     * @param chemin le chemin du fichier à écrire.
+     * @throws IllegalArgumentException si les listes de préférences dépassent la taille d'une image (2^31 - 8
+     *                                  ressources listées au total) ; setNombrePreferences() les raccourcit.
+     * @throws IOException si une erreur d'entrée/sortie se produit lors de l'écriture.
+     */
+    public void ecrireImage(Path chemin) throws IOException {
+        int longueur = longueurPreferences();
+        if ((long) nombreColons * longueur > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("La colonie a trop de préférences pour une image (" + nombreColons
+                    + " colons, " + longueur + " préférences chacun).");
+        }
+        Aretes aretes = genererRelations();
+
+        // Relations au format CSR, dans les deux sens
+        int[] debutVoisins = new int[nombreColons + 1];
+        for (int k = 0; k < aretes.taille; k++) {
+            debutVoisins[aretes.premiers[k] + 1]++;
+            debutVoisins[aretes.seconds[k] + 1]++;
+        }
+        for (int c = 0; c < nombreColons; c++) debutVoisins[c + 1] += debutVoisins[c];
+        int[] voisins = new int[2 * aretes.taille];
+        int[] position = Arrays.copyOf(debutVoisins, nombreColons);
+        for (int k = 0; k < aretes.taille; k++) {
+            voisins[position[aretes.premiers[k]]++] = aretes.seconds[k];
+            voisins[position[aretes.seconds[k]]++] = aretes.premiers[k];
+        }
+
+        try (ImageColonie.Ecrivain ecrivain = new ImageColonie.Ecrivain(chemin)) {
+            ecrivain.entete(noms('c', nombreColons), noms('r', nombreRessources), nombreColons * longueur,
+                    voisins.length, false);
+            int[] debutPreferences = new int[nombreColons + 1];
+            for (int c = 0; c < nombreColons; c++) debutPreferences[c + 1] = debutPreferences[c] + longueur;
+            ecrivain.entiers(debutPreferences);
+            TiragePreferences tirage = new TiragePreferences();
+            for (int c = 0; c < nombreColons; c++) { // Préférences écrites colon par colon
+                int[] ordre = tirage.suivant();
+                for (int k = 0; k < longueur; k++) ecrivain.entier(ordre[k]);
+            }
+            ecrivain.entiers(debutVoisins);
+            ecrivain.entiers(voisins);
+        }
+    }
+
+    public void setNombreRessources(int nombreRessources) {
+        if (nombreRessources < 0) {
+            throw new IllegalArgumentException("Le nombre de ressources ne peut pas être négatif.");
+        }
+        this.nombreRessources = nombreRessources;
+    }
+    public void setRelations(Relations relations) {
+        this.relations = relations;
+    }
+    public void setPreferences(Preferences preferences) {
+        this.preferences = preferences;
+    }
+    public void setDegreMoyen(double degreMoyen) {
+        if (degreMoyen < 0) {
+            throw new IllegalArgumentException("Le degré moyen ne peut pas être négatif.");
+        }
+        this.degreMoyen = degreMoyen;
+    }
+    public void setTailleGroupes(int tailleGroupes) {
+        if (tailleGroupes < 1) {
+            throw new IllegalArgumentException("Un groupe contient au moins un colon.");
+        }
+        this.tailleGroupes = tailleGroupes;
+    }
+    public void setPartInterne(double partInterne) {
+        if (partInterne < 0 || partInterne > 1) {
+            throw new IllegalArgumentException("La part des relations internes est comprise entre 0 et 1.");
+        }
+        this.partInterne = partInterne;
+    }
+    /**
+     * Limite chaque liste de préférences aux k ressources préférées du colon ; les autres partagent le rang suivant.
+     * Avec des préférences uniformes, une liste est tirée en O(k) au lieu de O(m).
+     * @param nombrePreferences la longueur des listes, ou 0 pour des listes complètes.
+     * @throws IllegalArgumentException si le nombre est négatif.
+     */
+    public void setNombrePreferences(int nombrePreferences) {
+        if (nombrePreferences < 0) {
+            throw new IllegalArgumentException("Le nombre de préférences ne peut pas être négatif.");
+        }
+        this.nombrePreferences = nombrePreferences;
+    }
+    public void setCorrelation(double correlation) {
+        if (correlation < 0 || correlation > 1) {
+            throw new IllegalArgumentException("La corrélation des préférences est comprise entre 0 et 1.");
+        }
+        this.correlation = correlation;
+    }
+
+    /**
+     * Tire les relations selon le modèle choisi, sans doublon ni relation d'un colon avec lui-même.
+     */
+    private Aretes genererRelations() {
+        SplittableRandom aleatoire = new SplittableRandom(graine).split(); // Générateur propre aux relations
+        Aretes aretes = new Aretes();
+        int n = nombreColons;
+        switch (relations) {
+            case ERDOS_RENYI:
+                erdosRenyi(aretes, aleatoire, 0, n, n > 1 ? degreMoyen / (n - 1) : 0, -1);
+                break;
+            case LOI_PUISSANCE:
+                attachementPreferentiel(aretes, aleatoire, Math.max(1, (int) Math.round(degreMoyen / 2)));
+                break;
+            case GROUPES:
+                int taille = Math.min(tailleGroupes, Math.max(1, n));
+                double probabiliteInterne = taille > 1 ? degreMoyen * partInterne / (taille - 1) : 0;
+                for (int debut = 0; debut < n; debut += taille) {
+                    erdosRenyi(aretes, aleatoire, debut, Math.min(taille, n - debut), probabiliteInterne, -1);
+                }
+                double probabiliteExterne = n > taille ? degreMoyen * (1 - partInterne) / (n - taille) : 0;
+                erdosRenyi(aretes, aleatoire, 0, n, probabiliteExterne, taille); // Couples de groupes différents
+                break;
+        }
+        return aretes;
+    }
+
+    /**
+     * Tire chaque couple de colons parmi [debut, debut + taille) avec la probabilité p, en sautant directement au
+     * couple tiré suivant (méthode de Batagelj et Brandes) : le coût est proportionnel au nombre de relations.
+     * @param groupe si positif, les couples d'un même groupe de cette taille sont ignorés.
+     */
+    private static void erdosRenyi(Aretes aretes, SplittableRandom aleatoire, int debut, int taille, double p,
+                                   int groupe) {
+        if (p <= 0 || taille < 2) return;
+        double logComplement = Math.log1p(-Math.min(p, 1));
+        long v = 1, w = -1; // Couple courant (v, w), avec w < v
+        while (v < taille) {
+            if (p >= 1) {
+                w++;
+            } else {
+                w += 1 + (long) Math.floor(Math.log1p(-aleatoire.nextDouble()) / logComplement);
+            }
+            while (w >= v && v < taille) {
+                w -= v;
+                v++;
+            }
+            if (v < taille) {
+                int a = debut + (int) v, b = debut + (int) w;
+                if (groupe <= 0 || a / groupe != b / groupe) aretes.ajouter(b, a);
+            }
+        }
+    }
+
+    /**
+     * Modèle de Barabási-Albert : les k + 1 premiers colons se détestent tous, puis chaque nouveau colon se met en
+     * relation avec k colons distincts, choisis avec une probabilité proportionnelle à leur nombre de relations
+     * (extrémité d'une relation déjà tirée, choisie au hasard).
+     */
+    private void attachementPreferentiel(Aretes aretes, SplittableRandom aleatoire, int k) {
+        int n = nombreColons;
+        int initiaux = Math.min(n, k + 1);
+        for (int a = 0; a < initiaux; a++) {
+            for (int b = a + 1; b < initiaux; b++) aretes.ajouter(a, b);
+        }
+        int[] cibles = new int[k];
+        for (int v = initiaux; v < n; v++) {
+            int nombre = 0;
+            while (nombre < k) {
+                int e = aleatoire.nextInt(aretes.taille);
+                int cible = aleatoire.nextBoolean() ? aretes.premiers[e] : aretes.seconds[e];
+                boolean dejaChoisie = false;
+                for (int i = 0; i < nombre; i++) dejaChoisie |= cibles[i] == cible;
+                if (!dejaChoisie) cibles[nombre++] = cible;
+            }
+            for (int i = 0; i < k; i++) aretes.ajouter(cibles[i], v);
+        }
+    }
+
+    // Noms "c0", "c1", ... encodés, pour le dictionnaire de l'image
+    private static byte[][] noms(char prefixe, int nombre) {
+        byte[][] noms = new byte[nombre][];
+        for (int i = 0; i < nombre; i++) noms[i] = (prefixe + Integer.toString(i)).getBytes(StandardCharsets.US_ASCII);
+        return noms;
+    }
+
+    /**
+     * Relations tirées, rangées dans deux tableaux d'entiers qui grandissent au besoin.
+     */
+    private static class Aretes {
+        private int[] premiers = new int[1024];
+        private int[] seconds = new int[1024];
+        private int taille;
+
+        void ajouter(int a, int b) {
+            if (taille == premiers.length) {
+                premiers = Arrays.copyOf(premiers, taille * 2);
+                seconds = Arrays.copyOf(seconds, taille * 2);
+            }
+            premiers[taille] = a;
+            seconds[taille] = b;
+            taille++;
+        }
+    }
+
+    // Nombre de préférences écrites pour chaque colon
+    private int longueurPreferences() {
+        return nombrePreferences == 0 ? nombreRessources : Math.min(nombrePreferences, nombreRessources);
+    }
+
+    /**
+     * Tirage des préférences d'un colon après l'autre, dans des tableaux réutilisés.
+     */
+    private class TiragePreferences {
+        private final SplittableRandom aleatoire;
+        private final int[] ordre = new int[nombreRessources];
+        private final double[] qualites; // Qualité commune de chaque ressource, pour les préférences corrélées
+        private final long[] cles; // Score (bits d'un float positif) et ressource, triés ensemble
+
+        TiragePreferences() {
+            SplittableRandom racine = new SplittableRandom(graine);
+            racine.split(); // Le premier générateur est celui des relations
+            this.aleatoire = racine.split();
+            for (int r = 0; r < nombreRessources; r++) ordre[r] = r;
+            if (preferences == Preferences.CORRELEES) {
+                qualites = new double[nombreRessources];
+                for (int r = 0; r < nombreRessources; r++) qualites[r] = aleatoire.nextDouble();
+                cles = new long[nombreRessources];
+            } else {
+                qualites = null;
+                cles = null;
+            }
+        }
+
+        // Ressources du colon suivant, de la préférée à la moins aimée ; seules les longueurPreferences() premières sont tirées
+        int[] suivant() {
+            int m = nombreRessources;
+            int longueur = longueurPreferences();
+            if (qualites == null && longueur < m) {
+                // Mélange de Fisher-Yates partiel, depuis la permutation précédente : longueur tirages suffisent
+                for (int i = 0; i < longueur; i++) {
+                    int j = i + aleatoire.nextInt(m - i);
+                    int temp = ordre[i];
+                    ordre[i] = ordre[j];
+                    ordre[j] = temp;
+                }
+                return ordre;
+            }
+            if (qualites == null) { // Mélange de Fisher-Yates
+                for (int r = 0; r < m; r++) ordre[r] = r;
+                for (int i = m - 1; i > 0; i--) {
+                    int j = aleatoire.nextInt(i + 1);
+                    int temp = ordre[i];
+                    ordre[i] = ordre[j];
+                    ordre[j] = temp;
+                }
+                return ordre;
+            }
+            for (int r = 0; r < m; r++) { // Score décroissant : on trie 2 - score, positif, par ordre croissant
+                double score = correlation * qualites[r] + (1 - correlation) * aleatoire.nextDouble();
+                cles[r] = ((long) Float.floatToIntBits((float) (2 - score)) << 32) | r;
+            }
+            Arrays.sort(cles);
+            for (int k = 0; k < m; k++) ordre[k] = (int) cles[k];
+            return ordre;
+        }
+    }
+
+    /**
+     * Écriture du format texte en ASCII à travers un tampon réutilisé : les nombres sont écrits chiffre par
+     * chiffre, sans chaîne intermédiaire.
+     */
+    private static class Texte implements AutoCloseable {
+        private final FileChannel canal;
+        private final ByteBuffer tampon = ByteBuffer.allocateDirect(TAILLE_TAMPON);
+        private final byte[] chiffres = new byte[10];
+
+        Texte(Path chemin) throws IOException {
+            this.canal = FileChannel.open(chemin, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        Texte ligne(String texte) throws IOException {
+            if (tampon.remaining() < texte.length()) vider();
+            for (int i = 0; i < texte.length(); i++) tampon.put((byte) texte.charAt(i));
+            return this;
+        }
+
+        Texte nombre(int valeur) throws IOException {
+            if (tampon.remaining() < chiffres.length) vider();
+            int i = chiffres.length;
+            do {
+                chiffres[--i] = (byte) ('0' + valeur % 10);
+                valeur /= 10;
+            } while (valeur > 0);
+            tampon.put(chiffres, i, chiffres.length - i);
+            return this;
+        }
+
+        private void vider() throws IOException {
+            tampon.flip();
+            while (tampon.hasRemaining()) canal.write(tampon);
+            tampon.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                vider();
+            } finally {
+                canal.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package app;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Classe ImageColonie : image binaire d'une colonie, pour la recharger sans relire le format texte.
+ * L'image contient, en entiers de 4 octets petit-boutistes : un en-tête versionné, le dictionnaire des noms des
+ * colons et des ressources (positions puis octets UTF-8), les ressources listées par chaque colon et les relations,
+ * toutes deux au format CSR, et, si elle existe, l'assignation. Sa taille ne dépend que du nombre de préférences
+ * listées, pas de n·m : une colonie en mode creux (voir ColonieCompilee) a une image aussi compacte que sa vue.
+ * Chaque tableau est lu d'un bloc depuis le fichier projeté en mémoire, sans analyse élément par élément.
+ */
+public class ImageColonie {
+    private static final int MAGIE = 0x424C4F43; // Octets "COLB" au début du fichier
+    private static final int VERSION = 2;
+    private static final int TAILLE_ENTETE = 9 * Integer.BYTES;
+    private static final int MAX_PREFERENCES = Integer.MAX_VALUE - 8; // Taille maximale d'un tableau d'entiers
+    private static final int AVEC_ASSIGNATION = 1; // Drapeau de l'en-tête : l'assignation suit les relations
+    private static final long TAILLE_FENETRE = 1L << 30; // Taille maximale d'une projection du fichier en mémoire
+    private static final int TAILLE_TAMPON = 1 << 20; // Taille du tampon d'écriture, en octets
+
+    private ImageColonie() {}
+
+    /**
+     * Indique si un fichier est une image de colonie, d'après ses premiers octets.
+     * @param chemin le chemin du fichier.
+     * @return true si le fichier commence par l'identifiant des images, false sinon.
+     * @throws IOException si le fichier ne peut pas être lu.
+     */
+    public static boolean estImage(Path chemin) throws IOException {
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+            ByteBuffer debut = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (debut.hasRemaining() && canal.read(debut) >= 0) {
+                // Lit les quatre premiers octets, s'ils existent
+            }
+            return !debut.hasRemaining() && debut.getInt(0) == MAGIE;
+        }
+    }
+
+    /**
+     * Lit la vue compilée d'une image, sans construire les colons : les solveurs peuvent travailler directement dessus.
+     * @param chemin le chemin de l'image.
+     * @return la vue compilée enregistrée dans l'image.
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas une image de colonie valide.
+     */
+    public static ColonieCompilee lireCompilee(Path chemin) throws IOException {
+        return lire(chemin).compilee;
+    }
+
+    /**
+     * Convertit un fichier texte de colonie en image, ou une image en fichier texte, selon le type de la source.
+     * @param source le fichier à convertir, texte ou image.
+     * @param destination le fichier à écrire, dans l'autre format.
+     * @throws IOException si l'un des fichiers ne peut pas être lu ou écrit.
+     */
+    public static void convertir(Path source, Path destination) throws IOException {
+        Colonie colonie = new Colonie();
+        if (estImage(source)) {
+            charger(colonie, source);
+            ecrireTexte(colonie, destination);
+        } else {
+            colonie.chargerFichier(source.toString());
+            enregistrer(colonie, destination);
+        }
+    }
+
+    /**
+     * Écrit l'image d'une colonie : les noms, préférences et relations de sa vue compilée, et son assignation.
+     */
+    static void enregistrer(Colonie colonie, Path chemin) throws IOException {
+        ColonieCompilee compilee = colonie.compiler();
+        int n = compilee.getNombreColons();
+        int m = compilee.getNombreRessources();
+        byte[][] nomsColons = new byte[n][];
+        byte[][] nomsRessources = new byte[m][];
+        int[] debutPreferences = new int[n + 1];
+        for (int c = 0; c < n; c++) {
+            nomsColons[c] = compilee.getNomColon(c).getBytes(StandardCharsets.UTF_8);
+            long fin = (long) debutPreferences[c] + compilee.nombrePreferences(c);
+            if (fin > MAX_PREFERENCES) {
+                throw new IllegalArgumentException("La colonie a trop de préférences pour une image (" + n + " colons, " + m + " ressources).");
+            }
+            debutPreferences[c + 1] = (int) fin;
+        }
+        for (int r = 0; r < m; r++) {
+            nomsRessources[r] = compilee.getNomRessource(r).getBytes(StandardCharsets.UTF_8);
+        }
+        int[] objets = colonie.lireAssignation(compilee);
+        boolean assignee = Arrays.stream(objets).anyMatch(objet -> objet >= 0);
+
+        try (Ecrivain ecrivain = new Ecrivain(chemin)) {
+            ecrivain.entete(nomsColons, nomsRessources, debutPreferences[n], compilee.getNombreRelations(), assignee);
+            ecrivain.entiers(debutPreferences);
+            for (int c = 0; c < n; c++) { // Ressources listées de chaque colon, dans l'ordre de ses préférences
+                for (int rang = 0; rang < debutPreferences[c + 1] - debutPreferences[c]; rang++) {
+                    ecrivain.entier(compilee.ressourceDeRang(c, rang));
+                }
+            }
+            ecrivain.entiers(compilee.getDebutVoisins());
+            ecrivain.entiers(compilee.getVoisins());
+            if (assignee) ecrivain.entiers(objets);
+        }
+    }
+
+    /**
+     * Charge une image dans une colonie vide : colons, ressources, relations, préférences et assignation.
+     * La vue compilée lue dans l'image devient celle de la colonie, qui n'a pas à être recompilée. Les préférences
+     * des colons sont gardées sous forme d'identifiants : leurs noms ne sont recherchés qu'à la première lecture
+     * de Colon.getPreferences().
+     */
+    static void charger(Colonie colonie, Path chemin) throws IOException {
+        if (!colonie.getColons().isEmpty() || !colonie.getRessources().isEmpty()) {
+            throw new IllegalStateException("La colonie doit être vide pour charger une image.");
+        }
+        Contenu contenu = lire(chemin);
+        ColonieCompilee compilee = contenu.compilee;
+        int n = compilee.getNombreColons();
+        int m = compilee.getNombreRessources();
+        String[] nomsRessources = compilee.getNomsRessources();
+        for (int r = 0; r < m; r++) {
+            colonie.ajouterRessource(nomsRessources[r]);
+        }
+        Colon[] colons = new Colon[n];
+        for (int c = 0; c < n; c++) {
+            colonie.ajouterColon(compilee.getNomColon(c)); // Lève l'exception habituelle si un nom est répété
+            colons[c] = colonie.getColon(compilee.getNomColon(c));
+        }
+
+        Colon[] relations = new Colon[n];
+        int[] debutVoisins = compilee.getDebutVoisins();
+        int[] voisins = compilee.getVoisins();
+        for (int c = 0; c < n; c++) {
+            int debut = contenu.debutPreferences[c];
+            colons[c].definirIdsPreferences(Arrays.copyOfRange(contenu.preferees, debut, contenu.debutPreferences[c + 1]),
+                    nomsRessources);
+            int degre = debutVoisins[c + 1] - debutVoisins[c];
+            for (int k = 0; k < degre; k++) {
+                relations[k] = colons[voisins[debutVoisins[c] + k]];
+            }
+            colons[c].ajouterRelations(relations, degre);
+            if (contenu.objets != null && contenu.objets[c] >= 0) {
+                colons[c].setObjetAssigne(nomsRessources[contenu.objets[c]]);
+            }
+        }
+        colonie.definirCompilee(compilee);
+    }
+
+    /**
+     * Écrit une colonie au format texte lu par Colonie.chargerFichier(), dans l'ordre de sa vue compilée.
+     */
+    static void ecrireTexte(Colonie colonie, Path chemin) throws IOException {
+        ColonieCompilee compilee = colonie.compiler();
+        int n = compilee.getNombreColons();
+        try (BufferedWriter ecrivain = Files.newBufferedWriter(chemin, StandardCharsets.UTF_8)) {
+            for (int c = 0; c < n; c++) {
+                ecrivain.write("colon(" + compilee.getNomColon(c) + ").\n");
+            }
+            for (int r = 0; r < compilee.getNombreRessources(); r++) {
+                ecrivain.write("ressource(" + compilee.getNomRessource(r) + ").\n");
+            }
+            int[] debutVoisins = compilee.getDebutVoisins();
+            int[] voisins = compilee.getVoisins();
+            for (int c = 0; c < n; c++) {
+                for (int k = debutVoisins[c]; k < debutVoisins[c + 1]; k++) {
+                    if (c < voisins[k]) { // Chaque relation n'est écrite qu'une fois
+                        ecrivain.write("deteste(" + compilee.getNomColon(c) + "," + compilee.getNomColon(voisins[k]) + ").\n");
+                    }
+                }
+            }
+            for (int c = 0; c < n; c++) {
+                int nombre = compilee.nombrePreferences(c);
+                if (nombre == 0) continue;
+                StringBuilder ligne = new StringBuilder("preferences(").append(compilee.getNomColon(c));
+                for (int rang = 0; rang < nombre; rang++) {
+                    ligne.append(',').append(compilee.getNomRessource(compilee.ressourceDeRang(c, rang)));
+                }
+                ecrivain.write(ligne.append(").\n").toString());
+            }
+        }
+    }
+
+    /**
+     * Lit et vérifie une image : en-tête, taille du fichier et cohérence des identifiants.
+     */
+    private static Contenu lire(Path chemin) throws IOException {
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+            if (canal.size() < TAILLE_ENTETE) {
+                throw new IOException("Le fichier " + chemin + " n'est pas une image de colonie.");
+            }
+            int[] entete = new int[TAILLE_ENTETE / Integer.BYTES];
+            lireEntiers(canal, 0, entete);
+            if (entete[0] != MAGIE) {
+                throw new IOException("Le fichier " + chemin + " n'est pas une image de colonie.");
+            }
+            if (entete[1] != VERSION) {
+                throw new IOException("Version d'image non prise en charge : " + entete[1] + ".");
+            }
+            int n = entete[2], m = entete[3], relations = entete[4], preferences = entete[8];
+            boolean assignee = (entete[5] & AVEC_ASSIGNATION) != 0;
+            if (n < 0 || m < 0 || relations < 0 || entete[6] < 0 || entete[7] < 0 || preferences < 0
+                    || preferences > MAX_PREFERENCES) {
+                throw new IOException("Image de colonie corrompue : en-tête invalide.");
+            }
+            long taille = TAILLE_ENTETE + 4L * (n + 1) + aligner(entete[6]) + 4L * (m + 1) + aligner(entete[7])
+                    + 4L * (n + 1) + 4L * preferences + 4L * (n + 1) + 4L * relations + (assignee ? 4L * n : 0);
+            if (canal.size() != taille) {
+                throw new IOException("Image de colonie tronquée ou corrompue : " + canal.size() + " octets au lieu de " + taille + ".");
+            }
+
+            long position = TAILLE_ENTETE;
+            String[] nomsColons = new String[n];
+            position = lireNoms(canal, position, entete[6], nomsColons);
+            String[] nomsRessources = new String[m];
+            position = lireNoms(canal, position, entete[7], nomsRessources);
+            int[] debutPreferences = new int[n + 1];
+            position = lireEntiers(canal, position, debutPreferences);
+            int[] preferees = new int[preferences];
+            position = lireEntiers(canal, position, preferees);
+            int[] debutVoisins = new int[n + 1];
+            position = lireEntiers(canal, position, debutVoisins);
+            int[] voisins = new int[relations];
+            position = lireEntiers(canal, position, voisins);
+            int[] objets = null;
+            if (assignee) {
+                objets = new int[n];
+                lireEntiers(canal, position, objets);
+            }
+
+            verifierPreferences(debutPreferences, preferees, m);
+            verifierRelations(debutVoisins, voisins, n);
+            if (objets != null) {
+                for (int objet : objets) {
+                    if (objet < -1 || objet >= m) throw new IOException("Image de colonie corrompue : ressource assignée invalide.");
+                }
+            }
+            ColonieCompilee compilee = new ColonieCompilee(nomsColons, nomsRessources, debutPreferences, preferees,
+                    debutVoisins, voisins);
+            return new Contenu(compilee, debutPreferences, preferees, objets);
+        }
+    }
+
+    // Vérifie que chaque colon liste des ressources existantes et distinctes, marquées dans un tableau réutilisé
+    private static void verifierPreferences(int[] debutPreferences, int[] preferees, int m) throws IOException {
+        int n = debutPreferences.length - 1;
+        if (debutPreferences[0] != 0 || debutPreferences[n] != preferees.length) {
+            throw new IOException("Image de colonie corrompue : préférences invalides.");
+        }
+        int[] vues = new int[m];
+        for (int c = 0; c < n; c++) {
+            if (debutPreferences[c + 1] < debutPreferences[c] || debutPreferences[c + 1] - debutPreferences[c] > m) {
+                throw new IOException("Image de colonie corrompue : préférences invalides.");
+            }
+            for (int i = debutPreferences[c]; i < debutPreferences[c + 1]; i++) {
+                int r = preferees[i];
+                if (r < 0 || r >= m) throw new IOException("Image de colonie corrompue : préférences invalides.");
+                if (vues[r] == c + 1) throw new IOException("Image de colonie corrompue : préférence répétée.");
+                vues[r] = c + 1;
+            }
+        }
+    }
+
+    private static void verifierRelations(int[] debutVoisins, int[] voisins, int n) throws IOException {
+        if (debutVoisins[0] != 0 || debutVoisins[n] != voisins.length) {
+            throw new IOException("Image de colonie corrompue : relations invalides.");
+        }
+        for (int c = 0; c < n; c++) {
+            if (debutVoisins[c + 1] < debutVoisins[c]) throw new IOException("Image de colonie corrompue : relations invalides.");
+            for (int k = debutVoisins[c]; k < debutVoisins[c + 1]; k++) {
+                if (voisins[k] < 0 || voisins[k] >= n || voisins[k] == c) {
+                    throw new IOException("Image de colonie corrompue : relations invalides.");
+                }
+            }
+        }
+    }
+
+    // Lit un tableau d'entiers d'un bloc, par fenêtres projetées en mémoire ; renvoie la position qui le suit
+    private static long lireEntiers(FileChannel canal, long position, int[] cible) throws IOException {
+        int lus = 0;
+        while (lus < cible.length) {
+            int nombre = (int) Math.min(cible.length - lus, TAILLE_FENETRE / Integer.BYTES);
+            ByteBuffer fenetre = canal.map(FileChannel.MapMode.READ_ONLY, position, (long) Integer.BYTES * nombre);
+            fenetre.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(cible, lus, nombre);
+            position += (long) Integer.BYTES * nombre;
+            lus += nombre;
+        }
+        return position;
+    }
+
+    // Lit un dictionnaire de noms : positions de début de chaque nom, puis leurs octets alignés sur 4 octets
+    private static long lireNoms(FileChannel canal, long position, int longueur, String[] noms) throws IOException {
+        int[] debuts = new int[noms.length + 1];
+        position = lireEntiers(canal, position, debuts);
+        byte[] octets = new byte[longueur];
+        if (longueur > 0) canal.map(FileChannel.MapMode.READ_ONLY, position, longueur).get(octets);
+        for (int i = 0; i < noms.length; i++) {
+            if (debuts[i] < 0 || debuts[i] > debuts[i + 1] || debuts[i + 1] > longueur) {
+                throw new IOException("Image de colonie corrompue : dictionnaire des noms invalide.");
+            }
+            noms[i] = new String(octets, debuts[i], debuts[i + 1] - debuts[i], StandardCharsets.UTF_8);
+        }
+        return position + aligner(longueur);
+    }
+
+    private static int longueur(byte[][] noms) {
+        long longueur = 0;
+        for (byte[] nom : noms) longueur += nom.length;
+        if (longueur > Integer.MAX_VALUE) throw new IllegalArgumentException("Les noms de la colonie sont trop longs pour une image.");
+        return (int) longueur;
+    }
+
+    private static long aligner(long longueur) {
+        return (longueur + 3) & ~3L;
+    }
+
+    /**
+     * Contenu d'une image : la vue compilée, les préférences lues (reprises par les colons) et l'assignation.
+     */
+    private static class Contenu {
+        private final ColonieCompilee compilee;
+        private final int[] debutPreferences;
+        private final int[] preferees;
+        private final int[] objets; // Assignation enregistrée, ou null
+
+        Contenu(ColonieCompilee compilee, int[] debutPreferences, int[] preferees, int[] objets) {
+            this.compilee = compilee;
+            this.debutPreferences = debutPreferences;
+            this.preferees = preferees;
+            this.objets = objets;
+        }
+    }
+
+    /**
+     * Écriture en petit-boutiste à travers un tampon réutilisé, vidé dans le canal du fichier quand il est plein.
+     * Les sections suivent l'ordre de l'image : entete(), début des préférences, ressources listées colon par colon,
+     * début des voisins, voisins, puis l'assignation éventuelle. Utilisé aussi par GenerateurColonie, qui écrit les
+     * préférences d'une colonie au fur et à mesure sans la construire en mémoire.
+     */
+    static class Ecrivain implements AutoCloseable {
+        private final FileChannel canal;
+        private final ByteBuffer tampon = ByteBuffer.allocateDirect(TAILLE_TAMPON).order(ByteOrder.LITTLE_ENDIAN);
+
+        Ecrivain(Path chemin) throws IOException {
+            this.canal = FileChannel.open(chemin, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        // En-tête, puis dictionnaires des noms des colons et des ressources
+        void entete(byte[][] nomsColons, byte[][] nomsRessources, int preferences, int relations, boolean assignee)
+                throws IOException {
+            entier(MAGIE);
+            entier(VERSION);
+            entier(nomsColons.length);
+            entier(nomsRessources.length);
+            entier(relations);
+            entier(assignee ? AVEC_ASSIGNATION : 0);
+            entier(longueur(nomsColons));
+            entier(longueur(nomsRessources));
+            entier(preferences);
+            noms(nomsColons);
+            noms(nomsRessources);
+        }
+
+        void entier(int valeur) throws IOException {
+            if (tampon.remaining() < Integer.BYTES) vider();
+            tampon.putInt(valeur);
+        }
+
+        void entiers(int[] valeurs) throws IOException {
+            int ecrits = 0;
+            while (ecrits < valeurs.length) {
+                if (tampon.remaining() < Integer.BYTES) vider();
+                int nombre = Math.min(valeurs.length - ecrits, tampon.remaining() / Integer.BYTES);
+                tampon.asIntBuffer().put(valeurs, ecrits, nombre); // Copie en bloc, dans l'ordre du tampon
+                tampon.position(tampon.position() + nombre * Integer.BYTES);
+                ecrits += nombre;
+            }
+        }
+
+        // Positions de début des noms, puis leurs octets complétés par des zéros jusqu'à un multiple de 4
+        private void noms(byte[][] noms) throws IOException {
+            int[] debuts = new int[noms.length + 1];
+            for (int i = 0; i < noms.length; i++) debuts[i + 1] = debuts[i] + noms[i].length;
+            entiers(debuts);
+            for (byte[] nom : noms) {
+                for (int ecrits = 0; ecrits < nom.length; ) {
+                    if (!tampon.hasRemaining()) vider();
+                    int nombre = Math.min(nom.length - ecrits, tampon.remaining());
+                    tampon.put(nom, ecrits, nombre);
+                    ecrits += nombre;
+                }
+            }
+            for (long i = debuts[noms.length]; i < aligner(debuts[noms.length]); i++) {
+                if (!tampon.hasRemaining()) vider();
+                tampon.put((byte) 0);
+            }
+        }
+
+        private void vider() throws IOException {
+            tampon.flip();
+            while (tampon.hasRemaining()) canal.write(tampon);
+            tampon.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                vider();
+            } finally {
+                canal.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,612 @@
+package app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Classe LecteurColonie : chargement rapide d'un fichier de colonie, utilisé par Colonie.chargerFichier().
+ * Le fichier est projeté en mémoire (FileChannel.map) et parcouru octet par octet : les lignes et leurs paramètres
+ * sont repérés par leurs positions, sans créer de chaîne intermédiaire. Chaque nom est converti en identifiant
+ * entier par une table de hachage sur les octets ; une chaîne n'est créée qu'à la première apparition d'un nom.
+ * Les règles et les messages d'erreur sont ceux du format texte : sections dans l'ordre colon, ressource, deteste,
+ * preferences, erreurs de relation et de préférences signalées sur la sortie d'erreur avec leur numéro de ligne.
+ * Les lignes deteste et preferences sont d'abord analysées en enregistrements indépendants les uns des autres, puis
+ * appliquées dans l'ordre du fichier. En lecture parallèle, une fois les colons et les ressources connus, la suite
+ * du fichier est découpée en morceaux analysés en parallèle, puis appliqués dans l'ordre.
+ */
+class LecteurColonie {
+    private static final long TAILLE_FENETRE = 1L << 30; // Taille maximale d'une projection du fichier en mémoire
+    private static final int MORCEAUX_PAR_FIL = 4; // Nombre de morceaux visé par fil pour équilibrer la charge
+    private static final int TAILLE_MIN_MORCEAU = 1 << 16; // Taille minimale d'un morceau, en octets
+    private static final byte[] COLON = octets("colon(");
+    private static final byte[] RESSOURCE = octets("ressource(");
+    private static final byte[] DETESTE = octets("deteste(");
+    private static final byte[] PREFERENCES = octets("preferences(");
+
+    // Types d'enregistrements produits par l'analyse d'une ligne
+    private static final int RELATION = 0;
+    private static final int RELATION_PARAMETRES = 1;
+    private static final int RELATION_IDENTIQUE = 2;
+    private static final int RELATION_INCONNUE = 3;
+    private static final int PREFERENCES_VALIDES = 4;
+    private static final int PREFERENCES_COLON_INCONNU = 5;
+    private static final int PREFERENCES_INVALIDES = 6;
+    private static final int COLON_HORS_SECTION = 7;
+    private static final int RESSOURCE_HORS_SECTION = 8;
+    private static final int LIGNE_INCONNUE = 9;
+
+    private final Colonie colonie;
+    private final TableNoms nomsColons = new TableNoms(); // Noms des colons de la colonie
+    private Colon[] colonsParId = new Colon[16]; // Colon correspondant à chaque identifiant de nomsColons
+    private final TableNoms nomsRessources = new TableNoms(); // Noms des ressources de la colonie
+    private final Analyseur analyseur = new Analyseur(); // Analyse des lignes en lecture séquentielle
+    private final Enregistrements enregistrements = new Enregistrements(); // Enregistrements de la ligne en cours
+    private String[] preferences = new String[16]; // Préférences à appliquer à un colon
+    private int[] idsColonie; // Identifiant dans la colonie de chaque ressource de nomsRessources, ou null
+    private byte[] tampon = new byte[64]; // Octets d'un nouveau nom, avant sa conversion en chaîne
+    private String section = "colon"; // Section actuelle : colons, ressources, relations et préférences
+    private int numLigne;
+
+    /**
+     * Constructeur de la classe LecteurColonie.
+     * @param colonie la colonie qui reçoit les éléments lus.
+     */
+    LecteurColonie(Colonie colonie) {
+        this.colonie = colonie;
+    }
+
+    /**
+     * Lit un fichier de colonie et ajoute ses éléments à la colonie.
+     * @param chemin le chemin du fichier.
+     * @param parallele vrai pour analyser les sections deteste et preferences en parallèle.
+     * @throws IOException si le fichier ne peut pas être lu.
+     * @throws IllegalArgumentException si une ligne est inconnue, mal formée ou hors de sa section.
+     */
+    void lire(Path chemin, boolean parallele) throws IOException {
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+            enregistrerExistants();
+            long taille = canal.size();
+            if (parallele && taille <= TAILLE_FENETRE) {
+                ByteBuffer octets = canal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+                int debut = lireLignes(octets, 0, (int) taille, true, this::traiterEntete);
+                if (debut < taille) lireEnParallele(octets, debut, (int) taille);
+                return;
+            }
+            long position = 0;
+            while (position < taille) { // Les fichiers de plus de 1 Go sont projetés par fenêtres successives
+                long longueur = Math.min(TAILLE_FENETRE, taille - position);
+                ByteBuffer octets = canal.map(FileChannel.MapMode.READ_ONLY, position, longueur);
+                int lus = lireLignes(octets, 0, (int) longueur, position + longueur == taille, this::traiterLigne);
+                if (lus == 0) {
+                    throw new IOException("Ligne trop longue (ligne " + (numLigne + 1) + ").");
+                }
+                position += lus;
+            }
+        }
+    }
+
+    /**
+     * Lit une colonie déjà en mémoire, au format du fichier texte, et ajoute ses éléments à la colonie.
+     * @param octets le contenu, de la position 0 à sa limite.
+     * @throws IllegalArgumentException si une ligne est inconnue, mal formée ou hors de sa section.
+     */
+    void lire(ByteBuffer octets) {
+        enregistrerExistants();
+        lireLignes(octets, 0, octets.limit(), true, this::traiterLigne);
+    }
+
+    /**
+     * Parcourt les lignes complètes d'une partie du fichier.
+     * @param octets la fenêtre projetée en mémoire.
+     * @param debut la position du début de la première ligne.
+     * @param limite la position qui suit le dernier octet à lire.
+     * @param derniere vrai si la limite est une fin de ligne, ou la fin du fichier.
+     * @param traitement le traitement de chaque ligne, qui peut demander l'arrêt avant la ligne.
+     * @return la position de la première ligne non traitée, ou la limite.
+     */
+    private static int lireLignes(ByteBuffer octets, int debut, int limite, boolean derniere, Ligne traitement) {
+        while (debut < limite) {
+            int fin = debut;
+            while (fin < limite && octets.get(fin) != '\n' && octets.get(fin) != '\r') fin++;
+            if (fin == limite && !derniere) return debut; // Fin de ligne dans la fenêtre suivante
+            if (fin == limite - 1 && octets.get(fin) == '\r' && !derniere) return debut; // Peut-être suivi de '\n'
+            if (!traitement.traiter(octets, debut, fin)) return debut;
+            if (fin < limite && octets.get(fin) == '\r' && fin + 1 < limite && octets.get(fin + 1) == '\n') fin++;
+            debut = fin + 1;
+        }
+        return limite;
+    }
+
+    /**
+     * Traitement d'une ligne, délimitée par ses positions et sans son saut de ligne.
+     */
+    @FunctionalInterface
+    private interface Ligne {
+        boolean traiter(ByteBuffer octets, int debut, int fin);
+    }
+
+    /**
+     * Traite une ligne du fichier, comme Colonie.chargerFichier() le faisait ligne par ligne.
+     * @return toujours true : la lecture continue.
+     */
+    private boolean traiterLigne(ByteBuffer octets, int debut, int fin) {
+        numLigne += 1;
+        while (debut < fin && (octets.get(debut) & 0xFF) <= ' ') debut++; // Supprime les espaces blancs de la ligne
+        while (fin > debut && (octets.get(fin - 1) & 0xFF) <= ' ') fin--;
+        if (debut == fin) return true; // Passe à la ligne suivante si celle-ci est vide
+
+        if (encadree(octets, debut, fin, COLON)) {
+            if (!section.equals("colon")) {
+                throw new IllegalArgumentException("Les colons doivent être définis avant toute autre section, (ligne " + numLigne + ").");
+            }
+            lireColon(octets, debut + COLON.length, fin - 2);
+        }
+        else if (encadree(octets, debut, fin, RESSOURCE)) {
+            if (!section.equals("ressource") && !section.equals("colon")) {
+                throw new IllegalArgumentException("Les ressources doivent être définies après les colons, (ligne " + numLigne + ").");
+            }
+            section = "ressource";
+            lireRessource(octets, debut + RESSOURCE.length, fin - 2);
+        }
+        else { // Relations, préférences et lignes inconnues : analyse puis application immédiate
+            analyseur.analyser(octets, debut, fin, numLigne, enregistrements);
+            appliquer(enregistrements, 0);
+            enregistrements.vider();
+        }
+        return true;
+    }
+
+    /**
+     * Traite les lignes des sections colon et ressource, et demande l'arrêt à la première autre ligne.
+     * @return false si la ligne n'appartient pas aux deux premières sections, sans la traiter.
+     */
+    private boolean traiterEntete(ByteBuffer octets, int debut, int fin) {
+        int debutTexte = debut, finTexte = fin;
+        while (debutTexte < finTexte && (octets.get(debutTexte) & 0xFF) <= ' ') debutTexte++;
+        while (finTexte > debutTexte && (octets.get(finTexte - 1) & 0xFF) <= ' ') finTexte--;
+        if (debutTexte < finTexte && !encadree(octets, debutTexte, finTexte, COLON)
+                && !encadree(octets, debutTexte, finTexte, RESSOURCE)) {
+            return false;
+        }
+        return traiterLigne(octets, debut, fin);
+    }
+
+    /**
+     * Analyse en parallèle la fin du fichier, découpée en morceaux aux fins de ligne, puis applique les
+     * enregistrements de chaque morceau dans l'ordre du fichier.
+     * @param octets le fichier projeté en mémoire.
+     * @param debut la position de la première ligne qui suit les sections colon et ressource.
+     * @param limite la taille du fichier.
+     */
+    private void lireEnParallele(ByteBuffer octets, int debut, int limite) {
+        int morceaux = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * MORCEAUX_PAR_FIL,
+                (limite - debut) / TAILLE_MIN_MORCEAU));
+        int[] bornes = new int[morceaux + 1];
+        bornes[0] = debut;
+        bornes[morceaux] = limite;
+        for (int i = 1; i < morceaux; i++) {
+            int cible = debut + (int) ((long) (limite - debut) * i / morceaux);
+            bornes[i] = debutLigneSuivante(octets, Math.max(cible, bornes[i - 1]), limite);
+        }
+
+        // Chaque morceau a son propre analyseur ; les tables de noms ne sont plus modifiées et sont lues en parallèle
+        List<Enregistrements> resultats = IntStream.range(0, morceaux).parallel().mapToObj(i -> {
+            Analyseur analyseurMorceau = new Analyseur();
+            Enregistrements enregistrementsMorceau = new Enregistrements();
+            lireLignes(octets, bornes[i], bornes[i + 1], true, (o, d, f) -> {
+                enregistrementsMorceau.lignes++;
+                analyseurMorceau.analyser(o, d, f, enregistrementsMorceau.lignes, enregistrementsMorceau);
+                return true;
+            });
+            return enregistrementsMorceau;
+        }).toList();
+
+        int premiereLigne = numLigne;
+        for (Enregistrements resultat : resultats) { // Application dans l'ordre du fichier
+            appliquer(resultat, premiereLigne);
+            premiereLigne += resultat.lignes;
+        }
+        numLigne = premiereLigne;
+    }
+
+    // Position du début de la première ligne qui commence à la position donnée ou après
+    private static int debutLigneSuivante(ByteBuffer octets, int position, int limite) {
+        if (position >= limite) return limite;
+        byte precedent = octets.get(position - 1);
+        if (precedent == '\n' || (precedent == '\r' && octets.get(position) != '\n')) return position;
+        if (precedent == '\r') return position + 1; // Entre '\r' et '\n'
+        while (position < limite && octets.get(position) != '\n' && octets.get(position) != '\r') position++;
+        if (position < limite - 1 && octets.get(position) == '\r' && octets.get(position + 1) == '\n') position++;
+        return Math.min(position + 1, limite);
+    }
+
+    /**
+     * Applique des enregistrements dans l'ordre : vérification de la section, relations, préférences, et erreurs
+     * levées ou signalées avec leur numéro de ligne.
+     * @param aAppliquer les enregistrements, dans l'ordre de leurs lignes.
+     * @param premiereLigne le nombre de lignes qui précèdent celles des enregistrements.
+     */
+    private void appliquer(Enregistrements aAppliquer, int premiereLigne) {
+        int[] valeurs = aAppliquer.valeurs;
+        for (int k = 0; k < aAppliquer.taille; k += Enregistrements.LARGEUR) {
+            int type = valeurs[k];
+            numLigne = premiereLigne + valeurs[k + 1];
+            if (type == COLON_HORS_SECTION) { // Les sections colon et ressource sont déjà terminées
+                throw new IllegalArgumentException("Les colons doivent être définis avant toute autre section, (ligne " + numLigne + ").");
+            }
+            if (type == RESSOURCE_HORS_SECTION) {
+                throw new IllegalArgumentException("Les ressources doivent être définies après les colons, (ligne " + numLigne + ").");
+            }
+            if (type == LIGNE_INCONNUE) {
+                throw new IllegalArgumentException("Ligne inconnue ou mauvaise syntaxe (ligne " + numLigne + ").");
+            }
+            if (type <= RELATION_INCONNUE) {
+                if (!section.equals("deteste") && !section.equals("ressource")) {
+                    throw new IllegalArgumentException("Les relations 'deteste' doivent être définies après les ressources, (ligne " + numLigne + ").");
+                }
+                section = "deteste";
+                if (type == RELATION_PARAMETRES) {
+                    throw new IllegalArgumentException("L'élément 'deteste' prends 2 paramètres et non " + valeurs[k + 2] + ", (ligne " + numLigne + ").");
+                } else if (type == RELATION_IDENTIQUE) {
+                    signaler("Un colon ne peut pas être en inimité avec lui-même.");
+                } else if (type == RELATION_INCONNUE) {
+                    signaler("Un ou les deux colons spécifiés n'existent pas.");
+                } else {
+                    try { colonie.ajouterRelation(colonsParId[valeurs[k + 2]], colonsParId[valeurs[k + 3]]); } // Attrape les erreurs jetées
+                    catch (IllegalArgumentException e) { signaler(e.getMessage()); }
+                }
+            } else {
+                if (!section.equals("preferences") && !section.equals("deteste")) {
+                    throw new IllegalArgumentException("Les préférences doivent être définies après les relations, (ligne " + numLigne + ").");
+                }
+                section = "preferences";
+                if (type == PREFERENCES_COLON_INCONNU) {
+                    signaler("Le colon n'existe pas");
+                } else if (type == PREFERENCES_INVALIDES) {
+                    signaler("Les préférences ne peuvent pas se répéter");
+                } else {
+                    appliquerPreferences(aAppliquer, valeurs[k + 2], valeurs[k + 3], valeurs[k + 4], valeurs[k + 5]);
+                }
+            }
+        }
+    }
+
+    private void appliquerPreferences(Enregistrements source, int colon, int debut, int nombre, int doublon) {
+        if (preferences.length < nombre) preferences = new String[Math.max(nombre, preferences.length * 2)];
+        for (int i = 0; i < nombre; i++) {
+            preferences[i] = nomsRessources.getNom(source.ressources[debut + i]);
+        }
+        if (doublon >= 0) { // Toutes les ressources sont présentes, mais l'une d'elles est répétée
+            colonie.remplacerPreferences(colonsParId[colon], preferences, doublon); // Préférences ajoutées avant l'erreur
+            throw new NullPointerException("La préférence existe deja.");
+        }
+        if (idsColonie == null) { // Les ressources ne changent plus après la première ligne de préférences
+            idsColonie = new int[nomsRessources.getTaille()];
+            for (int r = 0; r < idsColonie.length; r++) idsColonie[r] = colonie.getIdRessource(nomsRessources.getNom(r));
+        }
+        int[] ids = new int[nombre]; // Ressources distinctes, déjà vérifiées par l'analyse
+        for (int i = 0; i < nombre; i++) {
+            ids[i] = idsColonie[source.ressources[debut + i]];
+        }
+        colonie.remplacerPreferences(colonsParId[colon], preferences, ids);
+    }
+
+    private void lireColon(ByteBuffer octets, int debut, int fin) {
+        if (compterChamps(octets, debut, fin) != 1) { // Vérifie que l'on n'a pas plusieurs paramètres
+            throw new IllegalArgumentException("L'élément 'colon' prends 1 unique paramètres, (ligne " + numLigne + ").");
+        }
+        int id = nomsColons.chercher(octets, debut, fin);
+        String nom = id >= 0 ? nomsColons.getNom(id) : decoder(octets, debut, fin);
+        colonie.ajouterColon(nom); // Lève l'exception habituelle si le colon existe déjà
+        enregistrerColon(octets, debut, fin, nom);
+    }
+
+    private void lireRessource(ByteBuffer octets, int debut, int fin) {
+        if (compterChamps(octets, debut, fin) != 1) { // Vérifie que l'on n'a pas plusieurs paramètres
+            throw new IllegalArgumentException("L'élément 'ressource' prends 1 unique paramètres, (ligne " + numLigne + ").");
+        }
+        if (nomsRessources.chercher(octets, debut, fin) < 0) {
+            String nom = decoder(octets, debut, fin);
+            colonie.ajouterRessource(nom);
+            nomsRessources.ajouter(octets, debut, fin, nom);
+        }
+    }
+
+    // Enregistre les colons et les ressources ajoutés à la colonie avant le chargement
+    private void enregistrerExistants() {
+        for (Colon colon : colonie.getColons()) {
+            byte[] nom = colon.getNom().getBytes(StandardCharsets.UTF_8);
+            enregistrerColon(ByteBuffer.wrap(nom), 0, nom.length, colon.getNom());
+        }
+        for (String ressource : colonie.getRessources()) {
+            byte[] nom = ressource.getBytes(StandardCharsets.UTF_8);
+            nomsRessources.ajouter(ByteBuffer.wrap(nom), 0, nom.length, ressource);
+        }
+    }
+
+    private void enregistrerColon(ByteBuffer octets, int debut, int fin, String nom) {
+        int id = nomsColons.ajouter(octets, debut, fin, nom);
+        if (id >= colonsParId.length) colonsParId = Arrays.copyOf(colonsParId, colonsParId.length * 2);
+        colonsParId[id] = colonie.getColon(nom);
+    }
+
+    private String decoder(ByteBuffer octets, int debut, int fin) {
+        if (tampon.length < fin - debut) tampon = new byte[Math.max(fin - debut, tampon.length * 2)];
+        octets.get(debut, tampon, 0, fin - debut);
+        return new String(tampon, 0, fin - debut, StandardCharsets.UTF_8);
+    }
+
+    private void signaler(String message) {
+        System.err.println(message + ", (ligne " + numLigne + ").");
+    }
+
+    // Nombre de paramètres, avec les règles de String.split(",")
+    private static int compterChamps(ByteBuffer octets, int debut, int fin) {
+        if (debut == fin) return 1; // Un contenu vide donne un paramètre vide
+        int champs = 0;
+        int debutChamp = debut;
+        int nonVides = 0; // Nombre de paramètres jusqu'au dernier paramètre non vide
+        for (int i = debut; i <= fin; i++) {
+            if (i == fin || octets.get(i) == ',') {
+                champs++;
+                if (i > debutChamp) nonVides = champs;
+                debutChamp = i + 1;
+            }
+        }
+        return nonVides;
+    }
+
+    // Vrai si la ligne commence par le préfixe donné et se termine par ")."
+    private static boolean encadree(ByteBuffer octets, int debut, int fin, byte[] prefixe) {
+        if (fin - debut < prefixe.length + 2 || octets.get(fin - 2) != ')' || octets.get(fin - 1) != '.') return false;
+        for (int i = 0; i < prefixe.length; i++) {
+            if (octets.get(debut + i) != prefixe[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean egaux(ByteBuffer octets, int debut1, int fin1, int debut2, int fin2) {
+        if (fin1 - debut1 != fin2 - debut2) return false;
+        for (int i = 0; i < fin1 - debut1; i++) {
+            if (octets.get(debut1 + i) != octets.get(debut2 + i)) return false;
+        }
+        return true;
+    }
+
+    private static byte[] octets(String texte) {
+        return texte.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Analyse des lignes qui suivent les sections colon et ressource. L'analyse ne dépend que de la ligne et des
+     * noms déjà connus : elle peut être faite sur plusieurs fils, un analyseur par fil.
+     */
+    private class Analyseur {
+        private int[] champs = new int[32]; // Début et fin de chaque paramètre de la ligne en cours
+        private int nombreChamps;
+        private int[] vues = new int[16]; // Dernière ligne analysée où chaque ressource a été vue
+        private int marque; // Valeur de vues qui désigne la ligne en cours
+
+        /**
+         * Analyse une ligne et ajoute son enregistrement, sauf si elle est vide.
+         * @param ligne le numéro de la ligne, relatif au début du morceau analysé.
+         */
+        void analyser(ByteBuffer octets, int debut, int fin, int ligne, Enregistrements sortie) {
+            while (debut < fin && (octets.get(debut) & 0xFF) <= ' ') debut++;
+            while (fin > debut && (octets.get(fin - 1) & 0xFF) <= ' ') fin--;
+            if (debut == fin) return;
+
+            if (encadree(octets, debut, fin, DETESTE)) {
+                analyserRelation(octets, debut + DETESTE.length, fin - 2, ligne, sortie);
+            } else if (encadree(octets, debut, fin, PREFERENCES)) {
+                analyserPreferences(octets, debut + PREFERENCES.length, fin - 2, ligne, sortie);
+            } else if (encadree(octets, debut, fin, COLON)) {
+                sortie.ajouter(COLON_HORS_SECTION, ligne, 0, 0, 0, 0);
+            } else if (encadree(octets, debut, fin, RESSOURCE)) {
+                sortie.ajouter(RESSOURCE_HORS_SECTION, ligne, 0, 0, 0, 0);
+            } else {
+                sortie.ajouter(LIGNE_INCONNUE, ligne, 0, 0, 0, 0);
+            }
+        }
+
+        private void analyserRelation(ByteBuffer octets, int debut, int fin, int ligne, Enregistrements sortie) {
+            decouper(octets, debut, fin);
+            if (nombreChamps != 2) {
+                sortie.ajouter(RELATION_PARAMETRES, ligne, nombreChamps, 0, 0, 0);
+            } else if (egaux(octets, champs[0], champs[1], champs[2], champs[3])) {
+                sortie.ajouter(RELATION_IDENTIQUE, ligne, 0, 0, 0, 0);
+            } else {
+                int colon1 = nomsColons.chercher(octets, champs[0], champs[1]);
+                int colon2 = nomsColons.chercher(octets, champs[2], champs[3]);
+                if (colon1 < 0 || colon2 < 0) {
+                    sortie.ajouter(RELATION_INCONNUE, ligne, 0, 0, 0, 0);
+                } else {
+                    sortie.ajouter(RELATION, ligne, colon1, colon2, 0, 0);
+                }
+            }
+        }
+
+        private void analyserPreferences(ByteBuffer octets, int debut, int fin, int ligne, Enregistrements sortie) {
+            decouper(octets, debut, fin);
+            int colon = nombreChamps == 0 ? -1 : nomsColons.chercher(octets, champs[0], champs[1]);
+            if (colon < 0) {
+                sortie.ajouter(PREFERENCES_COLON_INCONNU, ligne, 0, 0, 0, 0);
+                return;
+            }
+            int m = nomsRessources.getTaille();
+            if (vues.length < m) vues = new int[Math.max(m, vues.length * 2)];
+            marque++;
+            int nombre = nombreChamps - 1;
+            int debutRessources = sortie.nombreRessources;
+            int distinctes = 0;
+            int doublon = -1; // Position de la première ressource répétée
+            boolean inconnue = false;
+            for (int i = 0; i < nombre; i++) {
+                int id = nomsRessources.chercher(octets, champs[2 * i + 2], champs[2 * i + 3]);
+                if (id < 0) {
+                    inconnue = true;
+                    break;
+                }
+                if (vues[id] != marque) { // Première apparition de la ressource sur cette ligne
+                    vues[id] = marque;
+                    distinctes++;
+                } else if (doublon < 0) {
+                    doublon = i;
+                }
+                sortie.ajouterRessource(id);
+            }
+            if (inconnue || nombre == 0 || (doublon >= 0 && distinctes != m)) { // Liste partielle acceptée sans répétition
+                sortie.nombreRessources = debutRessources; // Oublie les ressources de la ligne refusée
+                sortie.ajouter(PREFERENCES_INVALIDES, ligne, 0, 0, 0, 0);
+            } else {
+                sortie.ajouter(PREFERENCES_VALIDES, ligne, colon, debutRessources, nombre, doublon);
+            }
+        }
+
+        /**
+         * Repère les paramètres séparés par des virgules, avec les règles de String.split(",") : un contenu vide
+         * donne un paramètre vide, et les paramètres vides en fin de liste sont ignorés.
+         */
+        private void decouper(ByteBuffer octets, int debut, int fin) {
+            nombreChamps = 0;
+            if (debut == fin) {
+                ajouterChamp(debut, fin);
+                return;
+            }
+            int debutChamp = debut;
+            for (int i = debut; i <= fin; i++) {
+                if (i == fin || octets.get(i) == ',') {
+                    ajouterChamp(debutChamp, i);
+                    debutChamp = i + 1;
+                }
+            }
+            while (nombreChamps > 0 && champs[2 * nombreChamps - 1] == champs[2 * nombreChamps - 2]) nombreChamps--;
+        }
+
+        private void ajouterChamp(int debut, int fin) {
+            if (champs.length < 2 * nombreChamps + 2) champs = Arrays.copyOf(champs, champs.length * 2);
+            champs[2 * nombreChamps] = debut;
+            champs[2 * nombreChamps + 1] = fin;
+            nombreChamps++;
+        }
+    }
+
+    /**
+     * Enregistrements produits par l'analyse d'une suite de lignes, rangés bout à bout dans des tableaux d'entiers :
+     * type, ligne et quatre valeurs par enregistrement, et les identifiants des ressources des préférences.
+     */
+    private static class Enregistrements {
+        static final int LARGEUR = 6; // Nombre d'entiers par enregistrement
+
+        private int[] valeurs = new int[LARGEUR * 64];
+        private int taille;
+        private int[] ressources = new int[256]; // Préférences valides, bout à bout
+        private int nombreRessources;
+        private int lignes; // Nombre de lignes analysées, vides comprises
+
+        void ajouter(int type, int ligne, int a, int b, int c, int d) {
+            if (taille + LARGEUR > valeurs.length) valeurs = Arrays.copyOf(valeurs, valeurs.length * 2);
+            valeurs[taille] = type;
+            valeurs[taille + 1] = ligne;
+            valeurs[taille + 2] = a;
+            valeurs[taille + 3] = b;
+            valeurs[taille + 4] = c;
+            valeurs[taille + 5] = d;
+            taille += LARGEUR;
+        }
+
+        void ajouterRessource(int ressource) {
+            if (nombreRessources == ressources.length) ressources = Arrays.copyOf(ressources, ressources.length * 2);
+            ressources[nombreRessources++] = ressource;
+        }
+
+        void vider() {
+            taille = 0;
+            nombreRessources = 0;
+        }
+    }
+
+    /**
+     * Table de hachage à adressage ouvert qui associe un identifiant entier à chaque nom, à partir de ses octets.
+     * Les octets des noms sont copiés bout à bout dans un seul tableau, ce qui permet de les comparer sans chaîne.
+     * La recherche ne modifie pas la table et peut être faite depuis plusieurs fils une fois les ajouts terminés.
+     */
+    private static class TableNoms {
+        private int[] cases = new int[64]; // Identifiant + 1 du nom rangé dans chaque case, 0 si elle est vide
+        private byte[] octets = new byte[1024]; // Octets de tous les noms, bout à bout
+        private int[] debuts = new int[17]; // Les octets du nom i sont octets[debuts[i]] ... octets[debuts[i+1]-1]
+        private int[] hachages = new int[16]; // Hachage de chaque nom, pour agrandir la table sans le recalculer
+        private String[] noms = new String[16];
+        private int taille;
+
+        int chercher(ByteBuffer source, int debut, int fin) {
+            int hachage = hacher(source, debut, fin);
+            int masque = cases.length - 1;
+            for (int i = hachage & masque; ; i = (i + 1) & masque) {
+                int id = cases[i] - 1;
+                if (id < 0) return -1;
+                if (hachages[id] == hachage && egal(id, source, debut, fin)) return id;
+            }
+        }
+
+        int ajouter(ByteBuffer source, int debut, int fin, String nom) {
+            int longueur = fin - debut;
+            if (taille == noms.length) {
+                noms = Arrays.copyOf(noms, taille * 2);
+                hachages = Arrays.copyOf(hachages, taille * 2);
+                debuts = Arrays.copyOf(debuts, taille * 2 + 1);
+            }
+            if (debuts[taille] + longueur > octets.length) {
+                octets = Arrays.copyOf(octets, Math.max(debuts[taille] + longueur, octets.length * 2));
+            }
+            source.get(debut, octets, debuts[taille], longueur);
+            debuts[taille + 1] = debuts[taille] + longueur;
+            hachages[taille] = hacher(source, debut, fin);
+            noms[taille] = nom;
+            int id = taille++;
+            if (2 * taille > cases.length) {
+                cases = new int[cases.length * 2]; // Agrandit la table et y replace tous les noms
+                for (int i = 0; i < taille; i++) ranger(i);
+            } else {
+                ranger(id);
+            }
+            return id;
+        }
+
+        String getNom(int id) {
+            return noms[id];
+        }
+        int getTaille() {
+            return taille;
+        }
+
+        private void ranger(int id) {
+            int masque = cases.length - 1;
+            int i = hachages[id] & masque;
+            while (cases[i] != 0) i = (i + 1) & masque;
+            cases[i] = id + 1;
+        }
+
+        private boolean egal(int id, ByteBuffer source, int debut, int fin) {
+            if (debuts[id + 1] - debuts[id] != fin - debut) return false;
+            for (int i = debuts[id], j = debut; j < fin; i++, j++) {
+                if (octets[i] != source.get(j)) return false;
+            }
+            return true;
+        }
+
+        private static int hacher(ByteBuffer source, int debut, int fin) {
+            int hachage = 0;
+            for (int i = debut; i < fin; i++) hachage = 31 * hachage + source.get(i);
+            return hachage ^ (hachage >>> 16);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package app;
 
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -12,17 +16,37 @@ public class Menu {
     /**
      * Lance le programme en fonction des arguments fournis.
      * @param args Les arguments de la ligne de commande. Si aucun argument n'est donné, la colonie est définie
-     *             manuellement, sinon elle est chargée depuis un fichier.
+     *             manuellement, sinon elle est chargée depuis un fichier (texte ou image binaire).
+     *             Avec "--convertir source destination", convertit un fichier texte en image binaire ou l'inverse.
+     *             Avec "--generer destination colons [option=valeur ...]", génère une colonie aléatoire.
+     *             Avec "--lot fichiers_ou_dossiers... [option=valeur ...]", résout des fichiers sans interaction.
+     *             Avec "--service [option=valeur ...]", répond aux requêtes de l'entrée standard ou d'une socket locale.
      */
     public static void lancer(String[] args) {
-        if (args.length == 0) { // Si l'utilisateur ne donne pas d'argument, définition de la colonie par ligne de cmd
+        if (args.length == 3 && args[0].equals("--convertir")) { // Conversion entre le format texte et l'image binaire
+            convertir(args[1], args[2]);
+        }
+        else if (args.length >= 3 && args[0].equals("--generer")) { // Génération d'une colonie aléatoire
+            generer(args);
+        }
+        else if (args.length >= 2 && args[0].equals("--lot")) { // Résolution sans interaction de plusieurs fichiers
+            traiterLot(args);
+        }
+        else if (args.length >= 1 && args[0].equals("--service")) { // Service de résolution de longue durée
+            servir(args);
+        }
+        else if (args.length == 0) { // Si l'utilisateur ne donne pas d'argument, définition de la colonie par ligne de cmd
             sansFichier();
         }
         else if (args.length == 1) { //Si l'utilisateur donne un argument, on charge la colonie depuis le fichier
             avecFichier(args[0]);
         }
         else { //Si l'utilisateur donne plusieurs arguments, il y a un problème
-            System.err.println("Trop d'arguments : uniquement le chemin du fichier est demandé");
+            System.err.println("Arguments invalides : uniquement le chemin du fichier est demandé, ou l'une des options :");
+            System.err.println("  --convertir source destination");
+            System.err.println("  --generer destination colons [option=valeur ...]");
+            System.err.println("  --lot fichiers_ou_dossiers... [option=valeur ...]");
+            System.err.println("  --service [option=valeur ...]");
             System.exit(1);
         }
     }
@@ -192,7 +216,11 @@ public class Menu {
     private static void avecFichier(String cheminFichier) {
         Colonie colonie = new Colonie();
         try {
-            colonie.chargerFichier(cheminFichier);
+            if (ImageColonie.estImage(Path.of(cheminFichier))) { // Image binaire écrite par --convertir
+                colonie.chargerImage(cheminFichier);
+            } else {
+                colonie.chargerFichier(cheminFichier);
+            }
             System.out.println("--> Colonie correctement initialisée avec le fichier.\n");
         } catch (IOException e) {
             System.err.println("Erreur liée au fichier: " + e.getMessage());
@@ -259,6 +287,200 @@ public class Menu {
         }
     }
 
+    /**
+     * Convertit un fichier de colonie texte en image binaire, ou une image en fichier texte, puis termine.
+     * @param source Le chemin du fichier à convertir.
+     * @param destination Le chemin du fichier à écrire.
+     */
+    private static void convertir(String source, String destination) {
+        try {
+            ImageColonie.convertir(Path.of(source), Path.of(destination));
+            System.out.println("--> Fichier " + source + " converti vers " + destination + ".");
+        } catch (IOException e) {
+            System.err.println("Erreur liée au fichier: " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Génère une colonie aléatoire avec GenerateurColonie, puis termine.
+     * @param args "--generer", le chemin du fichier, le nombre de colons, puis des options "nom=valeur" : ressources,
+     *             relations (erdos-renyi, loi-puissance, groupes), degre, groupes, interne, preferences (uniformes,
+     *             correlees), correlation, top (longueur des listes de préférences), graine et format (texte, image).
+     */
+    private static void generer(String[] args) {
+        try {
+            Map<String, String> options = new HashMap<>();
+            for (int i = 3; i < args.length; i++) {
+                String[] option = args[i].split("=", 2);
+                if (option.length != 2) {
+                    throw new IllegalArgumentException("Option invalide : " + args[i] + " (format nom=valeur).");
+                }
+                options.put(option[0], option[1]);
+            }
+            GenerateurColonie generateur = new GenerateurColonie(Integer.parseInt(args[2]),
+                    Long.parseLong(options.getOrDefault("graine", "0")));
+            for (Map.Entry<String, String> option : options.entrySet()) {
+                String valeur = option.getValue();
+                switch (option.getKey()) {
+                    case "ressources":
+                        generateur.setNombreRessources(Integer.parseInt(valeur));
+                        break;
+                    case "relations":
+                        generateur.setRelations(GenerateurColonie.Relations.valueOf(enumeration(valeur)));
+                        break;
+                    case "degre":
+                        generateur.setDegreMoyen(Double.parseDouble(valeur));
+                        break;
+                    case "groupes":
+                        generateur.setTailleGroupes(Integer.parseInt(valeur));
+                        break;
+                    case "interne":
+                        generateur.setPartInterne(Double.parseDouble(valeur));
+                        break;
+                    case "preferences":
+                        generateur.setPreferences(GenerateurColonie.Preferences.valueOf(enumeration(valeur)));
+                        break;
+                    case "correlation":
+                        generateur.setCorrelation(Double.parseDouble(valeur));
+                        break;
+                    case "top":
+                        generateur.setNombrePreferences(Integer.parseInt(valeur));
+                        break;
+                    case "graine":
+                    case "format":
+                        break; // Déjà prises en compte
+                    default:
+                        throw new IllegalArgumentException("Option inconnue : " + option.getKey() + ".");
+                }
+            }
+            if (options.getOrDefault("format", "texte").equals("image")) {
+                generateur.ecrireImage(Path.of(args[1]));
+            } else {
+                generateur.ecrireTexte(Path.of(args[1]));
+            }
+            System.out.println("--> Colonie de " + args[2] + " colons générée dans " + args[1] + ".");
+        } catch (IOException e) {
+            System.err.println("Erreur liée au fichier: " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Résout sans interaction un ensemble de fichiers avec TraitementParLots, écrit un résumé par fichier sur la
+     * sortie standard, puis termine avec le code 1 si un fichier est en erreur.
+     * @param args "--lot", des fichiers ou des dossiers, puis des options "nom=valeur" : algorithme (naif, local,
+     *             multi-depart, recuit, exact, exact-parallele, exhaustif ; exact par défaut), duree en
+     *             millisecondes par fichier (1000 par défaut, 0 sans échéance), fils (nombre de cœurs par défaut),
+     *             sortie (dossier des solutions, "solutions" par défaut) et graine.
+     */
+    private static void traiterLot(String[] args) {
+        try {
+            List<String> chemins = new ArrayList<>();
+            Map<String, String> options = new HashMap<>();
+            for (int i = 1; i < args.length; i++) {
+                String[] option = args[i].split("=", 2);
+                if (option.length == 2) options.put(option[0], option[1]);
+                else chemins.add(args[i]);
+            }
+            for (String nom : options.keySet()) {
+                if (!List.of("algorithme", "duree", "fils", "sortie", "graine").contains(nom)) {
+                    throw new IllegalArgumentException("Option inconnue : " + nom + ".");
+                }
+            }
+            TraitementParLots lot = new TraitementParLots(
+                    Algorithme.valueOf(enumeration(options.getOrDefault("algorithme", "exact"))),
+                    Long.parseLong(options.getOrDefault("duree", "1000")),
+                    Integer.parseInt(options.getOrDefault("fils", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                    Path.of(options.getOrDefault("sortie", "solutions")));
+            lot.setGraine(Long.parseLong(options.getOrDefault("graine", "0")));
+            int erreurs = lot.traiter(TraitementParLots.listerFichiers(chemins), System.out);
+            if (erreurs > 0) System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Erreur liée au fichier: " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lance ServiceSolveur, jusqu'à la fin de l'entrée standard ou, avec une socket, jusqu'à l'arrêt du programme.
+     * Sur l'entrée standard, les messages de la colonie sont renvoyés vers la sortie d'erreur pour ne pas se mêler
+     * aux réponses.
+     * @param args "--service", puis des options "nom=valeur" : algorithme (exact par défaut) et duree en
+     *             millisecondes (1000 par défaut) des requêtes qui ne les précisent pas, fils (nombre de cœurs par
+     *             défaut), socket (chemin d'une socket Unix) ou port (port TCP de l'adresse de bouclage), et
+     *             prechauffage (durée en millisecondes, 0 par défaut), cache (nombre maximal de colons des
+     *             solutions gardées, sans cache par défaut) et persistance (fichier du cache, relu au démarrage et
+     *             réécrit à l'arrêt).
+     */
+    private static void servir(String[] args) {
+        try {
+            Map<String, String> options = new HashMap<>();
+            for (int i = 1; i < args.length; i++) {
+                String[] option = args[i].split("=", 2);
+                if (option.length != 2 || !List.of("algorithme", "duree", "fils", "socket", "port", "prechauffage",
+                        "cache", "persistance")
+                        .contains(option[0])) {
+                    throw new IllegalArgumentException("Option inconnue : " + args[i] + ".");
+                }
+                options.put(option[0], option[1]);
+            }
+            ServiceSolveur service = new ServiceSolveur(
+                    Algorithme.valueOf(enumeration(options.getOrDefault("algorithme", "exact"))),
+                    Long.parseLong(options.getOrDefault("duree", "1000")),
+                    Integer.parseInt(options.getOrDefault("fils", String.valueOf(Runtime.getRuntime().availableProcessors()))));
+            service.prechauffer(Long.parseLong(options.getOrDefault("prechauffage", "0"))); // Avant le cache, qui ne garde que les requêtes
+            if (options.containsKey("cache")) {
+                CacheSolutions cache = new CacheSolutions(Long.parseLong(options.get("cache")));
+                if (options.containsKey("persistance")) {
+                    Path fichier = Path.of(options.get("persistance"));
+                    if (Files.exists(fichier)) cache.charger(fichier);
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> { // Aussi à l'arrêt par un signal
+                        try {
+                            cache.enregistrer(fichier);
+                        } catch (IOException e) {
+                            System.err.println("Erreur liée au fichier: " + e.getMessage());
+                        }
+                    }));
+                }
+                service.setCache(cache);
+            } else if (options.containsKey("persistance")) {
+                throw new IllegalArgumentException("L'option persistance demande l'option cache.");
+            }
+            if (options.containsKey("socket") || options.containsKey("port")) {
+                Path chemin = options.containsKey("socket") ? Path.of(options.get("socket")) : null;
+                ServerSocketChannel serveur = ServiceSolveur.ouvrir(chemin, Integer.parseInt(options.getOrDefault("port", "0")));
+                System.err.println("Service à l'écoute sur " + serveur.getLocalAddress());
+                service.ecouter(serveur);
+            } else {
+                PrintStream reponses = System.out;
+                System.setOut(System.err);
+                service.servir(System.in, reponses);
+            }
+            service.fermer();
+        } catch (IOException e) {
+            System.err.println("Erreur liée au service: " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Nom d'une valeur d'énumération à partir de sa forme en ligne de commande, par exemple loi-puissance
+    private static String enumeration(String valeur) {
+        return valeur.toUpperCase(Locale.ROOT).replace('-', '_');
+    }
+
     /**
      * Choix dans un menu à 3 options, utilisé plusieurs fois dans les deux méthodes avecFichier & sansFichier.
      * @param scanner le scanner ouvert lors du choix.
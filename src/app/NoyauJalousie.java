@@ -0,0 +1,49 @@
+package app;
+
+/**
+ * Interface NoyauJalousie : compte des colons jaloux sur les tableaux d'une vue compilée dense.
+ * L'implémentation vectorielle (NoyauVectoriel, dans le dossier vectoriel) utilise le module incubateur
+ * jdk.incubator.vector : elle n'est compilée et chargée qu'avec l'option --add-modules jdk.incubator.vector.
+ * Sans elle, ColonieCompilee.calculerJalousie() garde sa boucle scalaire.
+ */
+interface NoyauJalousie {
+    int LARGEUR_MINIMALE = 256; // Sans AVX2, les lectures indexées ne gagnent rien sur la boucle scalaire
+
+    /**
+     * Compte les colons jaloux parmi les colons debut ... fin-1. Un colon est jaloux s'il préfère strictement l'objet
+     * d'un voisin au sien ; un colon sans objet a le rang -1 pour lui-même, et un voisin sans objet n'est envié que si
+     * l'objet du colon est listé (voir ColonieCompilee.calculerJalousie()).
+     * @param rangs la table des rangs, rangs[c * nombreRessources + r].
+     * @param nombreRessources le nombre de ressources m.
+     * @param nombresPreferences le nombre de ressources listées par chaque colon.
+     * @param debutVoisins les voisins du colon c sont voisins[debutVoisins[c]] ... voisins[debutVoisins[c+1]-1].
+     * @param voisins les relations de tous les colons, mises bout à bout.
+     * @param objets l'identifiant de la ressource de chaque colon, ou -1.
+     * @param debut le premier colon.
+     * @param fin le colon qui suit le dernier.
+     * @return le nombre de colons jaloux, chacun compté une fois.
+     */
+    int compter(int[] rangs, int nombreRessources, int[] nombresPreferences, int[] debutVoisins, int[] voisins,
+                int[] objets, int debut, int fin);
+
+    /**
+     * @return la largeur des registres vectoriels utilisés, en bits.
+     */
+    int getLargeurBits();
+
+    /**
+     * Charge le noyau vectoriel, si le module jdk.incubator.vector est présent, que la classe a été compilée et que
+     * les registres vectoriels ont au moins LARGEUR_MINIMALE bits.
+     * @return le noyau vectoriel, ou null pour garder le calcul scalaire.
+     */
+    static NoyauJalousie chargerVectoriel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        NoyauJalousie noyau;
+        try {
+            noyau = (NoyauJalousie) Class.forName("app.NoyauVectoriel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null; // Classe absente : seule la boucle scalaire a été compilée
+        }
+        return noyau.getLargeurBits() >= LARGEUR_MINIMALE ? noyau : null;
+    }
+}
@@ -0,0 +1,124 @@
+package app;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Classe Permutations : source paresseuse de toutes les permutations de 0, 1, ..., n-1, dans l'ordre de
+ * l'algorithme de Heap. Un unique tableau est modifié en place, de sorte que la mémoire utilisée ne dépend pas
+ * de n!, et deux permutations consécutives ne diffèrent que par une transposition, ce qui permet de les évaluer
+ * incrémentalement.
+ * Attention, le tableau fourni à chaque étape est toujours le même : il doit être copié pour être conservé.
+ */
+public class Permutations implements Spliterator<int[]> {
+    private final int[] permutation; // Permutation courante, modifiée en place
+    private final int[] compteurs; // Compteurs de l'algorithme de Heap, un par niveau
+    private int niveau; // Niveau courant de l'algorithme de Heap
+    private boolean demarree; // Vrai dès que la première permutation a été produite
+    private int transpositionI = -1; // Positions échangées pour passer à la permutation courante, -1 au départ
+    private int transpositionJ = -1;
+    private long produites; // Nombre de permutations déjà produites
+
+    /**
+     * Constructeur de la classe Permutations.
+     * @param taille le nombre n d'éléments à permuter.
+     */
+    public Permutations(int taille) {
+        this.permutation = new int[taille];
+        this.compteurs = new int[taille];
+        for (int i = 0; i < taille; i++) {
+            permutation[i] = i;
+        }
+        this.niveau = 1;
+    }
+
+    /**
+     * Passe à la permutation suivante en échangeant deux cases du tableau. Le premier appel produit
+     * la permutation identité sans rien échanger.
+     * @return true si une nouvelle permutation est disponible, false si toutes ont été produites.
+     */
+    public boolean suivante() {
+        if (!demarree) {
+            demarree = true;
+            produites++;
+            return true;
+        }
+        while (niveau < permutation.length) {
+            if (compteurs[niveau] < niveau) {
+                transpositionI = (niveau % 2 == 0) ? 0 : compteurs[niveau];
+                transpositionJ = niveau;
+                int temp = permutation[transpositionI];
+                permutation[transpositionI] = permutation[transpositionJ];
+                permutation[transpositionJ] = temp;
+                compteurs[niveau]++;
+                niveau = 1;
+                produites++;
+                return true;
+            }
+            compteurs[niveau] = 0;
+            niveau++;
+        }
+        return false;
+    }
+
+    /**
+     * Renvoie le tableau de la permutation courante, partagé et modifié par chaque appel à suivante().
+     * @return la permutation courante.
+     */
+    public int[] getPermutation() {
+        return permutation;
+    }
+
+    /**
+     * @return la première position échangée pour obtenir la permutation courante, ou -1 pour la première permutation.
+     */
+    public int getTranspositionI() {
+        return transpositionI;
+    }
+
+    /**
+     * @return la seconde position échangée pour obtenir la permutation courante, ou -1 pour la première permutation.
+     */
+    public int getTranspositionJ() {
+        return transpositionJ;
+    }
+
+    /**
+     * Crée un flux séquentiel de toutes les permutations de 0, 1, ..., n-1.
+     * Chaque élément du flux est le même tableau, modifié en place.
+     * @param taille le nombre n d'éléments à permuter.
+     * @return le flux des permutations.
+     */
+    public static Stream<int[]> flux(int taille) {
+        return StreamSupport.stream(new Permutations(taille), false);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[]> action) {
+        if (!suivante()) return false;
+        action.accept(permutation);
+        return true;
+    }
+
+    @Override
+    public Spliterator<int[]> trySplit() {
+        return null; // L'ordre de Heap ne se découpe pas : la recherche exacte parallèle découpe par préfixes
+    }
+
+    @Override
+    public long estimateSize() {
+        if (permutation.length > 20) return Long.MAX_VALUE; // n! dépasse la capacité d'un long
+        long taille = 1;
+        for (int i = 2; i <= permutation.length; i++) {
+            taille *= i;
+        }
+        return taille - produites; // Nombre de permutations restantes
+    }
+
+    @Override
+    public int characteristics() {
+        return permutation.length > 20 ? ORDERED | NONNULL : ORDERED | NONNULL | SIZED;
+    }
+}
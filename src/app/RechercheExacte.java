@@ -0,0 +1,486 @@
+package app;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe RechercheExacte : recherche de l'assignation optimale par séparation et évaluation (branch and bound).
+ * Les colons reçoivent une ressource un par un, dans un ordre qui place les colons en relation côte à côte.
+ * Le nombre de colons déjà jaloux ne peut qu'augmenter quand on affecte les colons suivants. En y ajoutant les
+ * colons pas encore affectés qui seront forcément jaloux, on obtient une borne inférieure de la jalousie de toute
+ * solution de la branche : dès qu'elle atteint la jalousie de la meilleure solution connue, la branche est abandonnée.
+ * La recherche peut aussi être répartie sur un ForkJoinPool : chaque préfixe des premières affectations est un
+ * sous-arbre indépendant, et tous les sous-arbres partagent la meilleure jalousie connue pour s'élaguer mutuellement.
+ * Les symétries sont cassées : parmi des colons jumeaux (mêmes préférences et mêmes voisins), le premier exploré
+ * reçoit toujours une ressource d'identifiant plus petit que le suivant, et parmi des ressources interchangeables
+ * (même rang pour tous les colons), la plus petite est toujours utilisée en premier. Seule la représentante
+ * lexicographiquement minimale de chaque classe de solutions équivalentes est explorée.
+ * La recherche consulte régulièrement son contrôle : interrompue, elle renvoie la meilleure assignation trouvée,
+ * sans garantie d'optimalité.
+ */
+public class RechercheExacte {
+    private static final int TACHES_PAR_FIL = 8; // Nombre de sous-arbres visé par fil pour équilibrer la charge
+    private static final int NOEUDS_PAR_CONSULTATION = 256; // Nombre de nœuds entre deux consultations du contrôle
+
+    private final ColonieCompilee colonie;
+    private final int[] ordre; // Ordre dans lequel les colons reçoivent une ressource
+    private final int[] jumeauPrecedent; // Jumeau du colon placé avant lui dans l'ordre d'exploration, ou -1
+    private final int[] ressourcePrecedente; // Ressource interchangeable d'identifiant inférieur, ou -1
+    private final AtomicInteger meilleureJalousie = new AtomicInteger(); // Borne de l'élagage, partagée entre les fils
+    private int[] meilleureAssignation; // Meilleure assignation complète trouvée, protégée par le verrou de l'objet
+    private final LongAdder noeuds = new LongAdder(); // Nombre d'affectations essayées
+    private Controle controle; // Contrôle de la résolution en cours
+    private volatile boolean interrompue; // Vrai si la résolution en cours a été arrêtée par son contrôle
+
+    /**
+     * Constructeur de la classe RechercheExacte.
+     * @param colonie la colonie compilée, qui doit avoir au moins autant de ressources que de colons.
+     */
+    public RechercheExacte(ColonieCompilee colonie) {
+        this.colonie = colonie;
+        this.ordre = ordreExploration(colonie);
+        this.jumeauPrecedent = jumeauxPrecedents(colonie, ordre);
+        this.ressourcePrecedente = ressourcesPrecedentes(colonie);
+    }
+
+    /**
+     * Cherche une assignation qui minimise le nombre de colons jaloux, sur le fil courant.
+     * @param solutionInitiale une assignation complète, typiquement donnée par une heuristique, dont la jalousie
+     *                         sert de borne initiale. Elle est renvoyée si aucune assignation n'est meilleure.
+     * @return une assignation optimale.
+     */
+    public int[] resoudre(int[] solutionInitiale) {
+        return resoudre(solutionInitiale, new Controle());
+    }
+
+    /**
+     * Cherche une assignation qui minimise le nombre de colons jaloux, sur le fil courant, jusqu'à ce que le
+     * contrôle demande l'arrêt.
+     * @param solutionInitiale une assignation complète dont la jalousie sert de borne initiale.
+     * @param controle l'échéance, l'annulation et l'écouteur de la recherche.
+     * @return une assignation optimale, ou la meilleure trouvée si la recherche a été interrompue.
+     */
+    public int[] resoudre(int[] solutionInitiale, Controle controle) {
+        initialiser(solutionInitiale, controle);
+        new Explorateur().explorer(0);
+        return getMeilleureAssignation();
+    }
+
+    /**
+     * Cherche une assignation qui minimise le nombre de colons jaloux, en répartissant les sous-arbres de la
+     * recherche sur les fils d'un ForkJoinPool.
+     * @param solutionInitiale une assignation complète dont la jalousie sert de borne initiale.
+     * @param pool le pool de fils qui exécute la recherche.
+     * @return une assignation optimale.
+     */
+    public int[] resoudreEnParallele(int[] solutionInitiale, ForkJoinPool pool) {
+        return resoudreEnParallele(solutionInitiale, pool, new Controle());
+    }
+
+    /**
+     * Cherche une assignation qui minimise le nombre de colons jaloux sur les fils d'un ForkJoinPool, jusqu'à ce
+     * que le contrôle demande l'arrêt.
+     * @param solutionInitiale une assignation complète dont la jalousie sert de borne initiale.
+     * @param pool le pool de fils qui exécute la recherche.
+     * @param controle l'échéance, l'annulation et l'écouteur de la recherche.
+     * @return une assignation optimale, ou la meilleure trouvée si la recherche a été interrompue.
+     */
+    public int[] resoudreEnParallele(int[] solutionInitiale, ForkJoinPool pool, Controle controle) {
+        initialiser(solutionInitiale, controle);
+        int profondeur = profondeurDecoupage(pool.getParallelism() * TACHES_PAR_FIL);
+        pool.invoke(new SousArbre(new int[0], profondeur));
+        return getMeilleureAssignation();
+    }
+
+    private void initialiser(int[] solutionInitiale, Controle controle) {
+        meilleureAssignation = solutionInitiale.clone();
+        meilleureJalousie.set(colonie.calculerJalousie(solutionInitiale));
+        noeuds.reset();
+        this.controle = controle;
+        interrompue = false;
+    }
+
+    /**
+     * Enregistre une assignation complète si elle est meilleure que la meilleure connue.
+     * @param affectation l'affectation complète trouvée.
+     */
+    private synchronized void proposer(Affectation affectation) {
+        if (affectation.getJalousie() < meilleureJalousie.get()) {
+            meilleureAssignation = affectation.getObjets();
+            meilleureJalousie.set(affectation.getJalousie());
+            controle.signalerAmelioration(affectation.getJalousie(), noeuds.sum());
+        }
+    }
+
+    /**
+     * Calcule la profondeur des préfixes à partir de laquelle un sous-arbre est exploré par un seul fil :
+     * la plus petite profondeur qui donne au moins le nombre de sous-arbres voulu.
+     * @param taches le nombre de sous-arbres voulu.
+     * @return la profondeur de découpage, au plus égale au nombre de colons.
+     */
+    private int profondeurDecoupage(int taches) {
+        int m = colonie.getNombreRessources();
+        long sousArbres = 1;
+        int profondeur = 0;
+        while (sousArbres < taches && profondeur < ordre.length) {
+            sousArbres *= m - profondeur; // Nombre de préfixes de la profondeur suivante
+            profondeur++;
+        }
+        return profondeur;
+    }
+
+    /**
+     * Tâche du ForkJoinPool : exploration du sous-arbre des affectations qui commencent par un préfixe donné.
+     * Au-dessus de la profondeur de découpage, la tâche crée une sous-tâche par ressource possible pour le colon
+     * suivant ; en dessous, elle explore le sous-arbre en place sur son fil.
+     */
+    private class SousArbre extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] prefixe; // Ressources des premiers colons, dans l'ordre d'exploration
+        private final int profondeurDecoupage;
+
+        SousArbre(int[] prefixe, int profondeurDecoupage) {
+            this.prefixe = prefixe;
+            this.profondeurDecoupage = profondeurDecoupage;
+        }
+
+        @Override
+        protected void compute() {
+            if (interrompue || controle.doitArreter()) {
+                interrompue = true;
+                return;
+            }
+            Explorateur explorateur = new Explorateur();
+            for (int i = 0; i < prefixe.length; i++) { // Rejoue le préfixe
+                explorateur.affectation.affecter(ordre[i], prefixe[i]);
+                explorateur.utilisee[prefixe[i]] = true;
+            }
+            if (explorateur.borneInferieure(prefixe.length) >= meilleureJalousie.get()) return;
+            if (prefixe.length >= profondeurDecoupage) {
+                explorateur.explorer(prefixe.length);
+                return;
+            }
+            int colon = ordre[prefixe.length];
+            List<SousArbre> sousTaches = new ArrayList<>();
+            for (int rang = 0; rang < colonie.getNombreRessources(); rang++) {
+                int ressource = colonie.ressourceDeRang(colon, rang);
+                if (!explorateur.autorisee(colon, ressource)) continue;
+                int[] suite = Arrays.copyOf(prefixe, prefixe.length + 1);
+                suite[prefixe.length] = ressource;
+                sousTaches.add(new SousArbre(suite, profondeurDecoupage));
+            }
+            invokeAll(sousTaches);
+        }
+    }
+
+    /**
+     * État d'une exploration en profondeur sur un fil : affectation partielle et ressources utilisées,
+     * modifiées en place à chaque descente et remontée.
+     */
+    private class Explorateur {
+        private final Affectation affectation = new Affectation(colonie); // Affectation partielle en construction
+        private final boolean[] utilisee = new boolean[colonie.getNombreRessources()]; // Ressources déjà attribuées
+        private final int[] marques = new int[colonie.getNombreColons()]; // Colons réservés par le calcul de la borne
+        private int marque; // Valeur de marques qui désigne le calcul de borne en cours
+        private int avantConsultation = NOEUDS_PAR_CONSULTATION; // Nœuds restants avant de consulter le contrôle
+
+        /**
+         * Affecte récursivement une ressource au colon de la profondeur donnée, puis aux suivants.
+         * @param profondeur le nombre de colons déjà affectés, dans l'ordre d'exploration.
+         */
+        void explorer(int profondeur) {
+            if (profondeur == ordre.length) { // Toutes les ressources sont affectées : nouvelle meilleure solution
+                proposer(affectation);
+                return;
+            }
+            if (--avantConsultation == 0) {
+                avantConsultation = NOEUDS_PAR_CONSULTATION;
+                if (controle.doitArreter()) interrompue = true;
+            }
+            int colon = ordre[profondeur];
+            int m = colonie.getNombreRessources();
+            long essais = 0;
+            for (int rang = 0; rang < m && meilleureJalousie.get() > 0 && !interrompue; rang++) { // Les ressources préférées d'abord
+                int ressource = colonie.ressourceDeRang(colon, rang);
+                if (!autorisee(colon, ressource)) continue;
+                affectation.affecter(colon, ressource);
+                utilisee[ressource] = true;
+                essais++;
+                if (borneInferieure(profondeur + 1) < meilleureJalousie.get()) { // Sinon la branche ne peut pas faire mieux
+                    explorer(profondeur + 1);
+                }
+                utilisee[ressource] = false;
+            }
+            affectation.liberer(colon);
+            noeuds.add(essais);
+        }
+
+        /**
+         * Indique si une ressource peut être donnée au colon suivant : elle doit être libre, et respecter l'ordre
+         * imposé entre jumeaux et entre ressources interchangeables.
+         * @param colon l'identifiant du colon à affecter, dont les prédécesseurs dans l'ordre sont affectés.
+         * @param ressource l'identifiant de la ressource.
+         * @return true si la ressource peut être essayée, false sinon.
+         */
+        boolean autorisee(int colon, int ressource) {
+            if (utilisee[ressource]) return false;
+            int precedente = ressourcePrecedente[ressource];
+            if (precedente >= 0 && !utilisee[precedente]) return false;
+            int jumeau = jumeauPrecedent[colon];
+            return jumeau < 0 || ressource > affectation.getObjet(jumeau);
+        }
+
+        /**
+         * Calcule une borne inférieure de la jalousie de toutes les solutions qui complètent l'affectation partielle.
+         * Un colon pas encore affecté est en conflit si aucune ressource libre ne lui évite d'être jaloux sans rendre
+         * jaloux l'un de ses voisins déjà affectés : l'un des colons de son groupe (lui et ces voisins) deviendra
+         * forcément jaloux. On compte les colons en conflit dont les groupes sont disjoints.
+         * @param profondeur le nombre de colons déjà affectés, dans l'ordre d'exploration.
+         * @return le nombre de colons déjà jaloux plus le nombre de groupes disjoints en conflit.
+         */
+        int borneInferieure(int profondeur) {
+            int borne = affectation.getJalousie();
+            int meilleure = meilleureJalousie.get();
+            if (borne >= meilleure) return borne;
+            int[] debutVoisins = colonie.getDebutVoisins();
+            int[] voisins = colonie.getVoisins();
+            int m = colonie.getNombreRessources();
+            marque++;
+            for (int i = profondeur; i < ordre.length; i++) {
+                int colon = ordre[i];
+                int meilleurVoisin = m; // Meilleur rang parmi les objets des voisins déjà affectés
+                boolean disjoint = true; // Aucun colon du groupe n'appartient à un groupe déjà compté
+                for (int k = debutVoisins[colon]; k < debutVoisins[colon + 1]; k++) {
+                    int voisin = voisins[k];
+                    int objetVoisin = affectation.getObjet(voisin);
+                    if (objetVoisin < 0) continue;
+                    meilleurVoisin = Math.min(meilleurVoisin, colonie.rang(colon, objetVoisin));
+                    if (!affectation.estJaloux(voisin) && marques[voisin] == marque) disjoint = false;
+                }
+                if (meilleurVoisin == m || !disjoint) continue; // Aucun voisin affecté, ou groupe déjà utilisé
+                if (!ressourceSansConflit(colon, meilleurVoisin)) {
+                    if (++borne >= meilleure) return borne;
+                    marques[colon] = marque; // Réserve le groupe du colon
+                    for (int k = debutVoisins[colon]; k < debutVoisins[colon + 1]; k++) {
+                        int voisin = voisins[k];
+                        if (affectation.getObjet(voisin) >= 0 && !affectation.estJaloux(voisin)) marques[voisin] = marque;
+                    }
+                }
+            }
+            return borne;
+        }
+
+        /**
+         * Cherche une ressource libre qui laisse un colon pas encore affecté sans jalousie et qui ne rend jaloux
+         * aucun de ses voisins déjà affectés.
+         * @param colon l'identifiant du colon pas encore affecté.
+         * @param meilleurVoisin le meilleur rang, pour ce colon, des objets de ses voisins déjà affectés.
+         * @return true si une telle ressource existe, false sinon.
+         */
+        private boolean ressourceSansConflit(int colon, int meilleurVoisin) {
+            int[] debutVoisins = colonie.getDebutVoisins();
+            int[] voisins = colonie.getVoisins();
+            int m = colonie.getNombreRessources();
+            for (int rang = 0; rang < m; rang++) { // Ressources par préférence décroissante du colon
+                int ressource = colonie.ressourceDeRang(colon, rang);
+                if (colonie.rang(colon, ressource) > meilleurVoisin) return false; // Le colon serait jaloux
+                if (utilisee[ressource]) continue;
+                boolean convient = true;
+                for (int k = debutVoisins[colon]; k < debutVoisins[colon + 1] && convient; k++) {
+                    int voisin = voisins[k];
+                    int objetVoisin = affectation.getObjet(voisin);
+                    if (objetVoisin >= 0 && !affectation.estJaloux(voisin)
+                            && colonie.rang(voisin, ressource) < colonie.rang(voisin, objetVoisin)) {
+                        convient = false; // Ce voisin deviendrait jaloux
+                    }
+                }
+                if (convient) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Calcule l'ordre d'affectation des colons : parcours en largeur du graphe des relations, en partant des
+     * colons de plus haut degré, afin que les jalousies apparaissent le plus tôt possible dans la recherche.
+     * @param colonie la colonie compilée.
+     * @return les identifiants des colons dans l'ordre d'exploration.
+     */
+    static int[] ordreExploration(ColonieCompilee colonie) {
+        int n = colonie.getNombreColons();
+        int[] debutVoisins = colonie.getDebutVoisins();
+        int[] voisins = colonie.getVoisins();
+        Integer[] parDegre = new Integer[n];
+        for (int c = 0; c < n; c++) parDegre[c] = c;
+        Arrays.sort(parDegre, (a, b) -> (debutVoisins[b + 1] - debutVoisins[b]) - (debutVoisins[a + 1] - debutVoisins[a]));
+
+        int[] ordre = new int[n]; // Sert aussi de file pour le parcours en largeur
+        boolean[] place = new boolean[n];
+        int fin = 0;
+        for (int depart : parDegre) {
+            if (place[depart]) continue;
+            place[depart] = true;
+            ordre[fin++] = depart;
+            for (int tete = fin - 1; tete < fin; tete++) {
+                int colon = ordre[tete];
+                for (int k = debutVoisins[colon]; k < debutVoisins[colon + 1]; k++) {
+                    if (!place[voisins[k]]) {
+                        place[voisins[k]] = true;
+                        ordre[fin++] = voisins[k];
+                    }
+                }
+            }
+        }
+        return ordre;
+    }
+
+    /**
+     * Associe à chaque colon son jumeau précédent dans l'ordre d'exploration. Deux colons sont jumeaux s'ils ont
+     * les mêmes rangs pour toutes les ressources et les mêmes voisins, l'un et l'autre exceptés : échanger leurs
+     * ressources ne change pas la jalousie. Les jumeaux non voisins (mêmes voisins) sont cherchés d'abord, puis
+     * les jumeaux voisins (mêmes voisins en comptant le colon lui-même) parmi les colons restants.
+     * @param colonie la colonie compilée.
+     * @param ordre les identifiants des colons dans l'ordre d'exploration.
+     * @return pour chaque colon, l'identifiant de son jumeau précédent, ou -1.
+     */
+    static int[] jumeauxPrecedents(ColonieCompilee colonie, int[] ordre) {
+        int n = colonie.getNombreColons();
+        int[] debutVoisins = colonie.getDebutVoisins();
+        int[] voisins = colonie.getVoisins();
+        int[] precedent = new int[n];
+        Arrays.fill(precedent, -1);
+        for (int ferme = 0; ferme < 2; ferme++) {
+            Map<Signature, Integer> dernier = new HashMap<>(); // Dernier colon rencontré pour chaque signature
+            for (int colon : ordre) {
+                if (precedent[colon] >= 0) continue;
+                int degre = debutVoisins[colon + 1] - debutVoisins[colon];
+                int[] voisinage = Arrays.copyOfRange(voisins, debutVoisins[colon], debutVoisins[colon + 1] + ferme);
+                if (ferme == 1) voisinage[degre] = colon;
+                Arrays.sort(voisinage);
+                Signature signature = new Signature(colonie.lignePreferences(colon), voisinage);
+                Integer jumeau = dernier.put(signature, colon);
+                if (jumeau != null) precedent[colon] = jumeau;
+            }
+        }
+        return precedent;
+    }
+
+    /**
+     * Associe à chaque ressource la ressource interchangeable d'identifiant immédiatement inférieur. Deux ressources
+     * sont interchangeables si elles ont le même rang pour tous les colons : les échanger ne change pas la jalousie.
+     * @param colonie la colonie compilée.
+     * @return pour chaque ressource, l'identifiant de la ressource interchangeable précédente, ou -1.
+     */
+    static int[] ressourcesPrecedentes(ColonieCompilee colonie) {
+        int n = colonie.getNombreColons();
+        int m = colonie.getNombreRessources();
+        int[] precedente = new int[m];
+        Map<Signature, Integer> derniere = new HashMap<>(); // Dernière ressource rencontrée pour chaque colonne de rangs
+        for (int r = 0; r < m; r++) {
+            int[] colonne = new int[n];
+            for (int c = 0; c < n; c++) colonne[c] = colonie.rang(c, r);
+            Integer equivalente = derniere.put(new Signature(colonne, new int[0]), r);
+            precedente[r] = equivalente == null ? -1 : equivalente;
+        }
+        return precedente;
+    }
+
+    /**
+     * Clé de regroupement formée de deux tableaux d'entiers, comparés par contenu.
+     */
+    private static class Signature {
+        private final int[] rangs;
+        private final int[] voisins;
+        private final int hachage;
+
+        Signature(int[] rangs, int[] voisins) {
+            this.rangs = rangs;
+            this.voisins = voisins;
+            this.hachage = 31 * Arrays.hashCode(rangs) + Arrays.hashCode(voisins);
+        }
+
+        @Override
+        public boolean equals(Object autre) {
+            if (!(autre instanceof Signature)) return false;
+            Signature signature = (Signature) autre;
+            return hachage == signature.hachage && Arrays.equals(rangs, signature.rangs) && Arrays.equals(voisins, signature.voisins);
+        }
+
+        @Override
+        public int hashCode() {
+            return hachage;
+        }
+    }
+
+    /**
+     * Évalue toutes les permutations possibles des ressources, sans élagage, jusqu'à trouver une assignation sans
+     * jalousie ou jusqu'à ce que le contrôle demande l'arrêt. Conservée comme référence pour valider la recherche
+     * par séparation et évaluation.
+     * Les permutations sont produites en place dans l'ordre de Heap : chacune ne diffère de la précédente que par
+     * l'échange de deux ressources, dont l'effet sur la jalousie est calculé incrémentalement.
+     * Attention, la complexité de cet algorithme est O(m!), avec m le nombre de ressources.
+     * @param colonie la colonie compilée, qui doit avoir au moins autant de ressources que de colons.
+     * @param controle l'échéance, l'annulation et l'écouteur de la recherche.
+     * @return la meilleure assignation trouvée ; une itération est une permutation évaluée.
+     */
+    public static Solution exhaustive(ColonieCompilee colonie, Controle controle) {
+        int n = colonie.getNombreColons();
+        Permutations permutations = new Permutations(colonie.getNombreRessources());
+        int[] permutation = permutations.getPermutation(); // Les n premières cases donnent l'objet de chaque colon
+
+        // Assignation de la première permutation
+        permutations.suivante();
+        Affectation affectation = new Affectation(colonie);
+        for (int c = 0; c < n; c++) {
+            affectation.affecter(c, permutation[c]);
+        }
+
+        // Initialiser les variables pour stocker la meilleure assignation
+        int[] meilleureAssignation = affectation.getObjets();
+        int meilleureJalousie = affectation.getJalousie();
+        long evaluees = 1;
+        controle.signalerAmelioration(meilleureJalousie, evaluees);
+
+        // Parcourir chaque permutation, tant qu'une assignation sans jalousie n'a pas été trouvée
+        boolean complete = false;
+        while (meilleureJalousie > 0) {
+            if (evaluees % NOEUDS_PAR_CONSULTATION == 0 && controle.doitArreter()) break;
+            if (!permutations.suivante()) {
+                complete = true;
+                break;
+            }
+            evaluees++;
+
+            // Seuls les deux colons dont les ressources ont été échangées changent d'objet
+            int i = permutations.getTranspositionI();
+            int j = permutations.getTranspositionJ();
+            if (i < n) affectation.affecter(i, permutation[i]);
+            if (j < n) affectation.affecter(j, permutation[j]);
+
+            // Vérifier si cette assignation est meilleure que la meilleure trouvée jusqu'à présent
+            if (affectation.getJalousie() < meilleureJalousie) {
+                meilleureJalousie = affectation.getJalousie(); // Mettre à jour la jalousie minimale
+                meilleureAssignation = affectation.getObjets(); // Enregistrer la nouvelle meilleure assignation
+                controle.signalerAmelioration(meilleureJalousie, evaluees);
+            }
+        }
+        return new Solution(meilleureAssignation, meilleureJalousie, complete || meilleureJalousie == 0, evaluees,
+                controle.getTempsEcouleMillis());
+    }
+
+    public int getMeilleureJalousie() {
+        return meilleureJalousie.get();
+    }
+    public long getNoeuds() {
+        return noeuds.sum();
+    }
+    public boolean estInterrompue() {
+        return interrompue;
+    }
+    private synchronized int[] getMeilleureAssignation() {
+        return meilleureAssignation.clone();
+    }
+}
@@ -0,0 +1,239 @@
+package app;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Classe RechercheLocale : amélioration d'une affectation par échanges de ressources entre couples de colons.
+ * Chaque échange est évalué incrémentalement en O(deg(a) + deg(b)) et appliqué en place, sans copie.
+ * La recherche peut être relancée depuis plusieurs assignations aléatoires en parallèle (multi-départ).
+ */
+public class RechercheLocale {
+
+    private RechercheLocale() {}
+
+    /**
+     * Applique des échanges améliorants jusqu'à atteindre un optimum local : plus aucun échange entre deux colons
+     * ne diminue le nombre de colons jaloux.
+     * @param affectation l'affectation complète à améliorer, modifiée en place.
+     */
+    public static void descente(Affectation affectation) {
+        descente(affectation, () -> false);
+    }
+
+    /**
+     * Applique des échanges améliorants jusqu'à atteindre un optimum local, ou jusqu'à ce qu'on demande l'arrêt.
+     * @param affectation l'affectation complète à améliorer, modifiée en place.
+     * @param arret condition d'arrêt, consultée une fois par colon parcouru.
+     */
+    public static void descente(Affectation affectation, BooleanSupplier arret) {
+        while (balayer(affectation, arret)) {
+            // On recommence tant qu'un balayage a trouvé une amélioration
+        }
+    }
+
+    /**
+     * Parcourt une fois tous les couples de colons et applique chaque échange qui diminue la jalousie.
+     * @param affectation l'affectation complète à améliorer, modifiée en place.
+     * @return true si au moins un échange a été appliqué, false sinon.
+     */
+    public static boolean balayer(Affectation affectation) {
+        return balayer(affectation, () -> false);
+    }
+
+    /**
+     * Parcourt une fois tous les couples de colons et applique chaque échange qui diminue la jalousie.
+     * @param affectation l'affectation complète à améliorer, modifiée en place.
+     * @param arret condition d'arrêt, consultée une fois par colon parcouru.
+     * @return true si au moins un échange a été appliqué et que l'arrêt n'a pas été demandé, false sinon.
+     */
+    public static boolean balayer(Affectation affectation, BooleanSupplier arret) {
+        int n = affectation.getColonie().getNombreColons();
+        boolean amelioration = false;
+        for (int i = 0; i < n; i++) {
+            if (arret.getAsBoolean()) return false;
+            for (int j = i + 1; j < n; j++) {
+                if (affectation.getJalousie() == 0) return false; // Aucune amélioration possible
+                int jalousieActuelle = affectation.getJalousie();
+                affectation.echanger(i, j); // Échange en place
+                if (affectation.getJalousie() < jalousieActuelle) {
+                    amelioration = true; // L'échange est conservé
+                } else {
+                    affectation.echanger(i, j); // Annule l'échange
+                }
+            }
+        }
+        return amelioration;
+    }
+
+    /**
+     * Répare une affectation après une modification locale de la colonie, sans balayer tous les couples de colons.
+     * Seuls les mouvements qui touchent la zone sont essayés : l'échange de l'objet d'un colon de la zone avec celui
+     * de n'importe quel autre colon, et le passage d'un colon de la zone à une ressource libre. Chaque mouvement qui
+     * diminue la jalousie est appliqué, jusqu'à ce qu'aucun ne le fasse. Un balayage coûte O(|zone| * m * deg) au
+     * lieu de O(n² * deg) pour balayer().
+     * @param affectation l'affectation complète à réparer, modifiée en place.
+     * @param zone les colons touchés par la modification, par exemple les colons modifiés et leurs voisins.
+     * @param arret condition d'arrêt, consultée une fois par colon de la zone parcouru.
+     * @return le nombre de balayages de la zone.
+     */
+    public static long reparer(Affectation affectation, int[] zone, BooleanSupplier arret) {
+        ColonieCompilee colonie = affectation.getColonie();
+        int n = colonie.getNombreColons();
+        int m = colonie.getNombreRessources();
+        boolean[] prise = new boolean[m];
+        for (int c = 0; c < n; c++) prise[affectation.getObjet(c)] = true;
+        int[] libres = new int[m - n];
+        for (int r = 0, k = 0; r < m; r++) {
+            if (!prise[r]) libres[k++] = r;
+        }
+
+        long balayages = 0;
+        boolean amelioration = true;
+        while (amelioration) {
+            amelioration = false;
+            balayages++;
+            for (int a : zone) {
+                if (arret.getAsBoolean()) return balayages;
+                for (int b = 0; b < n; b++) {
+                    if (affectation.getJalousie() == 0) return balayages; // Aucune amélioration possible
+                    if (b == a) continue;
+                    int jalousieActuelle = affectation.getJalousie();
+                    affectation.echanger(a, b);
+                    if (affectation.getJalousie() < jalousieActuelle) {
+                        amelioration = true; // L'échange est conservé
+                    } else {
+                        affectation.echanger(a, b); // Annule l'échange
+                    }
+                }
+                for (int k = 0; k < libres.length; k++) {
+                    if (affectation.getJalousie() == 0) return balayages;
+                    int jalousieActuelle = affectation.getJalousie();
+                    int ancien = affectation.getObjet(a);
+                    affectation.affecter(a, libres[k]);
+                    if (affectation.getJalousie() < jalousieActuelle) {
+                        libres[k] = ancien; // L'ancien objet devient libre
+                        amelioration = true;
+                    } else {
+                        affectation.affecter(a, ancien);
+                    }
+                }
+            }
+        }
+        return balayages;
+    }
+
+    /**
+     * Lance des recherches locales indépendantes depuis des assignations aléatoires, réparties sur un fil par cœur.
+     * Chaque fil a son propre générateur, issu de la graine donnée. La recherche s'arrête quand tous les départs
+     * ont été faits, à l'échéance, ou dès qu'une assignation atteint la jalousie cible.
+     * @param colonie la colonie compilée, qui doit avoir au moins autant de ressources que de colons.
+     * @param departs le nombre total de recherches locales à lancer.
+     * @param dureeMillis le temps de calcul accordé, en millisecondes.
+     * @param jalousieCible la jalousie à partir de laquelle on arrête de chercher, par exemple 0.
+     * @param graine la graine des générateurs aléatoires.
+     * @return la meilleure assignation trouvée par l'ensemble des fils.
+     */
+    public static int[] multiDepart(ColonieCompilee colonie, int departs, long dureeMillis, int jalousieCible, long graine) {
+        Controle controle = new Controle(dureeMillis);
+        controle.setGraine(graine);
+        return multiDepart(colonie, departs, jalousieCible, controle).getObjets();
+    }
+
+    /**
+     * Lance des recherches locales indépendantes depuis des assignations aléatoires, réparties sur un fil par cœur,
+     * jusqu'à ce que tous les départs aient été faits, que le contrôle demande l'arrêt, ou qu'une assignation
+     * atteigne la jalousie cible. Chaque fil a son propre générateur, issu de la graine du contrôle.
+     * @param colonie la colonie compilée, qui doit avoir au moins autant de ressources que de colons.
+     * @param departs le nombre total de recherches locales à lancer.
+     * @param jalousieCible la jalousie à partir de laquelle on arrête de chercher, par exemple 0.
+     * @param controle l'échéance, l'annulation, l'écouteur et la graine de la recherche.
+     * @return la meilleure assignation trouvée par l'ensemble des fils ; une itération est un départ terminé.
+     */
+    public static Solution multiDepart(ColonieCompilee colonie, int departs, int jalousieCible, Controle controle) {
+        int fils = Math.max(1, Math.min(departs, Runtime.getRuntime().availableProcessors()));
+        MeilleureSolution meilleure = new MeilleureSolution(controle);
+        AtomicInteger departsRestants = new AtomicInteger(departs);
+        BooleanSupplier arret = () -> controle.doitArreter() || meilleure.getJalousie() <= jalousieCible;
+
+        SplittableRandom racine = new SplittableRandom(controle.getGraine());
+        meilleure.proposer(new Affectation(colonie, assignationAleatoire(colonie, racine))); // Solution si aucun départ n'aboutit
+        ExecutorService executeur = Executors.newFixedThreadPool(fils);
+        for (int f = 0; f < fils; f++) {
+            SplittableRandom aleatoire = racine.split(); // Un générateur indépendant par fil
+            executeur.execute(() -> {
+                while (departsRestants.getAndDecrement() > 0 && !arret.getAsBoolean()) {
+                    Affectation affectation = new Affectation(colonie, assignationAleatoire(colonie, aleatoire));
+                    descente(affectation, arret);
+                    meilleure.termines.increment();
+                    meilleure.proposer(affectation);
+                }
+            });
+        }
+        executeur.shutdown();
+        try {
+            executeur.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executeur.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        int jalousie = meilleure.getJalousie();
+        return new Solution(meilleure.getObjets(), jalousie, jalousie == 0, meilleure.termines.sum(),
+                controle.getTempsEcouleMillis());
+    }
+
+    /**
+     * Tire une assignation aléatoire uniforme : les ressources sont mélangées puis distribuées aux colons.
+     * @param colonie la colonie compilée, qui doit avoir au moins autant de ressources que de colons.
+     * @param aleatoire le générateur aléatoire du fil.
+     * @return l'identifiant de la ressource de chaque colon.
+     */
+    static int[] assignationAleatoire(ColonieCompilee colonie, SplittableRandom aleatoire) {
+        int m = colonie.getNombreRessources();
+        int[] ressources = new int[m];
+        for (int r = 0; r < m; r++) ressources[r] = r;
+        for (int i = m - 1; i > 0; i--) { // Mélange de Fisher-Yates
+            int j = aleatoire.nextInt(i + 1);
+            int temp = ressources[i];
+            ressources[i] = ressources[j];
+            ressources[j] = temp;
+        }
+        return Arrays.copyOf(ressources, colonie.getNombreColons());
+    }
+
+    /**
+     * Meilleure assignation trouvée par un ensemble de fils, mise à jour sous verrou.
+     */
+    private static class MeilleureSolution {
+        private final Controle controle; // Reçoit chaque amélioration
+        private final LongAdder termines = new LongAdder(); // Nombre de départs terminés
+        private volatile int jalousie = Integer.MAX_VALUE;
+        private int[] objets;
+
+        MeilleureSolution(Controle controle) {
+            this.controle = controle;
+        }
+
+        synchronized void proposer(Affectation affectation) {
+            if (affectation.getJalousie() < jalousie) {
+                objets = affectation.getObjets();
+                jalousie = affectation.getJalousie();
+                controle.signalerAmelioration(jalousie, termines.sum());
+            }
+        }
+
+        int getJalousie() {
+            return jalousie;
+        }
+
+        synchronized int[] getObjets() {
+            return objets;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package app;
+
+import java.util.SplittableRandom;
+
+/**
+ * Classe RecuitSimule : métaheuristique de recuit simulé sur les échanges de ressources, entre la recherche locale
+ * (qui s'arrête au premier optimum local) et la recherche exacte (exponentielle).
+ * Un mouvement échange les objets de deux colons, ou l'objet d'un colon avec une ressource libre. Il est évalué en
+ * O(deg) grâce à Affectation, puis conservé ou annulé selon le critère de Metropolis. La température décroît
+ * géométriquement avec le temps écoulé, jusqu'à l'échéance du contrôle.
+ */
+public class RecuitSimule {
+    private static final double TEMPERATURE_INITIALE = 2.0; // Une hausse de 1 est alors acceptée environ 6 fois sur 10
+    private static final double TEMPERATURE_FINALE = 0.05; // Une hausse de 1 n'est alors presque plus acceptée
+    private static final int ITERATIONS_PAR_MESURE = 4096; // Nombre de mouvements entre deux lectures de l'horloge
+    private static final long DUREE_SANS_ECHEANCE = 1000; // Durée du refroidissement sans échéance, en millisecondes
+
+    private final ColonieCompilee colonie;
+    private final SplittableRandom aleatoire;
+    private long iterations; // Nombre de mouvements essayés lors de la dernière résolution
+
+    /**
+     * Constructeur de la classe RecuitSimule.
+     * @param colonie la colonie compilée, qui doit avoir au moins autant de ressources que de colons.
+     * @param graine la graine du générateur aléatoire, pour pouvoir reproduire une exécution.
+     */
+    public RecuitSimule(ColonieCompilee colonie, long graine) {
+        this.colonie = colonie;
+        this.aleatoire = new SplittableRandom(graine);
+    }
+
+    /**
+     * Améliore une assignation par recuit simulé jusqu'à l'échéance, ou jusqu'à ce qu'aucun colon ne soit jaloux.
+     * @param solutionInitiale une assignation complète, où chaque ressource est attribuée au plus une fois.
+     * @param dureeMillis le temps de calcul accordé, en millisecondes.
+     * @return la meilleure assignation rencontrée.
+     */
+    public int[] resoudre(int[] solutionInitiale, long dureeMillis) {
+        return resoudre(solutionInitiale, new Controle(Math.max(1, dureeMillis)));
+    }
+
+    /**
+     * Améliore une assignation par recuit simulé. Le refroidissement s'étale jusqu'à l'échéance du contrôle
+     * (ou sur une durée fixe sans échéance), et la recherche s'arrête plus tôt si le contrôle est annulé ou
+     * si aucun colon n'est jaloux.
+     * @param solutionInitiale une assignation complète, où chaque ressource est attribuée au plus une fois.
+     * @param controle l'échéance, l'annulation et l'écouteur de la recherche.
+     * @return la meilleure assignation rencontrée.
+     */
+    public int[] resoudre(int[] solutionInitiale, Controle controle) {
+        int n = colonie.getNombreColons();
+        int m = colonie.getNombreRessources();
+        Affectation affectation = new Affectation(colonie, solutionInitiale);
+        int[] meilleureAssignation = affectation.getObjets();
+        int meilleureJalousie = affectation.getJalousie();
+        iterations = 0;
+        controle.signalerAmelioration(meilleureJalousie, 0);
+        if (n == 0 || m < 2) return meilleureAssignation; // Aucun mouvement possible
+
+        // Ressources attribuées à aucun colon : la position n + i d'un mouvement désigne libres[i]
+        int[] libres = new int[m - n];
+        boolean[] prise = new boolean[m];
+        for (int objet : solutionInitiale) prise[objet] = true;
+        for (int r = 0, i = 0; r < m; r++) {
+            if (!prise[r]) libres[i++] = r;
+        }
+
+        long debut = System.nanoTime();
+        long duree = controle.aUneEcheance() ? Math.max(1, controle.getTempsRestantNanos())
+                : DUREE_SANS_ECHEANCE * 1_000_000L;
+        double temperature = TEMPERATURE_INITIALE;
+        while (meilleureJalousie > 0) {
+            if (iterations % ITERATIONS_PAR_MESURE == 0) { // Mise à jour de la température selon le temps écoulé
+                double avancement = (double) (System.nanoTime() - debut) / duree;
+                if (avancement >= 1 || controle.doitArreter()) break;
+                temperature = TEMPERATURE_INITIALE * Math.pow(TEMPERATURE_FINALE / TEMPERATURE_INITIALE, avancement);
+            }
+            iterations++;
+
+            int a = aleatoire.nextInt(n);
+            int b = aleatoire.nextInt(m);
+            if (a == b) continue;
+            int jalousieAvant = affectation.getJalousie();
+            int ancienObjet = affectation.getObjet(a);
+            if (b < n) {
+                affectation.echanger(a, b);
+            } else {
+                affectation.affecter(a, libres[b - n]);
+            }
+
+            int delta = affectation.getJalousie() - jalousieAvant;
+            if (delta <= 0 || aleatoire.nextDouble() < Math.exp(-delta / temperature)) { // Critère de Metropolis
+                if (b >= n) libres[b - n] = ancienObjet; // L'ancien objet du colon devient libre
+                if (affectation.getJalousie() < meilleureJalousie) {
+                    meilleureJalousie = affectation.getJalousie();
+                    meilleureAssignation = affectation.getObjets();
+                    controle.signalerAmelioration(meilleureJalousie, iterations);
+                }
+            } else if (b < n) { // Annule le mouvement refusé
+                affectation.echanger(a, b);
+            } else {
+                affectation.affecter(a, ancienObjet);
+            }
+        }
+        return meilleureAssignation;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+}
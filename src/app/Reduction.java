@@ -0,0 +1,72 @@
+package app;
+
+import java.util.Arrays;
+
+/**
+ * Classe Reduction : étape de présolution qui réduit la colonie avant de la confier à un autre solveur.
+ * Un colon sans relation n'est jamais compté comme jaloux et ne rend personne jaloux : il ne fait que prendre une
+ * ressource. Ces colons sont retirés, le solveur résout le cœur restant avec toutes les ressources, puis chacun
+ * des colons retirés reçoit, dans l'ordre, sa ressource préférée parmi celles qui restent. Le nombre de colons
+ * jaloux est le même que celui du cœur, et une solution optimale du cœur donne une solution optimale de la colonie,
+ * alors que le cœur évite à la recherche exacte d'énumérer les ressources des colons retirés.
+ */
+public class Reduction implements Solveur {
+    private final Solveur solveur; // Solveur appliqué au cœur de la colonie
+
+    /**
+     * Constructeur de la classe Reduction.
+     * @param solveur le solveur appliqué à la colonie réduite.
+     */
+    public Reduction(Solveur solveur) {
+        this.solveur = solveur;
+    }
+
+    @Override
+    public Solution resoudre(ColonieCompilee colonie, Controle controle) {
+        int n = colonie.getNombreColons();
+        int[] debutVoisins = colonie.getDebutVoisins();
+        int taille = 0;
+        for (int c = 0; c < n; c++) {
+            if (debutVoisins[c + 1] > debutVoisins[c]) taille++;
+        }
+        if (taille == n) return solveur.resoudre(colonie, controle); // Rien à retirer
+
+        int[] coeur = new int[taille];
+        for (int c = 0, i = 0; c < n; c++) {
+            if (debutVoisins[c + 1] > debutVoisins[c]) coeur[i++] = c;
+        }
+        Solution solutionCoeur = taille == 0 ? null : solveur.resoudre(colonie.restreindre(coeur), controle);
+
+        // Reporte la solution du cœur, puis complète avec les colons retirés
+        int m = colonie.getNombreRessources();
+        int[] objets = new int[n];
+        boolean[] prise = new boolean[m];
+        Arrays.fill(objets, -1);
+        if (solutionCoeur != null) {
+            int[] objetsCoeur = solutionCoeur.getObjets();
+            for (int i = 0; i < taille; i++) {
+                objets[coeur[i]] = objetsCoeur[i];
+                if (objetsCoeur[i] >= 0) prise[objetsCoeur[i]] = true;
+            }
+        }
+        int[] curseur = new int[1];
+        for (int c = 0; c < n; c++) {
+            if (debutVoisins[c + 1] > debutVoisins[c]) continue;
+            objets[c] = colonie.ressourceLibrePreferee(c, prise, curseur); // Premier choix encore disponible
+            if (objets[c] >= 0) prise[objets[c]] = true;
+        }
+
+        int jalousie = colonie.calculerJalousie(objets);
+        if (solutionCoeur == null) {
+            controle.signalerAmelioration(jalousie, 0);
+            return new Solution(objets, jalousie, true, 0, controle.getTempsEcouleMillis());
+        }
+        return new Solution(objets, jalousie, solutionCoeur.estOptimale(), solutionCoeur.getIterations(),
+                controle.getTempsEcouleMillis());
+    }
+
+    @Override
+    public String toString() { // Nom stable, par exemple pour CacheSolutions
+        return "Reduction(" + solveur + ")";
+    }
+}
@@ -0,0 +1,653 @@
+package app;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Classe ServiceSolveur : service de résolution de longue durée, qui garde la machine virtuelle et le code compilé à
+ * la volée entre les requêtes. Les requêtes sont lues ligne par ligne sur l'entrée standard ou sur une socket locale,
+ * sous l'une de deux formes :
+ * - le format du fichier texte, terminé par une ligne "resoudre." ou "resoudre(algorithme,duree,graine)."
+ *   (paramètres facultatifs, dans cet ordre ; la fin de l'entrée termine aussi la dernière requête) ;
+ * - un objet JSON sur une seule ligne, par exemple
+ *   {"id":1,"algorithme":"recuit","duree":500,"graine":7,"colonie":"colon(A).\ncolon(B).\n..."}.
+ * Les requêtes d'une connexion sont résolues en parallèle sur un nombre borné de fils, partagés par toutes les
+ * connexions, et chaque réponse est envoyée dès qu'elle est prête, dans l'ordre des requêtes et au format de sa
+ * requête : les lignes "nom:objet" suivies de "jalousie(jalousie,optimale,temps_ms)." ou une ligne
+ * "erreur(message).", ou un objet JSON {"id":1,"jalousie":0,"optimale":true,"temps_ms":3,"affectation":{...}}
+ * ou {"id":1,"erreur":"..."}.
+ * Sur une socket, la fermeture de la connexion par le client annule ses requêtes sans réponse, y compris les
+ * résolutions en cours : un client attend ses réponses avant de fermer.
+ */
+public class ServiceSolveur {
+    private static final int REQUETES_EN_ATTENTE = 64; // Requêtes lues d'avance par connexion avant d'attendre les réponses
+
+    private final Algorithme algorithme;
+    private final long dureeMillis;
+    private final ExecutorService executeur;
+    private final Set<Requete> enCours = ConcurrentHashMap.newKeySet(); // Requêtes soumises et non terminées
+    private CacheSolutions cache; // Solutions déjà trouvées, ou null
+
+    /**
+     * Constructeur de la classe ServiceSolveur.
+     * @param algorithme l'algorithme des requêtes qui n'en précisent pas.
+     * @param dureeMillis la durée des requêtes qui n'en précisent pas, en millisecondes, ou 0 pour aucune échéance.
+     * @param fils le nombre de requêtes résolues en même temps, toutes connexions confondues.
+     * @throws IllegalArgumentException si la durée est négative ou le nombre de fils inférieur à 1.
+     */
+    public ServiceSolveur(Algorithme algorithme, long dureeMillis, int fils) {
+        if (dureeMillis < 0) {
+            throw new IllegalArgumentException("La durée ne peut pas être négative.");
+        }
+        if (fils < 1) {
+            throw new IllegalArgumentException("Le nombre de fils doit être au moins 1.");
+        }
+        this.algorithme = algorithme;
+        this.dureeMillis = dureeMillis;
+        this.executeur = Executors.newFixedThreadPool(fils, tache -> {
+            Thread fil = new Thread(tache, "service-resolution");
+            fil.setDaemon(true);
+            return fil;
+        });
+    }
+
+    /**
+     * Résout des colonies aléatoires pendant la durée donnée, pour que la lecture et l'algorithme par défaut soient
+     * compilés avant la première requête.
+     * @param dureeMillis la durée du préchauffage, en millisecondes.
+     */
+    public void prechauffer(long dureeMillis) {
+        long fin = System.nanoTime() + dureeMillis * 1_000_000;
+        Random aleatoire = new Random(0);
+        while (System.nanoTime() < fin) {
+            int n = 50 + aleatoire.nextInt(100);
+            StringBuilder texte = new StringBuilder();
+            for (int c = 0; c < n; c++) texte.append("colon(c").append(c).append(").\n");
+            for (int r = 0; r < n; r++) texte.append("ressource(r").append(r).append(").\n");
+            for (int c = 0; c < n; c++) {
+                for (int d = c + 1; d < n; d++) {
+                    if (aleatoire.nextInt(20) == 0) texte.append("deteste(c").append(c).append(",c").append(d).append(").\n");
+                }
+            }
+            List<Integer> ordre = new ArrayList<>();
+            for (int r = 0; r < n; r++) ordre.add(r);
+            for (int c = 0; c < n; c++) {
+                Collections.shuffle(ordre, aleatoire);
+                texte.append("preferences(c").append(c);
+                for (int r : ordre) texte.append(",r").append(r);
+                texte.append(").\n");
+            }
+            long restant = (fin - System.nanoTime()) / 1_000_000;
+            repondre(new Requete(), texte.toString(), "resoudre(" + algorithme + "," + Math.max(1, Math.min(100, restant)) + ").");
+        }
+    }
+
+    /**
+     * Lit les requêtes d'une connexion jusqu'à la fin de l'entrée et y répond, dans l'ordre, au fur et à mesure.
+     * Au plus REQUETES_EN_ATTENTE requêtes sont lues d'avance : au-delà, la lecture attend les réponses.
+     * @param entree le flux des requêtes.
+     * @param sortie le flux des réponses, vidé après chaque réponse.
+     * @throws IOException si l'entrée ne peut pas être lue.
+     */
+    public void servir(InputStream entree, OutputStream sortie) throws IOException {
+        servir(entree, sortie, false);
+    }
+
+    /**
+     * Lit et sert les requêtes d'une connexion.
+     * @param annulerALaFin si vrai, la fin de l'entrée est le départ du client : ses requêtes sans réponse sont
+     *                      annulées au lieu d'être attendues, et une dernière requête non terminée est ignorée.
+     */
+    private void servir(InputStream entree, OutputStream sortie, boolean annulerALaFin) throws IOException {
+        BufferedReader lecteur = new BufferedReader(new InputStreamReader(entree, StandardCharsets.UTF_8));
+        Writer ecrivain = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8));
+        BlockingQueue<Requete> reponses = new ArrayBlockingQueue<>(REQUETES_EN_ATTENTE);
+        Set<Requete> sansReponse = ConcurrentHashMap.newKeySet(); // Requêtes de la connexion pas encore envoyées
+        Thread envoi = new Thread(() -> envoyer(reponses, sansReponse, ecrivain), "service-envoi");
+        envoi.setDaemon(true);
+        envoi.start();
+        try {
+            StringBuilder texte = new StringBuilder();
+            boolean vide = true; // Aucune ligne non vide dans la requête texte en cours
+            String ligne;
+            while ((ligne = lecteur.readLine()) != null) {
+                String contenu = ligne.strip();
+                if (vide && contenu.startsWith("{")) {
+                    reponses.put(soumettre(sansReponse, requete -> repondreJson(requete, contenu)));
+                }
+                else if (contenu.equals("resoudre.") || contenu.startsWith("resoudre(")) {
+                    String colonie = texte.toString();
+                    reponses.put(soumettre(sansReponse, requete -> repondre(requete, colonie, contenu)));
+                    texte.setLength(0);
+                    vide = true;
+                }
+                else {
+                    texte.append(ligne).append('\n');
+                    vide &= contenu.isEmpty();
+                }
+            }
+            if (annulerALaFin) {
+                for (Requete requete : sansReponse) requete.annuler();
+            } else if (!vide) {
+                String colonie = texte.toString();
+                reponses.put(soumettre(sansReponse, requete -> repondre(requete, colonie, "resoudre.")));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Service interrompu.");
+        } finally {
+            try {
+                reponses.put(Requete.FIN);
+                envoi.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Soumet une requête aux fils de résolution ; elle reste dans enCours et sansReponse jusqu'à sa fin ou son envoi
+    private Requete soumettre(Set<Requete> sansReponse, Function<Requete, String> reponse) {
+        Requete requete = new Requete();
+        sansReponse.add(requete);
+        enCours.add(requete);
+        synchronized (requete) {
+            requete.reponse = executeur.submit(() -> {
+                try {
+                    return reponse.apply(requete);
+                } finally {
+                    enCours.remove(requete);
+                }
+            });
+        }
+        return requete;
+    }
+
+    /**
+     * Envoie les réponses dans l'ordre des requêtes, jusqu'à FIN. Si le client ne lit plus, les requêtes restantes
+     * sont annulées, et leurs résolutions arrêtées.
+     */
+    private static void envoyer(BlockingQueue<Requete> reponses, Set<Requete> sansReponse, Writer ecrivain) {
+        boolean ouvert = true;
+        while (true) {
+            Requete requete;
+            try {
+                requete = reponses.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (requete == Requete.FIN) break;
+            if (!ouvert) {
+                requete.annuler();
+                sansReponse.remove(requete);
+                continue;
+            }
+            try {
+                ecrivain.write(requete.reponse.get());
+                ecrivain.flush();
+            } catch (IOException e) {
+                ouvert = false;
+            } catch (InterruptedException | ExecutionException | CancellationException e) {
+                // repondre() rattrape les erreurs de résolution : seule l'annulation arrive ici
+                ouvert = false;
+            }
+            sansReponse.remove(requete);
+        }
+        try {
+            ecrivain.flush();
+        } catch (IOException e) {
+            // Le client est déjà parti
+        }
+    }
+
+    /**
+     * Répond à une requête au format du fichier texte.
+     * @param requete la requête, qui reçoit le contrôle de sa résolution.
+     * @param colonie les lignes de la colonie.
+     * @param resoudre la ligne "resoudre." ou "resoudre(algorithme,duree,graine)." qui termine la requête.
+     * @return les lignes "nom:objet" et la ligne de jalousie, ou la ligne d'erreur.
+     */
+    private String repondre(Requete requete, String colonie, String resoudre) {
+        try {
+            if (!resoudre.endsWith(".")) {
+                throw new IllegalArgumentException("Ligne de résolution invalide : " + resoudre);
+            }
+            String parametres = resoudre.substring("resoudre".length(), resoudre.length() - 1);
+            String[] valeurs = {};
+            if (!parametres.isEmpty()) {
+                if (!parametres.startsWith("(") || !parametres.endsWith(")")) {
+                    throw new IllegalArgumentException("Ligne de résolution invalide : " + resoudre);
+                }
+                valeurs = parametres.substring(1, parametres.length() - 1).split(",", -1);
+                if (valeurs.length > 3) {
+                    throw new IllegalArgumentException("Trop de paramètres de résolution : " + resoudre);
+                }
+            }
+            Algorithme choisi = valeurs.length > 0 ? algorithme(valeurs[0].strip()) : algorithme;
+            long duree = valeurs.length > 1 ? Long.parseLong(valeurs[1].strip()) : dureeMillis;
+            long graine = valeurs.length > 2 ? Long.parseLong(valeurs[2].strip()) : 0;
+            Resultat resultat = resoudre(requete, colonie, choisi, duree, graine);
+
+            StringBuilder reponse = new StringBuilder();
+            for (int c = 0; c < resultat.compilee.getNombreColons(); c++) {
+                reponse.append(resultat.compilee.getNomColon(c)).append(':')
+                        .append(resultat.compilee.getNomRessource(resultat.solution.getObjets()[c])).append('\n');
+            }
+            return reponse.append("jalousie(").append(resultat.solution.getJalousie()).append(',')
+                    .append(resultat.solution.estOptimale()).append(',').append(resultat.tempsMillis).append(").\n")
+                    .toString();
+        } catch (Exception e) {
+            return "erreur(" + String.valueOf(e.getMessage()).replace('\n', ' ').replace('\r', ' ') + ").\n";
+        }
+    }
+
+    /**
+     * Répond à une requête JSON d'une ligne.
+     * @return la réponse JSON d'une ligne.
+     */
+    private String repondreJson(Requete requete, String ligne) {
+        Object id = null;
+        try {
+            Map<String, Object> champs = new LecteurJson(ligne).objet();
+            id = champs.get("id");
+            for (String nom : champs.keySet()) {
+                if (!List.of("id", "algorithme", "duree", "graine", "colonie").contains(nom)) {
+                    throw new IllegalArgumentException("Champ inconnu : " + nom + ".");
+                }
+            }
+            if (!(champs.get("colonie") instanceof String)) {
+                throw new IllegalArgumentException("Le champ colonie doit contenir le texte de la colonie.");
+            }
+            String colonie = (String) champs.get("colonie");
+            Algorithme choisi = champs.containsKey("algorithme") ? algorithme(texte(champs, "algorithme")) : algorithme;
+            long duree = champs.containsKey("duree") ? entier(champs, "duree") : dureeMillis;
+            long graine = champs.containsKey("graine") ? entier(champs, "graine") : 0;
+            Resultat resultat = resoudre(requete, colonie, choisi, duree, graine);
+
+            StringBuilder reponse = new StringBuilder("{\"id\":");
+            ecrireJson(reponse, id);
+            reponse.append(",\"jalousie\":").append(resultat.solution.getJalousie())
+                    .append(",\"optimale\":").append(resultat.solution.estOptimale())
+                    .append(",\"temps_ms\":").append(resultat.tempsMillis).append(",\"affectation\":{");
+            for (int c = 0; c < resultat.compilee.getNombreColons(); c++) {
+                if (c > 0) reponse.append(',');
+                ecrireJson(reponse, resultat.compilee.getNomColon(c));
+                reponse.append(':');
+                ecrireJson(reponse, resultat.compilee.getNomRessource(resultat.solution.getObjets()[c]));
+            }
+            return reponse.append("}}\n").toString();
+        } catch (Exception e) {
+            StringBuilder reponse = new StringBuilder("{\"id\":");
+            ecrireJson(reponse, id);
+            reponse.append(",\"erreur\":");
+            ecrireJson(reponse, String.valueOf(e.getMessage()));
+            return reponse.append("}\n").toString();
+        }
+    }
+
+    // Solution d'une requête, avec la vue compilée qui donne les noms de ses colons et de ses ressources
+    private static class Resultat {
+        final ColonieCompilee compilee;
+        final Solution solution;
+        final long tempsMillis;
+
+        Resultat(ColonieCompilee compilee, Solution solution, long tempsMillis) {
+            this.compilee = compilee;
+            this.solution = solution;
+            this.tempsMillis = tempsMillis;
+        }
+    }
+
+    // Requête soumise aux fils de résolution : sa réponse à venir et le contrôle de sa résolution, pour l'arrêter
+    private static class Requete {
+        static final Requete FIN = new Requete(); // Fin des requêtes d'une connexion
+
+        volatile Future<String> reponse;
+        private Controle controle; // Contrôle de la résolution, null tant qu'elle n'a pas commencé
+        private boolean annulee;
+
+        // Appelé au début de la résolution : le contrôle est annulé tout de suite si la requête l'a déjà été
+        synchronized void suivre(Controle controle) {
+            this.controle = controle;
+            if (annulee) controle.annuler();
+        }
+
+        // Abandonne la réponse et arrête la résolution au prochain contrôle, qu'elle soit en attente ou en cours
+        synchronized void annuler() {
+            annulee = true;
+            if (reponse != null) reponse.cancel(false);
+            if (controle != null) controle.annuler();
+        }
+    }
+
+    private Resultat resoudre(Requete requete, String texte, Algorithme choisi, long duree, long graine) {
+        if (duree < 0) {
+            throw new IllegalArgumentException("La durée ne peut pas être négative.");
+        }
+        long debut = System.nanoTime();
+        Colonie colonie = new Colonie();
+        colonie.chargerTexte(texte);
+        Controle controle = duree > 0 ? new Controle(duree) : new Controle();
+        controle.setGraine(graine);
+        requete.suivre(controle);
+        boolean exact = choisi == Algorithme.EXACT || choisi == Algorithme.EXACT_PARALLELE;
+        Solveur solveur = exact ? new Reduction(choisi) : choisi;
+        Solution solution = colonie.resoudre(cache != null ? cache.devant(solveur) : solveur, controle);
+        return new Resultat(colonie.compiler(), solution, (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    // Algorithme à partir de son nom en ligne de commande, par exemple multi-depart
+    private static Algorithme algorithme(String nom) {
+        try {
+            return Algorithme.valueOf(nom.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Algorithme inconnu : " + nom + ".");
+        }
+    }
+
+    private static String texte(Map<String, Object> champs, String nom) {
+        if (!(champs.get(nom) instanceof String)) {
+            throw new IllegalArgumentException("Le champ " + nom + " doit être une chaîne.");
+        }
+        return (String) champs.get(nom);
+    }
+
+    private static long entier(Map<String, Object> champs, String nom) {
+        if (!(champs.get(nom) instanceof Long)) {
+            throw new IllegalArgumentException("Le champ " + nom + " doit être un entier.");
+        }
+        return (Long) champs.get(nom);
+    }
+
+    // Écrit une chaîne, un nombre, un booléen ou null en JSON
+    private static void ecrireJson(StringBuilder sb, Object valeur) {
+        if (!(valeur instanceof String)) {
+            sb.append(valeur);
+            return;
+        }
+        String chaine = (String) valeur;
+        sb.append('"');
+        for (int i = 0; i < chaine.length(); i++) {
+            char c = chaine.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < ' ') sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Lecteur d'un objet JSON plat : ses valeurs sont des chaînes, des nombres, des booléens ou null.
+     * Les entiers sont lus en Long et les autres nombres en Double.
+     */
+    private static class LecteurJson {
+        private final String texte;
+        private int position;
+
+        LecteurJson(String texte) {
+            this.texte = texte;
+        }
+
+        Map<String, Object> objet() {
+            Map<String, Object> champs = new LinkedHashMap<>();
+            attendre('{');
+            if (!suivant('}')) {
+                do {
+                    espaces();
+                    String nom = chaine();
+                    attendre(':');
+                    if (champs.put(nom, valeur()) != null) {
+                        throw erreur("champ " + nom + " en double");
+                    }
+                } while (suivant(','));
+                attendre('}');
+            }
+            espaces();
+            if (position < texte.length()) throw erreur("texte après l'objet");
+            return champs;
+        }
+
+        private Object valeur() {
+            espaces();
+            if (position >= texte.length()) throw erreur("valeur attendue");
+            char c = texte.charAt(position);
+            if (c == '"') return chaine();
+            if (texte.startsWith("true", position)) {
+                position += 4;
+                return true;
+            }
+            if (texte.startsWith("false", position)) {
+                position += 5;
+                return false;
+            }
+            if (texte.startsWith("null", position)) {
+                position += 4;
+                return null;
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) return nombre();
+            throw erreur("valeur invalide (seuls les chaînes, nombres, booléens et null sont acceptés)");
+        }
+
+        private String chaine() {
+            if (position >= texte.length() || texte.charAt(position) != '"') throw erreur("chaîne attendue");
+            StringBuilder sb = new StringBuilder();
+            position++;
+            while (true) {
+                if (position >= texte.length()) throw erreur("chaîne non terminée");
+                char c = texte.charAt(position++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (position >= texte.length()) throw erreur("chaîne non terminée");
+                char echappe = texte.charAt(position++);
+                switch (echappe) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (position + 4 > texte.length()) throw erreur("séquence \\u incomplète");
+                        try {
+                            sb.append((char) Integer.parseInt(texte.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw erreur("séquence \\u invalide");
+                        }
+                        position += 4;
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append(echappe);
+                        break;
+                    default:
+                        throw erreur("séquence d'échappement invalide");
+                }
+            }
+        }
+
+        private Object nombre() {
+            int debut = position;
+            while (position < texte.length() && "+-0123456789.eE".indexOf(texte.charAt(position)) >= 0) position++;
+            String nombre = texte.substring(debut, position);
+            try {
+                if (nombre.matches("-?\\d+")) return Long.parseLong(nombre);
+                return Double.parseDouble(nombre);
+            } catch (NumberFormatException e) {
+                throw erreur("nombre invalide");
+            }
+        }
+
+        private void espaces() {
+            while (position < texte.length() && Character.isWhitespace(texte.charAt(position))) position++;
+        }
+
+        private boolean suivant(char attendu) {
+            espaces();
+            if (position < texte.length() && texte.charAt(position) == attendu) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void attendre(char attendu) {
+            if (!suivant(attendu)) throw erreur("'" + attendu + "' attendu");
+        }
+
+        private IllegalArgumentException erreur(String message) {
+            return new IllegalArgumentException("Requête JSON invalide (position " + position + ") : " + message + ".");
+        }
+    }
+
+    /**
+     * Sert les connexions d'une socket locale jusqu'à sa fermeture, chacune dans son propre fil.
+     * @param serveur la socket d'écoute, par exemple ouverte par ouvrir().
+     * @throws IOException si l'acceptation d'une connexion échoue.
+     */
+    public void ecouter(ServerSocketChannel serveur) throws IOException {
+        while (serveur.isOpen()) {
+            SocketChannel client = serveur.accept();
+            Thread session = new Thread(() -> {
+                try (client) {
+                    servir(entree(client), sortie(client), true);
+                } catch (IOException e) {
+                    System.err.println("Connexion interrompue : " + e.getMessage());
+                }
+            }, "service-connexion");
+            session.setDaemon(true);
+            session.start();
+        }
+    }
+
+    // Flux d'une connexion, lue et écrite en même temps par deux fils. Ceux de Channels.newInputStream() et
+    // newOutputStream() partagent un verrou de la socket jusqu'au JDK 18 : une lecture en attente bloquerait l'envoi.
+    private static InputStream entree(SocketChannel canal) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] octet = new byte[1];
+                return read(octet, 0, 1) < 0 ? -1 : octet[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] octets, int debut, int longueur) throws IOException {
+                return longueur == 0 ? 0 : canal.read(ByteBuffer.wrap(octets, debut, longueur));
+            }
+        };
+    }
+
+    private static OutputStream sortie(SocketChannel canal) {
+        return new OutputStream() {
+            @Override
+            public void write(int octet) throws IOException {
+                write(new byte[] {(byte) octet}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] octets, int debut, int longueur) throws IOException {
+                ByteBuffer tampon = ByteBuffer.wrap(octets, debut, longueur);
+                while (tampon.hasRemaining()) canal.write(tampon);
+            }
+        };
+    }
+
+    /**
+     * Ouvre une socket d'écoute locale : une socket Unix si le chemin est donné, sinon un port TCP de l'adresse de
+     * bouclage, qui n'est pas joignable depuis une autre machine.
+     * @param chemin le chemin de la socket Unix, ou null.
+     * @param port le port TCP, utilisé si le chemin est null.
+     * @return la socket d'écoute.
+     * @throws IOException si la socket ne peut pas être ouverte, notamment si un service écoute déjà sur le chemin.
+     */
+    public static ServerSocketChannel ouvrir(Path chemin, int port) throws IOException {
+        if (chemin == null) {
+            return ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        }
+        UnixDomainSocketAddress adresse = UnixDomainSocketAddress.of(chemin);
+        if (Files.exists(chemin)) { // Reste d'un service arrêté, sauf si un service y répond encore
+            boolean actif;
+            try {
+                SocketChannel.open(adresse).close();
+                actif = true;
+            } catch (IOException e) {
+                actif = false;
+            }
+            if (actif) {
+                throw new IOException("Un service écoute déjà sur " + chemin + ".");
+            }
+            Files.delete(chemin);
+        }
+        ServerSocketChannel serveur = ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(adresse);
+        chemin.toFile().deleteOnExit();
+        return serveur;
+    }
+
+    /**
+     * Place un cache devant les solveurs des requêtes : une colonie déjà résolue est servie sans nouvelle recherche.
+     * @param cache le cache, éventuellement partagé, ou null pour résoudre chaque requête.
+     */
+    public void setCache(CacheSolutions cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Annule les requêtes en attente et en cours, dont les résolutions s'arrêtent à leur prochain contrôle, et libère
+     * les fils du service. Les connexions servies n'attendent plus les réponses annulées.
+     */
+    public void fermer() {
+        executeur.shutdownNow();
+        for (Requete requete : enCours) requete.annuler();
+        enCours.clear();
+    }
+
+    /**
+     * Attend la fin des résolutions après fermer().
+     * @param dureeMillis le temps d'attente maximal, en millisecondes.
+     * @return true si tous les fils du service sont libérés.
+     * @throws InterruptedException si l'attente est interrompue.
+     */
+    public boolean attendreArret(long dureeMillis) throws InterruptedException {
+        return executeur.awaitTermination(dureeMillis, TimeUnit.MILLISECONDS);
+    }
+}
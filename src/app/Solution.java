@@ -0,0 +1,50 @@
+package app;
+
+/**
+ * Classe Solution : résultat d'un solveur, avec l'assignation trouvée et des informations sur la recherche.
+ */
+public class Solution {
+    private final int[] objets; // Identifiant de la ressource de chaque colon, ou -1
+    private final int jalousie; // Nombre de colons jaloux de l'assignation
+    private final boolean optimale; // Vrai si l'assignation est prouvée optimale
+    private final long iterations; // Nombre d'itérations, dans l'unité propre au solveur
+    private final long tempsMillis; // Temps écoulé depuis la création du contrôle
+
+    /**
+     * Constructeur de la classe Solution.
+     * @param objets l'identifiant de la ressource de chaque colon, ou -1.
+     * @param jalousie le nombre de colons jaloux de l'assignation.
+     * @param optimale vrai si l'assignation est prouvée optimale.
+     * @param iterations le nombre d'itérations du solveur (balayages, mouvements, nœuds ou permutations).
+     * @param tempsMillis le temps de calcul, en millisecondes.
+     */
+    public Solution(int[] objets, int jalousie, boolean optimale, long iterations, long tempsMillis) {
+        this.objets = objets;
+        this.jalousie = jalousie;
+        this.optimale = optimale;
+        this.iterations = iterations;
+        this.tempsMillis = tempsMillis;
+    }
+
+    public int[] getObjets() {
+        return objets.clone();
+    }
+    public int getJalousie() {
+        return jalousie;
+    }
+    public boolean estOptimale() {
+        return optimale;
+    }
+    public long getIterations() {
+        return iterations;
+    }
+    public long getTempsMillis() {
+        return tempsMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Jalousie: " + jalousie + (optimale ? " (optimale)" : "") + ", Itérations: " + iterations
+                + ", Temps: " + tempsMillis + " ms";
+    }
+}
@@ -0,0 +1,17 @@
+package app;
+
+/**
+ * Interface Solveur : algorithme d'assignation des ressources aux colons d'une colonie compilée.
+ * Un solveur est interruptible : il respecte l'échéance et l'annulation de son contrôle, et renvoie alors
+ * la meilleure assignation trouvée jusque-là.
+ */
+public interface Solveur {
+    /**
+     * Cherche une assignation qui minimise le nombre de colons jaloux.
+     * @param colonie la colonie compilée.
+     * @param controle l'échéance, l'annulation, l'écouteur de progression et la graine de la résolution.
+     * @return la meilleure assignation trouvée.
+     * @throws IllegalStateException si l'algorithme a besoin d'au moins autant de ressources que de colons.
+     */
+    Solution resoudre(ColonieCompilee colonie, Controle controle);
+}
@@ -0,0 +1,163 @@
+package app;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Classe TraitementParLots : résolution sans interaction d'un ensemble de fichiers de colonie, texte ou image.
+ * Les fichiers sont répartis sur un nombre borné de fils ; chaque colonie est résolue avec le même algorithme et
+ * la même durée, son assignation est écrite au format de enregistreFichier() dans le dossier de sortie, et une
+ * ligne de résumé séparée par des tabulations est écrite dès qu'un fichier est terminé :
+ * fichier, algorithme, jalousie, optimale, temps en millisecondes, statut ("ok" ou le message d'erreur).
+ * La solution d'un fichier garde son nom complet, extension comprise (x.txt donne x.txt.solution.txt) ; si deux
+ * fichiers de dossiers différents ont le même nom, seul le premier de la liste est résolu et l'autre est en erreur,
+ * plutôt que d'écraser sa solution.
+ */
+public class TraitementParLots {
+    static final String SUFFIXE_SOLUTION = ".solution.txt"; // Suffixe des fichiers de solution écrits
+
+    private final Algorithme algorithme;
+    private final long dureeMillis;
+    private final int fils;
+    private final Path sortie;
+    private long graine;
+
+    /**
+     * Constructeur de la classe TraitementParLots.
+     * @param algorithme l'algorithme appliqué à chaque colonie.
+     * @param dureeMillis le temps de calcul accordé à chaque colonie, en millisecondes, ou 0 pour aucune échéance.
+     * @param fils le nombre de colonies résolues en même temps.
+     * @param sortie le dossier où écrire les solutions, créé au besoin.
+     * @throws IllegalArgumentException si la durée est négative ou le nombre de fils inférieur à 1.
+     */
+    public TraitementParLots(Algorithme algorithme, long dureeMillis, int fils, Path sortie) {
+        if (dureeMillis < 0) {
+            throw new IllegalArgumentException("La durée ne peut pas être négative.");
+        }
+        if (fils < 1) {
+            throw new IllegalArgumentException("Le nombre de fils doit être au moins 1.");
+        }
+        this.algorithme = algorithme;
+        this.dureeMillis = dureeMillis;
+        this.fils = fils;
+        this.sortie = sortie;
+    }
+
+    /**
+     * Résout tous les fichiers et écrit leurs résumés, précédés d'une ligne d'en-tête.
+     * @param fichiers les fichiers de colonie à résoudre.
+     * @param resume le flux où écrire les résumés, une ligne par fichier dans l'ordre où ils se terminent.
+     * @return le nombre de fichiers en erreur.
+     * @throws IOException si le dossier de sortie ne peut pas être créé.
+     */
+    public int traiter(List<Path> fichiers, PrintStream resume) throws IOException {
+        Files.createDirectories(sortie);
+        resume.println("fichier\talgorithme\tjalousie\toptimale\ttemps_ms\tstatut");
+        AtomicInteger erreurs = new AtomicInteger();
+        ExecutorService executeur = Executors.newFixedThreadPool(Math.min(fils, Math.max(1, fichiers.size())));
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            Map<Path, Path> auteurs = new HashMap<>(); // Fichier de colonie qui écrit chaque fichier de solution
+            for (Path fichier : fichiers) {
+                Path solution = cheminSolution(fichier);
+                Path auteur = auteurs.putIfAbsent(solution.toAbsolutePath().normalize(), fichier);
+                taches.add(executeur.submit(() -> {
+                    String ligne = auteur == null ? resoudre(fichier, solution)
+                            : ligneErreur(fichier, System.nanoTime(), "solution " + solution.getFileName()
+                                    + " déjà écrite pour " + auteur);
+                    if (!ligne.endsWith("\tok")) erreurs.incrementAndGet();
+                    synchronized (resume) { // Une ligne entière à la fois
+                        resume.println(ligne);
+                    }
+                }));
+            }
+            for (Future<?> tache : taches) {
+                try {
+                    tache.get();
+                } catch (Exception e) { // resoudre() rattrape déjà les erreurs de chaque fichier
+                    erreurs.incrementAndGet();
+                }
+            }
+        } finally {
+            executeur.shutdownNow();
+        }
+        resume.flush();
+        return erreurs.get();
+    }
+
+    /**
+     * Charge, résout et enregistre une colonie.
+     * @param cible le fichier où écrire l'assignation trouvée.
+     * @return la ligne de résumé du fichier.
+     */
+    private String resoudre(Path fichier, Path cible) {
+        long debut = System.nanoTime();
+        try {
+            Colonie colonie = new Colonie();
+            if (ImageColonie.estImage(fichier)) {
+                colonie.chargerImage(fichier.toString());
+            } else {
+                colonie.chargerFichier(fichier.toString());
+            }
+            Controle controle = dureeMillis > 0 ? new Controle(dureeMillis) : new Controle();
+            controle.setGraine(graine);
+            boolean exact = algorithme == Algorithme.EXACT || algorithme == Algorithme.EXACT_PARALLELE;
+            Solution solution = colonie.resoudre(exact ? new Reduction(algorithme) : algorithme, controle);
+            colonie.enregistreFichier(cible.toString());
+            return fichier + "\t" + algorithme + "\t" + solution.getJalousie() + "\t" + solution.estOptimale() + "\t"
+                    + (System.nanoTime() - debut) / 1_000_000 + "\tok";
+        } catch (Exception e) {
+            return ligneErreur(fichier, debut, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private String ligneErreur(Path fichier, long debut, String message) {
+        return fichier + "\t" + algorithme + "\t-1\tfalse\t" + (System.nanoTime() - debut) / 1_000_000
+                + "\terreur : " + message.replace('\t', ' ').replace('\n', ' ');
+    }
+
+    // Fichier de solution : nom complet du fichier de colonie, suivi de SUFFIXE_SOLUTION
+    private Path cheminSolution(Path fichier) {
+        return sortie.resolve(fichier.getFileName() + SUFFIXE_SOLUTION);
+    }
+
+    public void setGraine(long graine) {
+        this.graine = graine;
+    }
+
+    /**
+     * Liste les fichiers à résoudre : chaque dossier donne ses fichiers (sans sous-dossier ni solution déjà écrite),
+     * par ordre alphabétique, et chaque fichier est repris tel quel.
+     * @param chemins des chemins de fichiers ou de dossiers.
+     * @return les fichiers de colonie.
+     * @throws IOException si un dossier ne peut pas être parcouru.
+     */
+    public static List<Path> listerFichiers(List<String> chemins) throws IOException {
+        List<Path> fichiers = new ArrayList<>();
+        for (String chemin : chemins) {
+            Path p = Path.of(chemin);
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> contenu = Files.list(p)) {
+                    contenu.filter(Files::isRegularFile)
+                            .filter(f -> !f.getFileName().toString().endsWith(SUFFIXE_SOLUTION))
+                            .sorted()
+                            .forEach(fichiers::add);
+                }
+            } else {
+                fichiers.add(p);
+            }
+        }
+        return fichiers;
+    }
+}
@@ -0,0 +1,112 @@
+package test;
+
+import app.Affectation;
+import app.Colonie;
+import app.ColonieCompilee;
+import app.RechercheLocale;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Classe de tests pour les classes Affectation et RechercheLocale.
+ */
+class AffectationTest {
+
+    // Construit une colonie aléatoire de n colons et n ressources, chaque couple étant en relation avec la probabilité donnée
+    static Colonie colonieAleatoire(int n, double densite, long graine) {
+        Random random = new Random(graine);
+        Colonie colonie = new Colonie();
+        colonie.setRessources(n);
+        for (int i = 0; i < n; i++) {
+            colonie.ajouterColon("c" + i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (random.nextDouble() < densite) colonie.ajouterRelation("c" + i, "c" + j);
+            }
+        }
+        List<String> preferences = new ArrayList<>();
+        for (int r = 1; r <= n; r++) {
+            preferences.add(String.valueOf(r));
+        }
+        for (int i = 0; i < n; i++) {
+            Collections.shuffle(preferences, random);
+            colonie.ajouterPreferences("c" + i, preferences);
+        }
+        return colonie;
+    }
+
+    @Test
+    void testJalousieIncrementaleIdentiqueAuCalculComplet() {
+        ColonieCompilee compilee = colonieAleatoire(30, 0.2, 1).compiler();
+        int[] objets = new int[30];
+        for (int c = 0; c < 30; c++) objets[c] = c;
+        Affectation affectation = new Affectation(compilee, objets);
+        assertEquals(compilee.calculerJalousie(objets), affectation.getJalousie());
+
+        Random random = new Random(2);
+        for (int essai = 0; essai < 2000; essai++) {
+            int a = random.nextInt(30);
+            int b = random.nextInt(30);
+            int prevue = affectation.evaluerEchange(a, b);
+            affectation.echanger(a, b);
+            int temp = objets[a];
+            objets[a] = objets[b];
+            objets[b] = temp;
+            assertEquals(compilee.calculerJalousie(objets), prevue);
+            assertEquals(prevue, affectation.getJalousie());
+        }
+        assertArrayEquals(objets, affectation.getObjets());
+    }
+
+    @Test
+    void testAffectationPartielle() {
+        ColonieCompilee compilee = colonieAleatoire(10, 0.5, 3).compiler();
+        Affectation affectation = new Affectation(compilee);
+        assertEquals(0, affectation.getJalousie());
+        for (int c = 0; c < 10; c++) affectation.affecter(c, c);
+        int complete = affectation.getJalousie();
+        affectation.liberer(4);
+        affectation.affecter(4, 4);
+        assertEquals(complete, affectation.getJalousie());
+        assertEquals(-1, new Affectation(compilee).getObjet(0));
+    }
+
+    @Test
+    void testDescenteOptimumLocal() {
+        ColonieCompilee compilee = colonieAleatoire(25, 0.15, 4).compiler();
+        int[] objets = new int[25];
+        for (int c = 0; c < 25; c++) objets[c] = c;
+        Affectation affectation = new Affectation(compilee, objets);
+        int initiale = affectation.getJalousie();
+        RechercheLocale.descente(affectation);
+        assertTrue(affectation.getJalousie() <= initiale);
+        for (int i = 0; i < 25; i++) {
+            for (int j = i + 1; j < 25; j++) {
+                assertTrue(affectation.evaluerEchange(i, j) >= affectation.getJalousie());
+            }
+        }
+    }
+
+    @Test
+    void testMultiDepart() {
+        ColonieCompilee compilee = colonieAleatoire(40, 0.15, 6).compiler();
+        int[] solution = RechercheLocale.multiDepart(compilee, 8, 5000, -1, 11);
+        boolean[] prise = new boolean[40];
+        for (int objet : solution) {
+            assertFalse(prise[objet]);
+            prise[objet] = true;
+        }
+        assertEquals(40, solution.length);
+    }
+
+    @Test
+    void testMultiDepartArretSurCible() throws Exception {
+        Colonie colonie = new Colonie();
+        colonie.chargerFichier("colonie.txt");
+        colonie.assignerObjetsMultiDepart(1_000_000, 10_000, 1, 5);
+        assertTrue(colonie.calculerColonsJaloux() <= 1);
+    }
+}
@@ -0,0 +1,167 @@
+package test;
+
+import app.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Classe de tests pour la classe CacheSolutions.
+ */
+class CacheSolutionsTest {
+    // "Aa" et "BB" ont le même hashCode : l'ordre de Colonie, et donc la numérotation, suit l'ordre d'ajout
+    private static final String COLONIE = "colon(Aa).\ncolon(BB).\ncolon(C).\n"
+            + "ressource(o1).\nressource(o2).\nressource(o3).\n"
+            + "deteste(Aa,BB).\n"
+            + "preferences(Aa,o1,o2,o3).\npreferences(BB,o1,o3,o2).\npreferences(C,o2,o1,o3).\n";
+    private static final String COLONIE_PERMUTEE = "colon(BB).\ncolon(C).\ncolon(Aa).\n"
+            + "ressource(o3).\nressource(o2).\nressource(o1).\n"
+            + "deteste(BB,Aa).\n"
+            + "preferences(C,o2,o1,o3).\npreferences(BB,o1,o3,o2).\npreferences(Aa,o1,o2,o3).\n";
+
+    private Path fichier;
+    private int appels; // Nombre d'appels au solveur placé derrière le cache
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fichier = Files.createTempFile("cache", ".bin");
+        appels = 0;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(fichier);
+    }
+
+    private static Colonie colonie(String texte) {
+        Colonie colonie = new Colonie();
+        colonie.chargerTexte(texte);
+        return colonie;
+    }
+
+    // Solveur local qui compte ses appels
+    private Solveur compte(Solveur solveur) {
+        return (colonie, controle) -> {
+            appels++;
+            return solveur.resoudre(colonie, controle);
+        };
+    }
+
+    @Test
+    void testEmpreinteCanonique() {
+        ColonieCompilee premiere = colonie(COLONIE).compiler();
+        ColonieCompilee permutee = colonie(COLONIE_PERMUTEE).compiler();
+        assertNotEquals(premiere.getNomColon(0), permutee.getNomColon(0)); // Numérotations différentes
+        assertEquals(CacheSolutions.empreinte(premiere), CacheSolutions.empreinte(permutee));
+        assertEquals(64, CacheSolutions.empreinte(premiere).length());
+
+        String autre = COLONIE.replace("deteste(Aa,BB).", "deteste(Aa,C).");
+        assertNotEquals(CacheSolutions.empreinte(premiere), CacheSolutions.empreinte(colonie(autre).compiler()));
+        autre = COLONIE.replace("preferences(C,o2,o1,o3)", "preferences(C,o2,o3,o1)");
+        assertNotEquals(CacheSolutions.empreinte(premiere), CacheSolutions.empreinte(colonie(autre).compiler()));
+    }
+
+    @Test
+    void testSolutionServieSurUneAutreNumerotation() {
+        CacheSolutions cache = new CacheSolutions(100);
+        Solveur solveur = cache.devant(compte(Algorithme.EXACT));
+        Solution premiere = colonie(COLONIE).resoudre(solveur, new Controle());
+        Colonie permutee = colonie(COLONIE_PERMUTEE);
+        Solution servie = permutee.resoudre(solveur, new Controle());
+        assertEquals(1, appels);
+        assertEquals(1, cache.getSucces());
+        assertEquals(1, cache.getEchecs());
+        assertEquals(premiere.getJalousie(), servie.getJalousie());
+        assertTrue(servie.estOptimale());
+        assertEquals(0, servie.getIterations());
+        // L'assignation servie est valide dans la numérotation de la seconde colonie
+        assertEquals(servie.getJalousie(), permutee.calculerColonsJaloux());
+        assertEquals(servie.getJalousie(), permutee.compiler().calculerJalousie(servie.getObjets()));
+    }
+
+    @Test
+    void testSolveurs() {
+        CacheSolutions cache = new CacheSolutions(100);
+        Solveur naif = cache.devant(compte(Algorithme.NAIF));
+        Solveur exact = cache.devant(compte(Algorithme.EXACT));
+        colonie(COLONIE).resoudre(naif, new Controle());
+        colonie(COLONIE).resoudre(naif, new Controle());
+        assertEquals(1, appels); // Même solveur : servi
+
+        Solution optimale = colonie(COLONIE).resoudre(exact, new Controle());
+        assertEquals(2, appels); // La solution du solveur naïf n'est pas prouvée optimale
+        assertTrue(optimale.estOptimale());
+        Solution servie = colonie(COLONIE).resoudre(naif, new Controle());
+        assertEquals(2, appels); // Solution optimale servie à tous les solveurs
+        assertEquals(optimale.getJalousie(), servie.getJalousie());
+        assertEquals(1, cache.getNombreEntrees());
+    }
+
+    @Test
+    void testTempsDeCalcul() throws IOException {
+        CacheSolutions cache = new CacheSolutions(100);
+        Solveur compte = compte(Algorithme.NAIF); // Le cache reconnaît le solveur à son nom
+        Solveur naif = cache.devant(compte);
+        colonie(COLONIE).resoudre(naif, new Controle(10));
+        colonie(COLONIE).resoudre(naif, new Controle(10_000));
+        assertEquals(2, appels); // Plus de temps accordé : le solveur est rappelé
+        colonie(COLONIE).resoudre(naif, new Controle(10));
+        colonie(COLONIE).resoudre(naif, new Controle(10_000));
+        assertEquals(2, appels); // Temps accordé déjà atteint : servi
+        colonie(COLONIE).resoudre(naif, new Controle());
+        assertEquals(3, appels); // Sans échéance : plus que tout temps fini
+
+        cache.enregistrer(fichier); // Le temps de calcul est conservé dans le fichier
+        CacheSolutions relu = new CacheSolutions(100);
+        relu.charger(fichier);
+        colonie(COLONIE_PERMUTEE).resoudre(relu.devant(compte), new Controle());
+        assertEquals(3, appels);
+    }
+
+    @Test
+    void testEvictionLRU() {
+        CacheSolutions cache = new CacheSolutions(7); // Deux colonies de trois colons au plus
+        Solveur solveur = cache.devant(compte(Algorithme.EXACT));
+        String deuxieme = COLONIE.replace("deteste(Aa,BB).", "deteste(Aa,C).");
+        String troisieme = COLONIE.replace("deteste(Aa,BB).", "deteste(BB,C).");
+        colonie(COLONIE).resoudre(solveur, new Controle());
+        colonie(deuxieme).resoudre(solveur, new Controle());
+        colonie(COLONIE).resoudre(solveur, new Controle()); // La première devient la plus récente
+        colonie(troisieme).resoudre(solveur, new Controle()); // Évince la deuxième
+        assertEquals(3, appels);
+        assertEquals(2, cache.getNombreEntrees());
+        assertEquals(6, cache.getTaille());
+
+        colonie(COLONIE).resoudre(solveur, new Controle());
+        assertEquals(3, appels);
+        colonie(deuxieme).resoudre(solveur, new Controle());
+        assertEquals(4, appels);
+    }
+
+    @Test
+    void testPersistance() throws IOException {
+        CacheSolutions cache = new CacheSolutions(100);
+        Solution solution = colonie(COLONIE).resoudre(cache.devant(Algorithme.LOCAL), new Controle());
+        cache.enregistrer(fichier);
+
+        CacheSolutions relu = new CacheSolutions(100);
+        relu.charger(fichier);
+        assertEquals(1, relu.getNombreEntrees());
+        Solution servie = colonie(COLONIE_PERMUTEE).resoudre(relu.devant(Algorithme.LOCAL), new Controle());
+        assertEquals(1, relu.getSucces());
+        assertEquals(solution.getJalousie(), servie.getJalousie());
+
+        Files.writeString(fichier, "pas un cache");
+        assertThrows(IOException.class, () -> new CacheSolutions(100).charger(fichier));
+    }
+
+    @Test
+    void testCapaciteNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheSolutions(-1));
+    }
+}
@@ -0,0 +1,351 @@
+package test;
+
+import app.Algorithme;
+import app.Colonie;
+import app.ColonieCompilee;
+import app.Controle;
+import app.Solution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+/**
+ * Classe de tests pour la classe ColonieCompilee.
+ */
+class ColonieCompileeTest {
+    private Colonie colonie;
+
+    @BeforeEach
+    void setUp() {
+        colonie = new Colonie();
+        colonie.setRessources(3);
+        colonie.setColons(3);
+        colonie.ajouterRelation("A", "B");
+        colonie.ajouterRelation("C", "B");
+        colonie.ajouterPreferences("A", Arrays.asList("1", "2", "3"));
+        colonie.ajouterPreferences("B", Arrays.asList("2", "3", "1"));
+        colonie.ajouterPreferences("C", Arrays.asList("2", "3", "1"));
+    }
+
+    @Test
+    void testIdentifiantsEtRangs() {
+        ColonieCompilee compilee = colonie.compiler();
+        assertEquals(3, compilee.getNombreColons());
+        assertEquals(3, compilee.getNombreRessources());
+        int b = compilee.getIdColon("B");
+        assertEquals("B", compilee.getNomColon(b));
+        assertEquals(0, compilee.rang(b, compilee.getIdRessource("2")));
+        assertEquals(2, compilee.rang(b, compilee.getIdRessource("1")));
+        assertEquals(compilee.getIdRessource("3"), compilee.ressourceDeRang(b, 1));
+        assertEquals(-1, compilee.getIdRessource("inconnue"));
+        assertEquals(4, compilee.getNombreRelations());
+    }
+
+    @Test
+    void testCalculerJalousieIdentiqueAuxColons() {
+        colonie.assignerObjets();
+        ColonieCompilee compilee = colonie.compiler();
+        int[] objets = new int[3];
+        for (String nom : new String[]{"A", "B", "C"}) {
+            String objet = colonie.toString().split("Colon: " + nom)[1].split("Objet assigné: ")[1].split("\n")[0];
+            objets[compilee.getIdColon(nom)] = compilee.getIdRessource(objet);
+        }
+        assertEquals(colonie.calculerColonsJaloux(), compilee.calculerJalousie(objets));
+    }
+
+    @Test
+    void testCacheInvalideApresModification() {
+        ColonieCompilee avant = colonie.compiler();
+        assertSame(avant, colonie.compiler());
+        colonie.ajouterRelation("A", "C");
+        assertNotSame(avant, colonie.compiler());
+        assertEquals(6, colonie.compiler().getNombreRelations());
+    }
+
+    @Test
+    void testMiseAJourIdentiqueACompilationComplete() {
+        ColonieCompilee avant = colonie.compiler();
+        colonie.ajouterRelation("A", "C");
+        colonie.ajouterPreferences("C", Arrays.asList("1", "3", "2"));
+        ColonieCompilee apres = colonie.compiler(); // Seules les lignes de A et C sont recalculées
+        assertEquals(2, avant.rang(avant.getIdColon("C"), avant.getIdRessource("1"))); // Vue précédente inchangée
+
+        Colonie complete = new Colonie();
+        complete.chargerTexte("colon(A).\ncolon(B).\ncolon(C).\nressource(1).\nressource(2).\nressource(3).\n"
+                + "deteste(A,B).\ndeteste(C,B).\ndeteste(A,C).\n"
+                + "preferences(A,1,2,3).\npreferences(B,2,3,1).\npreferences(C,1,3,2).\n");
+        ColonieCompilee reference = complete.compiler();
+        assertEquals(reference.getNombreRelations(), apres.getNombreRelations());
+        String[] noms = {"A", "B", "C"};
+        for (String colon : noms) {
+            for (String ressource : new String[]{"1", "2", "3"}) {
+                assertEquals(reference.rang(reference.getIdColon(colon), reference.getIdRessource(ressource)),
+                        apres.rang(apres.getIdColon(colon), apres.getIdRessource(ressource)));
+            }
+        }
+        String[][] assignations = {{"1", "2", "3"}, {"2", "1", "3"}, {"3", "2", "1"}, {"1", "3", "2"}};
+        for (String[] assignation : assignations) {
+            int[] objets = new int[3];
+            int[] objetsReference = new int[3];
+            for (int i = 0; i < 3; i++) {
+                objets[apres.getIdColon(noms[i])] = apres.getIdRessource(assignation[i]);
+                objetsReference[reference.getIdColon(noms[i])] = reference.getIdRessource(assignation[i]);
+            }
+            assertEquals(reference.calculerJalousie(objetsReference), apres.calculerJalousie(objets));
+        }
+    }
+
+    @Test
+    void testPreferencesPartielles() {
+        colonie.ajouterPreferences("A", Arrays.asList("3")); // Seule la ressource préférée est listée
+        colonie.ajouterPreferences("B", Arrays.asList("2", "1"));
+        ColonieCompilee compilee = colonie.compiler();
+        int a = compilee.getIdColon("A");
+        int b = compilee.getIdColon("B");
+        assertEquals(0, compilee.rang(a, compilee.getIdRessource("3")));
+        assertEquals(1, compilee.rang(a, compilee.getIdRessource("1"))); // Ressources absentes : rang suivant, partagé
+        assertEquals(1, compilee.rang(a, compilee.getIdRessource("2")));
+        assertEquals(2, compilee.rang(b, compilee.getIdRessource("3")));
+        // Seul C est jaloux : les ressources 1 et 2 sont à égalité pour A, qui n'envie pas B
+        int[] objets = new int[3];
+        objets[a] = compilee.getIdRessource("1");
+        objets[b] = compilee.getIdRessource("2");
+        objets[compilee.getIdColon("C")] = compilee.getIdRessource("3");
+        assertEquals(1, compilee.calculerJalousie(objets));
+        // Seul B est jaloux, de l'objet de A
+        objets[a] = compilee.getIdRessource("2");
+        objets[b] = compilee.getIdRessource("1");
+        assertEquals(1, compilee.calculerJalousie(objets));
+    }
+
+    @Test
+    void testVoisinSansObjetPourUnRangAbsent() {
+        Colonie sansPreferences = new Colonie();
+        sansPreferences.chargerTexte("colon(A).\ncolon(B).\nressource(1).\nressource(2).\nressource(3).\n"
+                + "deteste(A,B).\npreferences(B,2,3,1).\n");
+        ColonieCompilee compilee = sansPreferences.compiler();
+        int a = compilee.getIdColon("A");
+        int b = compilee.getIdColon("B");
+        int[] objets = new int[2];
+        objets[a] = compilee.getIdRessource("1");
+        objets[b] = -1;
+        assertEquals(0, compilee.calculerJalousie(objets)); // A, sans préférences, n'envie pas B qui n'a rien
+
+        colonie.ajouterPreferences("A", Arrays.asList("3")); // Liste partielle : 1 et 2 ne sont pas listées
+        compilee = colonie.compiler();
+        a = compilee.getIdColon("A");
+        objets = new int[] {-1, -1, -1};
+        objets[a] = compilee.getIdRessource("1");
+        assertEquals(0, compilee.calculerJalousie(objets));
+        objets[a] = compilee.getIdRessource("3"); // Objet listé : A envie son voisin B, qui n'a rien
+        assertEquals(1, compilee.calculerJalousie(objets));
+    }
+
+    // Colonie de 1000 colons et 1100 ressources où chaque colon ne classe que trois ressources
+    private static Colonie colonieTop3() {
+        StringBuilder contenu = new StringBuilder();
+        for (int i = 0; i < 1000; i++) contenu.append("colon(c").append(i).append(").\n");
+        for (int r = 0; r < 1100; r++) contenu.append("ressource(r").append(r).append(").\n");
+        for (int i = 0; i + 1 < 1000; i++) contenu.append("deteste(c").append(i).append(",c").append(i + 1).append(").\n");
+        for (int i = 0; i < 1000; i++) {
+            contenu.append("preferences(c").append(i).append(",r").append(i).append(",r").append((7 * i + 1) % 1100)
+                    .append(",r").append((13 * i + 2) % 1100).append(").\n");
+        }
+        Colonie grande = new Colonie();
+        grande.chargerTexte(contenu.toString());
+        return grande;
+    }
+
+    @Test
+    void testPreferencesCreuses() {
+        Colonie grande = colonieTop3();
+        ColonieCompilee compilee = grande.compiler();
+        for (int i = 0; i < 1000; i += 37) {
+            int c = compilee.getIdColon("c" + i);
+            assertEquals(0, compilee.rang(c, compilee.getIdRessource("r" + i)));
+            assertEquals(2, compilee.rang(c, compilee.getIdRessource("r" + (13 * i + 2) % 1100)));
+            // Les rangs et l'ordre des préférences sont cohérents, y compris pour les ressources absentes de la liste
+            boolean[] vue = new boolean[1100];
+            int precedente = -1;
+            for (int rang = 0; rang < 1100; rang++) {
+                int ressource = compilee.ressourceDeRang(c, rang);
+                assertFalse(vue[ressource]);
+                vue[ressource] = true;
+                assertEquals(Math.min(rang, 3), compilee.rang(c, ressource));
+                if (rang > 3) assertTrue(ressource > precedente); // Ressources absentes par identifiant croissant
+                precedente = ressource;
+            }
+        }
+
+        // Chaque colon obtient sa ressource préférée parmi celles qui restent : la jalousie suit les rangs
+        Solution naive = grande.resoudre(Algorithme.NAIF, new Controle());
+        int[] objets = naive.getObjets();
+        int jaloux = 0;
+        for (int c = 0; c < 1000; c++) {
+            int voisinPrefere = 0;
+            for (int d : new int[]{c - 1, c + 1}) {
+                if (d < 0 || d >= 1000) continue;
+                int a = compilee.getIdColon("c" + c);
+                int b = compilee.getIdColon("c" + d);
+                if (compilee.rang(a, objets[b]) < compilee.rang(a, objets[a])) voisinPrefere = 1;
+            }
+            jaloux += voisinPrefere;
+        }
+        assertEquals(jaloux, naive.getJalousie());
+        assertEquals(naive.getJalousie(), compilee.calculerJalousie(objets));
+        assertEquals(naive.getJalousie(), grande.calculerColonsJaloux());
+
+        Solution locale = grande.resoudre(Algorithme.RECUIT, new Controle(200));
+        assertTrue(locale.getJalousie() <= naive.getJalousie());
+        assertEquals(locale.getJalousie(), grande.calculerColonsJaloux());
+    }
+
+    @Test
+    void testPreferencesCreusesMiseAJour() {
+        Colonie grande = colonieTop3();
+        ColonieCompilee avant = grande.compiler();
+        grande.ajouterPreferences("c5", Arrays.asList("r999", "r5"));
+        ColonieCompilee apres = grande.compiler();
+        int c = apres.getIdColon("c5");
+        assertEquals(0, apres.rang(c, apres.getIdRessource("r999")));
+        assertEquals(1, apres.rang(c, apres.getIdRessource("r5")));
+        assertEquals(2, apres.rang(c, apres.getIdRessource("r36"))); // Ancienne deuxième préférence
+        assertEquals(0, avant.rang(c, avant.getIdRessource("r5"))); // Vue précédente inchangée
+        int d = apres.getIdColon("c6");
+        assertEquals(1, apres.rang(d, apres.getIdRessource("r43")));
+    }
+
+    @Test
+    void testCalculerJalousieGrandeColonie() {
+        // Assez de relations pour passer par le noyau vectoriel quand il est chargé (mvn -f benchmarks/pom.xml test) :
+        // 20 voisins par colon, soit un paquet complet de 8 ou 16 et un reste, et des listes partielles
+        int n = 401;
+        int[] listees = new int[n]; // Nombre de ressources listées par le colon ci
+        StringBuilder contenu = new StringBuilder();
+        for (int i = 0; i < n; i++) contenu.append("colon(c").append(i).append(").\n");
+        for (int r = 0; r < n; r++) contenu.append("ressource(r").append(r).append(").\n");
+        for (int i = 0; i < n; i++) {
+            for (int d = 1; d <= 10; d++) contenu.append("deteste(c").append(i).append(",c").append((i + d) % n).append(").\n");
+        }
+        for (int i = 0; i < n; i++) {
+            listees[i] = i % 3 == 0 ? n : 1 + i % 50;
+            contenu.append("preferences(c").append(i);
+            for (int j = 0; j < listees[i]; j++) contenu.append(",r").append((7 * j + i) % n);
+            contenu.append(").\n");
+        }
+        Colonie grande = new Colonie();
+        grande.chargerTexte(contenu.toString());
+        ColonieCompilee compilee = grande.compiler();
+        assertEquals(2 * 10 * n, compilee.getNombreRelations());
+        if (Boolean.getBoolean("colonie.vectoriel")) { // Le noyau doit être chargé : sinon il ne serait pas comparé
+            assertEquals(ColonieCompilee.Evaluation.VECTORIELLE, compilee.getEvaluation(1));
+        }
+
+        java.util.Random aleatoire = new java.util.Random(3);
+        for (int essai = 0; essai < 20; essai++) {
+            int[] objets = new int[n];
+            for (int c = 0; c < n; c++) objets[c] = aleatoire.nextInt(10) == 0 ? -1 : aleatoire.nextInt(n); // Quelques colons sans objet
+            int attendue = 0;
+            for (int i = 0; i < n; i++) {
+                int c = compilee.getIdColon("c" + i);
+                int rangPropre = compilee.rang(c, objets[c]);
+                boolean jaloux = false;
+                for (int d = -10; d <= 10; d++) {
+                    int voisin = compilee.getIdColon("c" + Math.floorMod(i + d, n));
+                    int rangVoisin = objets[voisin] >= 0 ? compilee.rang(c, objets[voisin])
+                            : rangPropre < listees[i] ? -1 : rangPropre; // Voisin sans objet envié si l'objet est listé
+                    if (d != 0 && rangVoisin < rangPropre) jaloux = true;
+                }
+                if (jaloux) attendue++;
+            }
+            assertEquals(attendue, compilee.calculerJalousie(objets));
+        }
+    }
+
+    @Test
+    void testCalculerJalousieEnParallele() {
+        // Degrés très inégaux (c0 est en relation avec tous) et colons sans relation, pour des morceaux déséquilibrés
+        int n = 300;
+        StringBuilder contenu = new StringBuilder();
+        for (int i = 0; i < n; i++) contenu.append("colon(c").append(i).append(").\n");
+        for (int r = 0; r < n; r++) contenu.append("ressource(r").append(r).append(").\n");
+        for (int i = 1; i < n; i++) contenu.append("deteste(c0,c").append(i).append(").\n");
+        for (int i = 1; i + 1 < n / 2; i++) contenu.append("deteste(c").append(i).append(",c").append(i + 1).append(").\n");
+        for (int i = 0; i < n; i++) {
+            contenu.append("preferences(c").append(i);
+            for (int j = 0; j < n; j++) contenu.append(",r").append((11 * j + 3 * i) % n);
+            contenu.append(").\n");
+        }
+        Colonie grande = new Colonie();
+        grande.chargerTexte(contenu.toString());
+        ColonieCompilee compilee = grande.compiler();
+
+        java.util.Random aleatoire = new java.util.Random(8);
+        for (int essai = 0; essai < 20; essai++) {
+            int[] objets = new int[n];
+            for (int c = 0; c < n; c++) objets[c] = aleatoire.nextInt(10) == 0 ? -1 : aleatoire.nextInt(n);
+            int attendue = compilee.calculerJalousie(objets);
+            for (int morceaux : new int[] {1, 2, 3, 7, 64, 1000}) { // Plus de morceaux que de colons : morceaux vides
+                assertEquals(attendue, compilee.calculerJalousieEnParallele(objets, morceaux));
+            }
+        }
+    }
+
+    @Test
+    void testCalculerJalousieParalleleEtVectorielle() {
+        // Table dense et 2^18 relations : les deux seuils sont atteints, chaque morceau passe par le noyau s'il est chargé
+        int n = 2048;
+        int m = 64;
+        StringBuilder contenu = new StringBuilder();
+        for (int i = 0; i < n; i++) contenu.append("colon(c").append(i).append(").\n");
+        for (int r = 0; r < m; r++) contenu.append("ressource(r").append(r).append(").\n");
+        for (int i = 0; i < n; i++) {
+            for (int d = 1; d <= 64; d++) contenu.append("deteste(c").append(i).append(",c").append((i + d) % n).append(").\n");
+        }
+        for (int i = 0; i < n; i++) {
+            contenu.append("preferences(c").append(i);
+            for (int j = 0; j < m; j++) contenu.append(",r").append((5 * j + i) % m);
+            contenu.append(").\n");
+        }
+        Colonie grande = new Colonie();
+        grande.chargerTexte(contenu.toString());
+        ColonieCompilee compilee = grande.compiler();
+        assertEquals(1 << 18, compilee.getNombreRelations());
+
+        boolean vectorielle = compilee.getEvaluation(1) == ColonieCompilee.Evaluation.VECTORIELLE;
+        if (Boolean.getBoolean("colonie.vectoriel")) assertTrue(vectorielle);
+        assertEquals(vectorielle ? ColonieCompilee.Evaluation.PARALLELE_VECTORIELLE : ColonieCompilee.Evaluation.PARALLELE,
+                compilee.getEvaluation(4));
+
+        java.util.Random aleatoire = new java.util.Random(5);
+        for (int essai = 0; essai < 5; essai++) {
+            int[] objets = new int[n];
+            for (int c = 0; c < n; c++) objets[c] = aleatoire.nextInt(10) == 0 ? -1 : aleatoire.nextInt(m);
+            int attendue = 0;
+            for (int i = 0; i < n; i++) { // Référence scalaire, indépendante des morceaux et du noyau
+                int c = compilee.getIdColon("c" + i);
+                int rangPropre = compilee.rang(c, objets[c]);
+                boolean jaloux = false;
+                for (int d = -64; d <= 64; d++) {
+                    int voisin = compilee.getIdColon("c" + Math.floorMod(i + d, n));
+                    if (d != 0 && compilee.rang(c, objets[voisin]) < rangPropre) jaloux = true; // Listes complètes
+                }
+                if (jaloux) attendue++;
+            }
+            assertEquals(attendue, compilee.calculerJalousie(objets));
+            for (int morceaux : new int[] {1, 4, 16}) {
+                assertEquals(attendue, compilee.calculerJalousieEnParallele(objets, morceaux));
+            }
+        }
+    }
+
+    @Test
+    void testAssignerObjets3Optimal() throws Exception {
+        Colonie fichier = new Colonie();
+        fichier.chargerFichier("colonie.txt");
+        fichier.assignerObjets3();
+        assertEquals(0, fichier.calculerColonsJaloux());
+    }
+}
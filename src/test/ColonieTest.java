@@ -1,5 +1,9 @@
 package test;
+import app.Algorithme;
 import app.Colonie;
+import app.ColonieCompilee;
+import app.Controle;
+import app.Solution;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,6 +51,29 @@ class ColonieTest {
         assertEquals("Un ou les deux colons spécifiés n'existent pas.", exceptionNonExistent.getMessage());
     }
 
+    @Test
+    void testAjouterColonsEtRelationsAlternes() {
+        // Le graphe des relations est gardé d'un colon à l'autre, y compris au passage de 64 et 128 colons
+        colonie.ajouterColon("c0");
+        for (int i = 1; i < 150; i++) {
+            colonie.ajouterColon("c" + i);
+            colonie.ajouterRelation("c" + i, "c" + (i - 1));
+            if (i > 1) colonie.ajouterRelation("c0", "c" + i);
+            String precedent = "c" + (i - 1), nouveau = "c" + i;
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> colonie.ajouterRelation(precedent, nouveau));
+            assertEquals("La relation existe deja.", exception.getMessage());
+            assertThrows(IllegalArgumentException.class, () -> colonie.ajouterRelation(nouveau, "c0"));
+        }
+        for (int i = 1; i < 150; i++) { // Les relations ajoutées avant les élargissements sont toujours détectées
+            String precedent = "c" + (i - 1), colon = "c" + i;
+            assertThrows(IllegalArgumentException.class, () -> colonie.ajouterRelation(colon, precedent));
+            if (i > 1) assertThrows(IllegalArgumentException.class, () -> colonie.ajouterRelation("c0", colon));
+        }
+        colonie.ajouterRelation("c149", "c64"); // Relation nouvelle entre deux colons séparés par un élargissement
+        assertEquals(2 * (149 + 148 + 1), colonie.compiler().getNombreRelations()); // Chaque relation dans les deux sens
+    }
+
     @Test
     void testAjouterPreferences() {
         colonie.setRessources(2);
@@ -60,6 +87,53 @@ class ColonieTest {
         assertEquals("Le colon n'existe pas", exceptionNonExistentColon.getMessage());
     }
 
+    @Test
+    void testPreferencesInvalides() {
+        colonie.setRessources(3);
+        colonie.setColons(2);
+        colonie.ajouterPreferences("A", Arrays.asList("3", "1", "2"));
+        for (List<String> invalides : List.of(Arrays.asList("1", "1", "2"), Arrays.<String>asList(),
+                Arrays.asList("1", "2", "4"), Arrays.asList("1", null, "2"))) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> colonie.ajouterPreferences("A", invalides));
+            assertEquals("Les préférences ne peuvent pas se répéter", exception.getMessage());
+        }
+        // Les préférences refusées ne remplacent pas les précédentes
+        ColonieCompilee compilee = colonie.compiler();
+        int a = compilee.getIdColon("A");
+        assertEquals(compilee.getIdRessource("3"), compilee.ressourceDeRang(a, 0));
+        assertEquals(compilee.getIdRessource("2"), compilee.ressourceDeRang(a, 2));
+
+        colonie.ajouterPreferences("A", Arrays.asList("2", "3", "1"));
+        colonie.ajouterPreferences("B", Arrays.asList("1", "3", "2"));
+        compilee = colonie.compiler();
+        assertEquals(0, compilee.rang(a, compilee.getIdRessource("2")));
+        assertEquals(2, compilee.rang(compilee.getIdColon("B"), compilee.getIdRessource("2")));
+    }
+
+    @Test
+    void testPreferenceRepeteeDansUneListeComplete() {
+        // Toutes les ressources présentes, l'une répétée : même erreur par l'API et par un fichier
+        colonie.setRessources(3);
+        colonie.setColons(2);
+        NullPointerException exception = assertThrows(NullPointerException.class,
+                () -> colonie.ajouterPreferences("A", Arrays.asList("2", "1", "2", "3")));
+        assertEquals("La préférence existe deja.", exception.getMessage());
+
+        Colonie lue = new Colonie();
+        exception = assertThrows(NullPointerException.class, () -> lue.chargerTexte("colon(A).\ncolon(B).\n"
+                + "ressource(1).\nressource(2).\nressource(3).\ndeteste(A,B).\npreferences(A,2,1,2,3).\n"));
+        assertEquals("La préférence existe deja.", exception.getMessage());
+
+        // Dans les deux cas, les préférences qui précèdent la répétition sont gardées
+        for (Colonie c : List.of(colonie, lue)) {
+            ColonieCompilee compilee = c.compiler();
+            int a = compilee.getIdColon("A");
+            assertEquals(compilee.getIdRessource("2"), compilee.ressourceDeRang(a, 0));
+            assertEquals(compilee.getIdRessource("1"), compilee.ressourceDeRang(a, 1));
+            assertEquals(2, compilee.rang(a, compilee.getIdRessource("3")));
+        }
+    }
+
     @Test
     void testVerifiePreferencesCompletes() {
         colonie.setRessources(3);
@@ -131,6 +205,69 @@ class ColonieTest {
         assertEquals("Un ou les deux colons spécifiés n'existent pas.", exceptionNonExistentColon.getMessage());
     }
 
+    @Test
+    void testRelationEnDouble() {
+        colonie.setColons(3);
+        colonie.ajouterRelation("A", "B");
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> colonie.ajouterRelation("B", "A"));
+        assertEquals("La relation existe deja.", exception.getMessage());
+
+        // Grande colonie : les relations passent de la table de hachage à la matrice de bits en se densifiant
+        Colonie grande = new Colonie();
+        for (int i = 0; i < 200; i++) grande.ajouterColon("C" + i);
+        for (int i = 0; i < 200; i++) {
+            for (int j = i + 1; j < 200; j += 1 + i % 3) grande.ajouterRelation("C" + i, "C" + j);
+        }
+        for (int i = 0; i < 200; i++) {
+            for (int j = i + 1; j < 200; j++) {
+                boolean presente = (j - i - 1) % (1 + i % 3) == 0;
+                final String premier = "C" + j, second = "C" + i;
+                if (presente) {
+                    assertThrows(IllegalArgumentException.class, () -> grande.ajouterRelation(premier, second));
+                } else {
+                    assertDoesNotThrow(() -> grande.ajouterRelation(premier, second));
+                }
+            }
+        }
+        assertEquals(200 * 199, grande.compiler().getNombreRelations());
+
+        // Après l'ajout d'un colon, les relations existantes restent détectées
+        grande.ajouterColon("D");
+        assertThrows(IllegalArgumentException.class, () -> grande.ajouterRelation("C0", "C1"));
+        grande.ajouterRelation("C0", "D");
+        assertEquals(200 * 199 + 2, grande.compiler().getNombreRelations());
+    }
+
+    @Test
+    void testReparerApresModification() {
+        colonie.setRessources(3);
+        colonie.setColons(3);
+        colonie.ajouterRelation("A", "B");
+        colonie.ajouterRelation("C", "B");
+        colonie.ajouterPreferences("A", Arrays.asList("1", "2", "3"));
+        colonie.ajouterPreferences("B", Arrays.asList("2", "3", "1"));
+        colonie.ajouterPreferences("C", Arrays.asList("3", "1", "2"));
+        colonie.resoudre(Algorithme.EXACT, new Controle());
+        assertEquals(0, colonie.calculerColonsJaloux());
+
+        colonie.ajouterRelation("A", "C");
+        colonie.ajouterPreferences("A", Arrays.asList("3", "2", "1"));
+        int avant = colonie.calculerColonsJaloux(); // Assignation précédente, pas encore réparée
+        Solution solution = colonie.reparer(new Controle());
+        assertEquals(solution.getJalousie(), colonie.calculerColonsJaloux());
+        assertTrue(solution.getJalousie() <= avant);
+
+        // Un nouveau colon reçoit un objet, les autres gardent le leur si rien ne s'améliore
+        colonie.setRessources(4);
+        colonie.ajouterColon("D");
+        for (String nom : new String[]{"A", "B", "C", "D"}) {
+            colonie.ajouterPreferences(nom, Arrays.asList("4", "3", "2", "1"));
+        }
+        solution = colonie.reparer(new Controle());
+        assertEquals(solution.getJalousie(), colonie.calculerColonsJaloux());
+        assertFalse(colonie.toString().contains("Objet assigné: null"));
+    }
+
     @Test
     void testChargerFichier() {
         // Test valid loading of file
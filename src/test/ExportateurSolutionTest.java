@@ -0,0 +1,84 @@
+package test;
+
+import app.Colonie;
+import app.ColonieCompilee;
+import app.ExportateurSolution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Classe de tests pour la classe ExportateurSolution.
+ */
+class ExportateurSolutionTest {
+    private Path dossier;
+    private Path fichier;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dossier = Files.createTempDirectory("export");
+        fichier = dossier.resolve("solution.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            for (Path f : fichiers.toList()) Files.delete(f);
+        }
+        Files.delete(dossier);
+    }
+
+    @Test
+    void testExportTrieAvecJalousie() throws IOException {
+        Colonie colonie = new Colonie();
+        colonie.setRessources(3);
+        colonie.setColons(3);
+        colonie.ajouterRelation("A", "B");
+        for (String nom : new String[]{"C", "B", "A"}) colonie.ajouterPreferences(nom, Arrays.asList("1", "2", "3"));
+        colonie.assignerObjets(); // A reçoit 1, B 2 et C 3 : seul B, en relation avec A, est jaloux
+        colonie.enregistreFichier(fichier.toString(), true, true);
+        assertEquals(List.of("A:1:0", "B:2:1", "C:3:0"), Files.readAllLines(fichier));
+
+        colonie.enregistreFichier(fichier.toString()); // Remplace le fichier précédent
+        List<String> lignes = new ArrayList<>(Files.readAllLines(fichier));
+        Collections.sort(lignes);
+        assertEquals(List.of("A:1", "B:2", "C:3"), lignes);
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            assertEquals(1, fichiers.count()); // Aucun fichier temporaire restant
+        }
+    }
+
+    @Test
+    void testAssignationIncompleteNeModifiePasLeFichier() throws IOException {
+        Files.writeString(fichier, "ancien contenu\n");
+        ColonieCompilee compilee = AffectationTest.colonieAleatoire(10, 0.3, 1).compiler();
+        int[] objets = new int[10];
+        for (int c = 0; c < 10; c++) objets[c] = c;
+        objets[7] = -1;
+        ExportateurSolution exportateur = new ExportateurSolution(compilee);
+        assertThrows(NullPointerException.class, () -> exportateur.exporter(objets, fichier));
+        assertEquals("ancien contenu\n", Files.readString(fichier));
+    }
+
+    @Test
+    void testExportsSuccessifs() throws IOException {
+        ColonieCompilee compilee = AffectationTest.colonieAleatoire(500, 0.0, 2).compiler();
+        int[] objets = new int[500];
+        for (int c = 0; c < 500; c++) objets[c] = 499 - c;
+        ExportateurSolution exportateur = new ExportateurSolution(compilee);
+        exportateur.exporter(objets, fichier);
+        exportateur.exporter(objets, fichier); // Tampon et noms encodés réutilisés
+        List<String> lignes = Files.readAllLines(fichier);
+        assertEquals(500, lignes.size());
+        for (int c = 0; c < 500; c++) {
+            assertEquals(compilee.getNomColon(c) + ":" + compilee.getNomRessource(499 - c), lignes.get(c));
+        }
+    }
+}
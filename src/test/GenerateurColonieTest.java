@@ -0,0 +1,147 @@
+package test;
+
+import app.Colonie;
+import app.ColonieCompilee;
+import app.GenerateurColonie;
+import app.ImageColonie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Classe de tests pour la classe GenerateurColonie.
+ */
+class GenerateurColonieTest {
+    private Path texte;
+    private Path image;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        texte = Files.createTempFile("colonie", ".txt");
+        image = Files.createTempFile("colonie", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(texte);
+        Files.deleteIfExists(image);
+    }
+
+    // Nombre de lignes deteste du fichier texte généré
+    private long nombreDeteste() throws IOException {
+        try (var lignes = Files.lines(texte)) {
+            return lignes.filter(ligne -> ligne.startsWith("deteste(")).count();
+        }
+    }
+
+    private ColonieCompilee chargerTexte() throws IOException {
+        Colonie colonie = new Colonie();
+        colonie.chargerFichier(texte.toString());
+        assertTrue(colonie.verifierPreferencesCompletes());
+        return colonie.compiler();
+    }
+
+    @Test
+    void testModelesDeRelations() throws IOException {
+        for (GenerateurColonie.Relations modele : GenerateurColonie.Relations.values()) {
+            GenerateurColonie generateur = new GenerateurColonie(300, 5);
+            generateur.setRelations(modele);
+            generateur.setDegreMoyen(6);
+            generateur.ecrireTexte(texte);
+            ColonieCompilee compilee = chargerTexte();
+            assertEquals(300, compilee.getNombreColons());
+            assertEquals(300, compilee.getNombreRessources());
+            // Chaque ligne deteste est une nouvelle relation : ni doublon, ni relation d'un colon avec lui-même
+            assertEquals(2 * nombreDeteste(), compilee.getNombreRelations());
+            double degre = (double) compilee.getNombreRelations() / 300;
+            assertTrue(degre > 4 && degre < 8, modele + " : degré moyen " + degre);
+        }
+    }
+
+    @Test
+    void testLoiPuissance() throws IOException {
+        GenerateurColonie generateur = new GenerateurColonie(2000, 1);
+        generateur.setRelations(GenerateurColonie.Relations.LOI_PUISSANCE);
+        generateur.setDegreMoyen(4);
+        generateur.setNombreRessources(3);
+        generateur.ecrireTexte(texte);
+        int[] degres = new int[2000];
+        for (String ligne : Files.readAllLines(texte)) {
+            if (!ligne.startsWith("deteste(")) continue;
+            String[] colons = ligne.substring(8, ligne.length() - 2).split(",");
+            degres[Integer.parseInt(colons[0].substring(1))]++;
+            degres[Integer.parseInt(colons[1].substring(1))]++;
+        }
+        // Quelques colons très connectés, bien au-delà du degré moyen, et aucun colon isolé
+        assertTrue(Arrays.stream(degres).max().getAsInt() > 40);
+        assertTrue(Arrays.stream(degres).min().getAsInt() >= 2);
+    }
+
+    @Test
+    void testImageIdentiqueAuTexte() throws IOException {
+        GenerateurColonie generateur = new GenerateurColonie(80, 9);
+        generateur.setRelations(GenerateurColonie.Relations.GROUPES);
+        generateur.setTailleGroupes(10);
+        generateur.setPreferences(GenerateurColonie.Preferences.CORRELEES);
+        generateur.ecrireTexte(texte);
+        generateur.ecrireImage(image);
+        ColonieCompilee depuisTexte = chargerTexte();
+        ColonieCompilee depuisImage = ImageColonie.lireCompilee(image);
+        assertEquals(depuisTexte.getNombreRelations(), depuisImage.getNombreRelations());
+        for (int c = 0; c < 80; c++) {
+            int d = depuisImage.getIdColon(depuisTexte.getNomColon(c));
+            for (int rang = 0; rang < 80; rang++) {
+                assertEquals(depuisTexte.getNomRessource(depuisTexte.ressourceDeRang(c, rang)),
+                        depuisImage.getNomRessource(depuisImage.ressourceDeRang(d, rang)));
+            }
+        }
+
+        byte[] premier = Files.readAllBytes(texte);
+        generateur.ecrireTexte(texte); // Même graine : même fichier
+        assertArrayEquals(premier, Files.readAllBytes(texte));
+    }
+
+    @Test
+    void testPreferencesCorrelees() throws IOException {
+        GenerateurColonie generateur = new GenerateurColonie(20, 3);
+        generateur.setPreferences(GenerateurColonie.Preferences.CORRELEES);
+        generateur.setCorrelation(1); // Sans bruit, tous les colons ont les mêmes préférences
+        generateur.ecrireTexte(texte);
+        ColonieCompilee compilee = chargerTexte();
+        for (int c = 1; c < 20; c++) {
+            for (int rang = 0; rang < 20; rang++) {
+                assertEquals(compilee.ressourceDeRang(0, rang), compilee.ressourceDeRang(c, rang));
+            }
+        }
+    }
+
+    @Test
+    void testPreferencesLimitees() throws IOException {
+        GenerateurColonie generateur = new GenerateurColonie(60, 5);
+        generateur.setNombreRessources(70);
+        generateur.setNombrePreferences(4);
+        generateur.ecrireTexte(texte);
+        generateur.ecrireImage(image);
+        try (var lignes = Files.lines(texte)) {
+            assertTrue(lignes.filter(ligne -> ligne.startsWith("preferences("))
+                    .allMatch(ligne -> ligne.split(",").length == 5)); // Le colon et ses quatre ressources
+        }
+        ColonieCompilee depuisTexte = chargerTexte();
+        ColonieCompilee depuisImage = ImageColonie.lireCompilee(image);
+        for (int c = 0; c < 60; c++) {
+            int d = depuisImage.getIdColon(depuisTexte.getNomColon(c));
+            for (int r = 0; r < 70; r++) {
+                int rang = depuisTexte.rang(c, r);
+                assertTrue(rang <= 4); // Les ressources non listées partagent le cinquième rang
+                assertEquals(rang, depuisImage.rang(d, depuisImage.getIdRessource(depuisTexte.getNomRessource(r))));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> generateur.setNombrePreferences(-1));
+    }
+}
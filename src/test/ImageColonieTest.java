@@ -0,0 +1,125 @@
+package test;
+
+import app.Colonie;
+import app.ColonieCompilee;
+import app.GenerateurColonie;
+import app.ImageColonie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Classe de tests pour la classe ImageColonie.
+ */
+class ImageColonieTest {
+    private Path image;
+    private Path texte;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        image = Files.createTempFile("colonie", ".bin");
+        texte = Files.createTempFile("colonie", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(image);
+        Files.deleteIfExists(texte);
+    }
+
+    // Vérifie que deux vues compilées décrivent la même colonie, aux identifiants près
+    private static void assertMemeColonie(ColonieCompilee attendue, ColonieCompilee lue) {
+        int n = attendue.getNombreColons();
+        int m = attendue.getNombreRessources();
+        assertEquals(n, lue.getNombreColons());
+        assertEquals(m, lue.getNombreRessources());
+        assertEquals(attendue.getNombreRelations(), lue.getNombreRelations());
+        for (int c = 0; c < n; c++) {
+            int d = lue.getIdColon(attendue.getNomColon(c));
+            for (int r = 0; r < m; r++) {
+                assertEquals(attendue.rang(c, r), lue.rang(d, lue.getIdRessource(attendue.getNomRessource(r))));
+            }
+        }
+    }
+
+    @Test
+    void testAllerRetourAvecAssignation() throws IOException {
+        Colonie colonie = AffectationTest.colonieAleatoire(30, 0.2, 1);
+        colonie.assignerObjets2();
+        colonie.enregistrerImage(image.toString());
+        assertTrue(ImageColonie.estImage(image));
+
+        Colonie relue = new Colonie();
+        relue.chargerImage(image.toString());
+        assertMemeColonie(colonie.compiler(), relue.compiler());
+        assertEquals(colonie.calculerColonsJaloux(), relue.calculerColonsJaloux());
+        assertTrue(relue.verifierPreferencesCompletes());
+        assertEquals(colonie.toString().length(), relue.toString().length());
+
+        relue.ajouterColon("nouveau"); // La colonie relue reste modifiable et se recompile
+        assertEquals(31, relue.compiler().getNombreColons());
+    }
+
+    @Test
+    void testConversionTexteImageTexte() throws IOException {
+        assertFalse(ImageColonie.estImage(Path.of("colonie.txt")));
+        ImageColonie.convertir(Path.of("colonie.txt"), image);
+        ImageColonie.convertir(image, texte);
+        assertFalse(ImageColonie.estImage(texte));
+
+        Colonie originale = new Colonie();
+        originale.chargerFichier("colonie.txt");
+        Colonie convertie = new Colonie();
+        convertie.chargerFichier(texte.toString());
+        assertMemeColonie(originale.compiler(), convertie.compiler());
+        assertMemeColonie(originale.compiler(), ImageColonie.lireCompilee(image));
+    }
+
+    @Test
+    void testImagePreferencesPartielles() throws IOException {
+        // Listes courtes devant le nombre de ressources : l'image ne garde que les ressources listées
+        GenerateurColonie generateur = new GenerateurColonie(3000, 4);
+        generateur.setNombreRessources(5000);
+        generateur.setNombrePreferences(5);
+        generateur.ecrireImage(image);
+        assertTrue(Files.size(image) < 3000L * 5000); // Bien moins que les n·m rangs d'une table dense
+
+        Colonie colonie = new Colonie();
+        colonie.chargerImage(image.toString());
+        ColonieCompilee compilee = colonie.compiler();
+        assertEquals(3000, compilee.getNombreColons());
+        assertEquals(5000, compilee.getNombreRessources());
+
+        ImageColonie.convertir(image, texte); // Et retour au texte, avec les mêmes listes
+        Colonie convertie = new Colonie();
+        convertie.chargerFichier(texte.toString());
+        ColonieCompilee relue = convertie.compiler();
+        for (int c = 0; c < 3000; c += 7) {
+            int d = relue.getIdColon(compilee.getNomColon(c));
+            for (int rang = 0; rang < 5; rang++) {
+                assertEquals(compilee.getNomRessource(compilee.ressourceDeRang(c, rang)),
+                        relue.getNomRessource(relue.ressourceDeRang(d, rang)));
+            }
+            assertEquals(5, compilee.rang(c, compilee.ressourceDeRang(c, 5))); // Rang commun des ressources absentes
+        }
+    }
+
+    @Test
+    void testImageInvalide() throws IOException {
+        Files.writeString(texte, "colon(A).\n");
+        assertThrows(IOException.class, () -> ImageColonie.lireCompilee(texte));
+
+        Colonie colonie = AffectationTest.colonieAleatoire(5, 0.5, 2);
+        colonie.enregistrerImage(image.toString());
+        byte[] octets = Files.readAllBytes(image);
+        Files.write(image, java.util.Arrays.copyOf(octets, octets.length - 4)); // Image tronquée
+        assertThrows(IOException.class, () -> ImageColonie.lireCompilee(image));
+
+        assertThrows(IllegalStateException.class, () -> colonie.chargerImage(image.toString()));
+    }
+}
@@ -0,0 +1,118 @@
+package test;
+
+import app.Colonie;
+import app.ColonieCompilee;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Classe de tests pour le chargement d'un fichier par Colonie.chargerFichier() (classe LecteurColonie).
+ */
+class LecteurColonieTest {
+
+    // Écrit le contenu dans un fichier temporaire et le charge dans une nouvelle colonie
+    private static Colonie charger(String contenu) throws IOException {
+        return charger(contenu, false);
+    }
+
+    private static Colonie charger(String contenu, boolean parallele) throws IOException {
+        Path fichier = Files.createTempFile("colonie", ".txt");
+        try {
+            Files.write(fichier, contenu.getBytes(StandardCharsets.UTF_8));
+            Colonie colonie = new Colonie();
+            if (parallele) colonie.chargerFichierEnParallele(fichier.toString());
+            else colonie.chargerFichier(fichier.toString());
+            return colonie;
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    @Test
+    void testFichierComplet() throws IOException {
+        Colonie colonie = charger("colon(A).\r\ncolon(Bé).\r\n  ressource(1).\r\nressource(2).\r\n\r\n"
+                + "deteste(A,Bé).\rpreferences(A,2,1).\npreferences(Bé,2,1).");
+        ColonieCompilee compilee = colonie.compiler();
+        assertEquals(2, compilee.getNombreColons());
+        assertEquals(2, compilee.getNombreRessources());
+        assertEquals(2, compilee.getNombreRelations());
+        int a = compilee.getIdColon("A");
+        assertEquals("2", compilee.getNomRessource(compilee.ressourceDeRang(a, 0)));
+        assertTrue(colonie.verifierPreferencesCompletes());
+    }
+
+    @Test
+    void testErreursAvecNumeroDeLigne() {
+        IllegalArgumentException section = assertThrows(IllegalArgumentException.class,
+                () -> charger("colon(A).\nressource(1).\ncolon(B).\n"));
+        assertEquals("Les colons doivent être définis avant toute autre section, (ligne 3).", section.getMessage());
+
+        IllegalArgumentException syntaxe = assertThrows(IllegalArgumentException.class,
+                () -> charger("colon(A).\n\ncolon(B)\n"));
+        assertEquals("Ligne inconnue ou mauvaise syntaxe (ligne 3).", syntaxe.getMessage());
+
+        IllegalArgumentException parametres = assertThrows(IllegalArgumentException.class,
+                () -> charger("colon(A).\nressource(1).\ndeteste(A).\n"));
+        assertEquals("L'élément 'deteste' prends 2 paramètres et non 1, (ligne 3).", parametres.getMessage());
+
+        IllegalArgumentException doublon = assertThrows(IllegalArgumentException.class,
+                () -> charger("colon(A).\ncolon(A).\n"));
+        assertEquals("Le colon A existe déjà.", doublon.getMessage());
+    }
+
+    @Test
+    void testLignesInvalidesIgnorees() throws IOException {
+        // Relations et préférences invalides sont signalées et ignorées, comme avec le chargement ligne par ligne
+        Colonie colonie = charger("colon(A).\ncolon(B).\nressource(1).\nressource(2).\ndeteste(A,A).\ndeteste(A,C).\n"
+                + "deteste(A,B).\ndeteste(B,A).\npreferences(A,1,3).\npreferences(B,1,2).\npreferences(C,1,2).\n");
+        ColonieCompilee compilee = colonie.compiler();
+        assertEquals(2, compilee.getNombreRelations());
+        assertFalse(colonie.verifierPreferencesCompletes()); // Les préférences de A ont été refusées
+    }
+
+    // Fichier de plusieurs centaines de kilo-octets, découpé en plusieurs morceaux par la lecture parallèle
+    private static String grandFichier(int n) {
+        StringBuilder contenu = new StringBuilder();
+        for (int i = 0; i < n; i++) contenu.append("colon(c").append(i).append(").\n");
+        for (int i = 0; i < n; i++) contenu.append("ressource(r").append(i).append(").\n");
+        for (int i = 0; i < n; i++) contenu.append("deteste(c").append(i).append(",c").append((i * 7 + 1) % n).append(").\r\n");
+        for (int i = 0; i < n; i++) {
+            contenu.append("preferences(c").append(i);
+            for (int r = 0; r < n; r++) contenu.append(",r").append((r + i) % n);
+            contenu.append(").\n\n");
+        }
+        return contenu.toString();
+    }
+
+    @Test
+    void testLectureParalleleIdentique() throws IOException {
+        String contenu = grandFichier(300);
+        ColonieCompilee sequentielle = charger(contenu).compiler();
+        ColonieCompilee parallele = charger(contenu, true).compiler();
+        assertEquals(sequentielle.getNombreRelations(), parallele.getNombreRelations());
+        for (int c = 0; c < 300; c++) {
+            for (int rang = 0; rang < 300; rang++) {
+                assertEquals(sequentielle.getNomRessource(sequentielle.ressourceDeRang(c, rang)),
+                        parallele.getNomRessource(parallele.ressourceDeRang(c, rang)));
+            }
+        }
+    }
+
+    @Test
+    void testLectureParalleleErreurAvecNumeroDeLigne() {
+        // La ligne fautive est vers la fin du fichier : son numéro tient compte des morceaux qui la précèdent
+        String contenu = grandFichier(300) + "colon(X).\n";
+        IllegalArgumentException section = assertThrows(IllegalArgumentException.class, () -> charger(contenu, true));
+        assertEquals("Les colons doivent être définis avant toute autre section, (ligne 1501).", section.getMessage());
+    }
+
+    @Test
+    void testFichierInexistant() {
+        assertThrows(IOException.class, () -> new Colonie().chargerFichier("fichier_inexistant.txt"));
+    }
+}
@@ -0,0 +1,51 @@
+package test;
+
+import app.Permutations;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Classe de tests pour la classe Permutations.
+ */
+class PermutationsTest {
+
+    @Test
+    void testToutesLesPermutationsUneSeuleFois() {
+        Set<List<Integer>> vues = new HashSet<>();
+        Permutations.flux(5).forEach(p -> vues.add(Arrays.stream(p).boxed().toList()));
+        assertEquals(120, vues.size());
+        assertEquals(720, Permutations.flux(6).count());
+    }
+
+    @Test
+    void testUneTranspositionParEtape() {
+        Permutations permutations = new Permutations(6);
+        assertTrue(permutations.suivante());
+        assertEquals(-1, permutations.getTranspositionI());
+        int[] precedente = permutations.getPermutation().clone();
+        while (permutations.suivante()) {
+            int[] courante = permutations.getPermutation();
+            int i = permutations.getTranspositionI();
+            int j = permutations.getTranspositionJ();
+            assertEquals(precedente[i], courante[j]);
+            assertEquals(precedente[j], courante[i]);
+            int differences = 0;
+            for (int k = 0; k < courante.length; k++) {
+                if (courante[k] != precedente[k]) differences++;
+            }
+            assertEquals(2, differences);
+            precedente = courante.clone();
+        }
+    }
+
+    @Test
+    void testTailleEstimee() {
+        Permutations permutations = new Permutations(4);
+        assertEquals(24, permutations.estimateSize());
+        permutations.suivante();
+        assertEquals(23, permutations.estimateSize());
+        assertEquals(Long.MAX_VALUE, new Permutations(21).estimateSize());
+    }
+}
@@ -0,0 +1,100 @@
+package test;
+
+import app.Algorithme;
+import app.Colonie;
+import app.ColonieCompilee;
+import app.Controle;
+import app.RechercheExacte;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Classe de tests pour la classe RechercheExacte.
+ */
+class RechercheExacteTest {
+
+    @Test
+    void testIdentiqueALExplorationExhaustive() {
+        for (long graine = 0; graine < 10; graine++) {
+            Colonie exacte = AffectationTest.colonieAleatoire(7, 0.35, graine);
+            Colonie exhaustive = AffectationTest.colonieAleatoire(7, 0.35, graine);
+            exacte.assignerObjets3();
+            exhaustive.assignerObjetsExhaustif();
+            assertEquals(exhaustive.calculerColonsJaloux(), exacte.calculerColonsJaloux());
+        }
+    }
+
+    @Test
+    void testParalleleIdentiqueASequentielle() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (long graine = 0; graine < 5; graine++) {
+            ColonieCompilee compilee = AffectationTest.colonieAleatoire(14, 0.25, graine).compiler();
+            int[] initiale = new int[14];
+            for (int c = 0; c < 14; c++) initiale[c] = c;
+            RechercheExacte sequentielle = new RechercheExacte(compilee);
+            RechercheExacte parallele = new RechercheExacte(compilee);
+            sequentielle.resoudre(initiale);
+            int[] solution = parallele.resoudreEnParallele(initiale, pool);
+            assertEquals(sequentielle.getMeilleureJalousie(), parallele.getMeilleureJalousie());
+            assertEquals(parallele.getMeilleureJalousie(), compilee.calculerJalousie(solution));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void testSolutionInitialeConserveeSiOptimale() {
+        ColonieCompilee compilee = AffectationTest.colonieAleatoire(5, 0.0, 1).compiler();
+        int[] initiale = {4, 3, 2, 1, 0};
+        RechercheExacte recherche = new RechercheExacte(compilee);
+        assertArrayEquals(initiale, recherche.resoudre(initiale));
+        assertEquals(0, recherche.getMeilleureJalousie());
+        assertEquals(0, recherche.getNoeuds());
+    }
+
+    @Test
+    void testColonieFichier() throws Exception {
+        Colonie colonie = new Colonie();
+        colonie.chargerFichier("colonie.txt");
+        colonie.assignerObjets3();
+        assertEquals(0, colonie.calculerColonsJaloux());
+    }
+
+    @Test
+    void testSymetriesIdentiqueALExplorationExhaustive() {
+        Random random = new Random(12);
+        for (int essai = 0; essai < 10; essai++) {
+            // Blocs de colons qui partagent leurs préférences et leurs voisins, et colons sans préférences
+            Colonie colonie = new Colonie();
+            colonie.setRessources(8);
+            colonie.setColons(8);
+            List<String> preferences = new ArrayList<>();
+            for (int r = 1; r <= 8; r++) preferences.add(String.valueOf(r));
+            for (int bloc = 0; bloc < 3; bloc++) {
+                Collections.shuffle(preferences, random);
+                for (int i = bloc * 2; i < bloc * 2 + 2; i++) colonie.ajouterPreferences(nom(i), preferences);
+            }
+            for (int bloc1 = 0; bloc1 < 4; bloc1++) { // Relations entre blocs, communes à tous leurs colons
+                for (int bloc2 = bloc1 + 1; bloc2 < 4; bloc2++) {
+                    if (random.nextDouble() < 0.5) {
+                        for (int i = bloc1 * 2; i < bloc1 * 2 + 2; i++) {
+                            for (int j = bloc2 * 2; j < bloc2 * 2 + 2; j++) colonie.ajouterRelation(nom(i), nom(j));
+                        }
+                    }
+                }
+            }
+            if (random.nextBoolean()) colonie.ajouterRelation("A", "B"); // Jumeaux voisins
+            ColonieCompilee compilee = colonie.compiler();
+            int exhaustive = Algorithme.EXHAUSTIF.resoudre(compilee, new Controle()).getJalousie();
+            int[] pire = {0, 1, 2, 3, 4, 5, 6, 7};
+            assertEquals(exhaustive, compilee.calculerJalousie(new RechercheExacte(compilee).resoudre(pire)));
+        }
+    }
+
+    // Nom du i-ème colon créé par setColons()
+    private static String nom(int i) {
+        return Character.toString((char) ('A' + i));
+    }
+}
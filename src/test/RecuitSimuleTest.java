@@ -0,0 +1,55 @@
+package test;
+
+import app.Colonie;
+import app.ColonieCompilee;
+import app.RecuitSimule;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Classe de tests pour la classe RecuitSimule.
+ */
+class RecuitSimuleTest {
+
+    @Test
+    void testAmelioreLaSolutionInitiale() {
+        ColonieCompilee compilee = AffectationTest.colonieAleatoire(60, 0.1, 5).compiler();
+        int[] initiale = new int[60];
+        for (int c = 0; c < 60; c++) initiale[c] = c;
+        RecuitSimule recuit = new RecuitSimule(compilee, 1);
+        int[] solution = recuit.resoudre(initiale, 200);
+
+        assertTrue(compilee.calculerJalousie(solution) <= compilee.calculerJalousie(initiale));
+        assertTrue(recuit.getIterations() > 0);
+        boolean[] prise = new boolean[60];
+        for (int objet : solution) { // Chaque ressource est attribuée une seule fois
+            assertFalse(prise[objet]);
+            prise[objet] = true;
+        }
+    }
+
+    @Test
+    void testRessourcesEnSurplus() {
+        Colonie colonie = new Colonie();
+        colonie.setRessources(6);
+        colonie.setColons(3);
+        colonie.ajouterRelation("A", "B");
+        colonie.ajouterRelation("B", "C");
+        colonie.ajouterRelation("A", "C");
+        List<String> preferences = Arrays.asList("6", "5", "4", "3", "2", "1");
+        for (String nom : new String[]{"A", "B", "C"}) colonie.ajouterPreferences(nom, preferences);
+        colonie.assignerObjetsRecuit(100, 7);
+        // Les trois colons se détestent et ont les mêmes préférences : seul le mieux servi n'est pas jaloux
+        assertEquals(2, colonie.calculerColonsJaloux());
+    }
+
+    @Test
+    void testColonieFichier() throws Exception {
+        Colonie colonie = new Colonie();
+        colonie.chargerFichier("colonie.txt");
+        colonie.assignerObjetsRecuit(500, 3);
+        assertEquals(0, colonie.calculerColonsJaloux());
+    }
+}
@@ -0,0 +1,67 @@
+package test;
+
+import app.Algorithme;
+import app.Colonie;
+import app.ColonieCompilee;
+import app.Controle;
+import app.Reduction;
+import app.Solution;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Classe de tests pour la classe Reduction.
+ */
+class ReductionTest {
+
+    @Test
+    void testMemeOptimumQueSansReduction() {
+        for (long graine = 0; graine < 6; graine++) {
+            ColonieCompilee compilee = AffectationTest.colonieAleatoire(9, 0.12, graine).compiler();
+            Solution reduite = new Reduction(Algorithme.EXACT).resoudre(compilee, new Controle());
+            Solution complete = Algorithme.EXHAUSTIF.resoudre(compilee, new Controle());
+            assertEquals(complete.getJalousie(), reduite.getJalousie());
+            assertEquals(reduite.getJalousie(), compilee.calculerJalousie(reduite.getObjets()));
+            assertTrue(reduite.estOptimale());
+        }
+    }
+
+    @Test
+    void testColonsSansRelationCompletes() {
+        Colonie colonie = new Colonie();
+        colonie.setRessources(4);
+        colonie.setColons(4);
+        colonie.ajouterRelation("A", "B");
+        List<String> preferences = Arrays.asList("1", "2", "3", "4");
+        for (String nom : new String[]{"A", "B", "C", "D"}) colonie.ajouterPreferences(nom, preferences);
+        Solution solution = colonie.resoudre(new Reduction(Algorithme.EXACT), new Controle());
+
+        // A et B se partagent 1 et 2, C et D reçoivent les ressources restantes dans l'ordre
+        assertEquals(1, solution.getJalousie());
+        ColonieCompilee compilee = colonie.compiler();
+        assertEquals("3", compilee.getNomRessource(solution.getObjets()[compilee.getIdColon("C")]));
+        assertEquals("4", compilee.getNomRessource(solution.getObjets()[compilee.getIdColon("D")]));
+    }
+
+    @Test
+    void testAucuneRelation() {
+        Colonie colonie = new Colonie();
+        colonie.setRessources(3);
+        colonie.setColons(3);
+        Solution solution = colonie.resoudre(new Reduction(Algorithme.EXACT), new Controle());
+        assertEquals(0, solution.getJalousie());
+        assertTrue(solution.estOptimale());
+        Set<Integer> prises = new HashSet<>();
+        for (int objet : solution.getObjets()) assertTrue(prises.add(objet));
+    }
+
+    @Test
+    void testColonieFichier() throws Exception {
+        Colonie colonie = new Colonie();
+        colonie.chargerFichier("colonie.txt");
+        colonie.assignerObjets3();
+        assertEquals(0, colonie.calculerColonsJaloux());
+    }
+}
@@ -0,0 +1,176 @@
+package test;
+
+import app.Algorithme;
+import app.GenerateurColonie;
+import app.ServiceSolveur;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Classe de tests pour la classe ServiceSolveur.
+ */
+class ServiceSolveurTest {
+    private static final String COLONIE = "colon(A).\ncolon(B).\ncolon(C).\n"
+            + "ressource(o1).\nressource(o2).\nressource(o3).\n"
+            + "deteste(A,B).\n"
+            + "preferences(A,o1,o2,o3).\npreferences(B,o1,o3,o2).\npreferences(C,o2,o1,o3).\n";
+
+    private ServiceSolveur service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ServiceSolveur(Algorithme.EXACT, 1000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.fermer();
+    }
+
+    private List<String> servir(String requetes) throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        service.servir(new ByteArrayInputStream(requetes.getBytes(StandardCharsets.UTF_8)), sortie);
+        return sortie.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    // Colonie que la recherche exacte ne termine pas en quelques secondes
+    private static String colonieDifficile() throws IOException {
+        GenerateurColonie generateur = new GenerateurColonie(60, 1);
+        generateur.setDegreMoyen(10);
+        Path fichier = Files.createTempFile("colonie", ".txt");
+        try {
+            generateur.ecrireTexte(fichier);
+            return Files.readString(fichier);
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    @Test
+    void testRequetesTexte() throws IOException {
+        List<String> reponses = servir(COLONIE + "resoudre.\n" + COLONIE + "resoudre(naif,0,3).\n" + COLONIE);
+        assertEquals(12, reponses.size()); // Trois réponses, la dernière terminée par la fin de l'entrée
+        assertEquals(List.of("A:o2", "B:o3", "C:o1", "jalousie(0,true,"), List.of(reponses.get(0), reponses.get(1),
+                reponses.get(2), reponses.get(3).substring(0, 16)));
+        assertTrue(reponses.get(7).startsWith("jalousie("));
+        assertTrue(reponses.get(11).startsWith("jalousie(0,true,"));
+    }
+
+    @Test
+    void testRequetesJson() throws IOException {
+        String colonie = COLONIE.replace("\n", "\\n");
+        List<String> reponses = servir("{\"id\":\"a\\\"1\",\"algorithme\":\"exhaustif\",\"colonie\":\"" + colonie + "\"}\n"
+                + "{\"id\":2,\"duree\":\"long\",\"colonie\":\"" + colonie + "\"}\n");
+        assertEquals(2, reponses.size());
+        assertTrue(reponses.get(0).startsWith("{\"id\":\"a\\\"1\",\"jalousie\":0,\"optimale\":true,\"temps_ms\":"));
+        assertTrue(reponses.get(0).endsWith(",\"affectation\":{\"A\":\"o2\",\"B\":\"o3\",\"C\":\"o1\"}}"));
+        assertEquals("{\"id\":2,\"erreur\":\"Le champ duree doit être un entier.\"}", reponses.get(1));
+    }
+
+    @Test
+    void testErreurs() throws IOException {
+        List<String> reponses = servir("colon(A).\nligne(invalide).\nresoudre.\n"
+                + COLONIE + "resoudre(inconnu).\n"
+                + "{\"colonie\":[1]}\n"
+                + COLONIE + "resoudre.\n");
+        assertEquals("erreur(Ligne inconnue ou mauvaise syntaxe (ligne 2).).", reponses.get(0));
+        assertEquals("erreur(Algorithme inconnu : inconnu.).", reponses.get(1));
+        assertTrue(reponses.get(2).startsWith("{\"id\":null,\"erreur\":\"Requête JSON invalide"));
+        assertEquals("A:o2", reponses.get(3)); // Les erreurs n'interrompent pas le service
+    }
+
+    @Test
+    void testFermerArreteResolution() throws Exception {
+        String requetes = colonieDifficile() + "resoudre(exact,0).\n"; // Sans échéance
+        Thread session = new Thread(() -> {
+            try {
+                servir(requetes);
+            } catch (IOException e) {
+                // Rien à lire après l'annulation
+            }
+        });
+        session.start();
+        Thread.sleep(300); // La résolution a commencé
+        service.fermer();
+        assertTrue(service.attendreArret(5000)); // La recherche exacte s'est arrêtée et a libéré son fil
+        session.join(5000);
+        assertFalse(session.isAlive()); // La connexion n'attend plus la réponse annulée
+    }
+
+    @Test
+    void testDepartClientArreteResolution() throws Exception {
+        service.fermer();
+        service = new ServiceSolveur(Algorithme.EXACT, 1000, 1); // Un seul fil, occupé par la requête abandonnée
+        ServerSocketChannel serveur = ServiceSolveur.ouvrir(null, 0);
+        Thread ecoute = new Thread(() -> {
+            try {
+                service.ecouter(serveur);
+            } catch (IOException e) {
+                // Socket fermée à la fin du test
+            }
+        });
+        ecoute.start();
+        try {
+            try (SocketChannel client = SocketChannel.open(serveur.getLocalAddress())) {
+                Writer requetes = new OutputStreamWriter(Channels.newOutputStream(client), StandardCharsets.UTF_8);
+                requetes.write(colonieDifficile() + "resoudre(exact,0).\n");
+                requetes.flush();
+                Thread.sleep(300); // La résolution a commencé
+            }
+            try (SocketChannel client = SocketChannel.open(serveur.getLocalAddress())) {
+                Writer requetes = new OutputStreamWriter(Channels.newOutputStream(client), StandardCharsets.UTF_8);
+                BufferedReader reponses = new BufferedReader(new InputStreamReader(client.socket().getInputStream(),
+                        StandardCharsets.UTF_8));
+                requetes.write(COLONIE + "resoudre.\n");
+                requetes.flush();
+                assertEquals("A:o2", assertTimeoutPreemptively(Duration.ofSeconds(5), reponses::readLine));
+            }
+        } finally {
+            serveur.close();
+            ecoute.join();
+        }
+    }
+
+    @Test
+    void testSocket() throws Exception {
+        ServerSocketChannel serveur = ServiceSolveur.ouvrir(null, 0);
+        Thread ecoute = new Thread(() -> {
+            try {
+                service.ecouter(serveur);
+            } catch (IOException e) {
+                // Socket fermée à la fin du test
+            }
+        });
+        ecoute.start();
+        try (SocketChannel client = SocketChannel.open(serveur.getLocalAddress())) {
+            assertTrue(((InetSocketAddress) serveur.getLocalAddress()).getAddress().isLoopbackAddress());
+            Writer requetes = new OutputStreamWriter(Channels.newOutputStream(client), StandardCharsets.UTF_8);
+            BufferedReader reponses = new BufferedReader(new InputStreamReader(client.socket().getInputStream(),
+                    StandardCharsets.UTF_8));
+            for (int i = 0; i < 2; i++) { // Chaque réponse arrive avant la requête suivante
+                requetes.write(COLONIE + "resoudre.\n");
+                requetes.flush();
+                assertEquals("A:o2", reponses.readLine());
+                reponses.readLine();
+                reponses.readLine();
+                assertTrue(reponses.readLine().startsWith("jalousie(0,true,"));
+            }
+        } finally {
+            serveur.close();
+            ecoute.join();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package test;
+
+import app.Algorithme;
+import app.Colonie;
+import app.ColonieCompilee;
+import app.Controle;
+import app.Solution;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Classe de tests pour l'interface Solveur, l'énumération Algorithme et la classe Controle.
+ */
+class SolveurTest {
+
+    @Test
+    void testAlgorithmesColonieFichier() throws Exception {
+        Colonie colonie = new Colonie();
+        colonie.chargerFichier("colonie.txt");
+        assertEquals(3, colonie.resoudre(Algorithme.NAIF, new Controle()).getJalousie());
+        assertEquals(1, colonie.resoudre(Algorithme.LOCAL, new Controle()).getJalousie());
+        for (Algorithme algorithme : new Algorithme[]{Algorithme.EXACT, Algorithme.EXACT_PARALLELE, Algorithme.EXHAUSTIF}) {
+            Solution solution = colonie.resoudre(algorithme, new Controle());
+            assertEquals(0, solution.getJalousie());
+            assertTrue(solution.estOptimale());
+            assertEquals(0, colonie.calculerColonsJaloux()); // La solution est appliquée aux colons
+        }
+    }
+
+    @Test
+    void testEcouteurAmeliorationsSuccessives() {
+        ColonieCompilee compilee = AffectationTest.colonieAleatoire(30, 0.2, 8).compiler();
+        List<Integer> jalousies = new ArrayList<>();
+        Controle controle = new Controle(10_000);
+        controle.setEcouteur((jalousie, temps, iterations) -> jalousies.add(jalousie));
+        Solution solution = Algorithme.EXACT.resoudre(compilee, controle);
+
+        assertFalse(jalousies.isEmpty());
+        for (int i = 1; i < jalousies.size(); i++) {
+            assertTrue(jalousies.get(i) < jalousies.get(i - 1));
+        }
+        assertEquals(solution.getJalousie(), jalousies.get(jalousies.size() - 1).intValue());
+        assertEquals(solution.getJalousie(), compilee.calculerJalousie(solution.getObjets()));
+    }
+
+    @Test
+    void testAnnulation() {
+        ColonieCompilee compilee = AffectationTest.colonieAleatoire(80, 0.3, 9).compiler();
+        for (Algorithme algorithme : Algorithme.values()) {
+            Controle controle = new Controle();
+            controle.annuler();
+            Solution solution = algorithme.resoudre(compilee, controle);
+            assertEquals(compilee.calculerJalousie(solution.getObjets()), solution.getJalousie());
+            boolean[] prise = new boolean[80];
+            for (int objet : solution.getObjets()) { // L'assignation renvoyée reste valide
+                assertFalse(prise[objet]);
+                prise[objet] = true;
+            }
+        }
+    }
+
+    @Test
+    void testEcheanceRespectee() {
+        ColonieCompilee compilee = AffectationTest.colonieAleatoire(80, 0.3, 10).compiler();
+        long debut = System.nanoTime();
+        Solution solution = Algorithme.EXACT.resoudre(compilee, new Controle(200));
+        assertTrue(System.nanoTime() - debut < 5_000_000_000L);
+        assertEquals(solution.getJalousie() == 0, solution.estOptimale());
+    }
+
+    @Test
+    void testRessourcesInsuffisantes() {
+        Colonie colonie = new Colonie();
+        colonie.setRessources(2);
+        colonie.setColons(3);
+        assertThrows(IllegalStateException.class, () -> colonie.resoudre(Algorithme.EXACT, new Controle()));
+    }
+}
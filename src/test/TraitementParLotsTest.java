@@ -0,0 +1,97 @@
+package test;
+
+import app.Algorithme;
+import app.GenerateurColonie;
+import app.TraitementParLots;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Classe de tests pour la classe TraitementParLots.
+ */
+class TraitementParLotsTest {
+    private Path dossier;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dossier = Files.createTempDirectory("lot");
+        for (int i = 0; i < 3; i++) {
+            GenerateurColonie generateur = new GenerateurColonie(15 + i, i);
+            generateur.ecrireTexte(dossier.resolve("colonie" + i + ".txt"));
+        }
+        new GenerateurColonie(12, 7).ecrireImage(dossier.resolve("image.bin"));
+        Files.writeString(dossier.resolve("invalide.txt"), "colon(A).\nligne invalide\n");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> fichiers = Files.walk(dossier)) {
+            for (Path f : fichiers.sorted(Comparator.reverseOrder()).toList()) Files.delete(f);
+        }
+    }
+
+    @Test
+    void testLot() throws IOException {
+        Path sortie = dossier.resolve("solutions");
+        List<Path> fichiers = TraitementParLots.listerFichiers(List.of(dossier.toString()));
+        assertEquals(5, fichiers.size());
+
+        ByteArrayOutputStream resume = new ByteArrayOutputStream();
+        TraitementParLots lot = new TraitementParLots(Algorithme.LOCAL, 0, 2, sortie);
+        int erreurs = lot.traiter(fichiers, new PrintStream(resume, true, StandardCharsets.UTF_8));
+        assertEquals(1, erreurs);
+
+        List<String> lignes = resume.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(6, lignes.size()); // En-tête et une ligne par fichier
+        assertEquals("fichier\talgorithme\tjalousie\toptimale\ttemps_ms\tstatut", lignes.get(0));
+        for (String ligne : lignes.subList(1, 6)) {
+            String[] colonnes = ligne.split("\t");
+            assertEquals(6, colonnes.length);
+            assertEquals("LOCAL", colonnes[1]);
+            assertEquals(colonnes[0].endsWith("invalide.txt"), colonnes[5].startsWith("erreur"));
+        }
+
+        // Solutions au format de enregistreFichier, une ligne "nom:objet" par colon
+        List<String> solution = Files.readAllLines(sortie.resolve("colonie1.txt.solution.txt"));
+        assertEquals(16, solution.size());
+        assertTrue(solution.stream().allMatch(ligne -> ligne.matches("c\\d+:r\\d+")));
+        assertTrue(Files.exists(sortie.resolve("image.bin.solution.txt")));
+        assertFalse(Files.exists(sortie.resolve("invalide.txt.solution.txt")));
+    }
+
+    @Test
+    void testLotNomsEnCollision() throws IOException {
+        // Même nom dans deux dossiers, et même nom sans extension dans le même dossier
+        Path autre = Files.createDirectory(dossier.resolve("autre"));
+        Files.copy(dossier.resolve("colonie0.txt"), autre.resolve("colonie1.txt"));
+        new GenerateurColonie(10, 3).ecrireImage(dossier.resolve("colonie2.bin"));
+        Path sortie = dossier.resolve("solutions");
+        List<Path> fichiers = List.of(dossier.resolve("colonie1.txt"), autre.resolve("colonie1.txt"),
+                dossier.resolve("colonie2.txt"), dossier.resolve("colonie2.bin"));
+
+        ByteArrayOutputStream resume = new ByteArrayOutputStream();
+        TraitementParLots lot = new TraitementParLots(Algorithme.LOCAL, 0, 4, sortie);
+        assertEquals(1, lot.traiter(fichiers, new PrintStream(resume, true, StandardCharsets.UTF_8)));
+
+        List<String> lignes = resume.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(5, lignes.size());
+        for (String ligne : lignes.subList(1, 5)) {
+            boolean doublon = ligne.startsWith(autre.resolve("colonie1.txt").toString());
+            assertEquals(doublon, ligne.contains("\terreur : "), ligne);
+        }
+        assertEquals(16, Files.readAllLines(sortie.resolve("colonie1.txt.solution.txt")).size()); // Pas écrasée
+        assertEquals(17, Files.readAllLines(sortie.resolve("colonie2.txt.solution.txt")).size());
+        assertEquals(10, Files.readAllLines(sortie.resolve("colonie2.bin.solution.txt")).size());
+    }
+}
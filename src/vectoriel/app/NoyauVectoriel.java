@@ -0,0 +1,54 @@
+package app;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Classe NoyauVectoriel : compte des colons jaloux avec l'API Vector (jdk.incubator.vector).
+ * Comme la boucle scalaire de ColonieCompilee, chaque colon parcourt ses voisins jusqu'à sa première envie, mais par
+ * paquets de la largeur des registres (8 entiers en AVX2, 16 en AVX-512) : lecture indexée (gather) des objets des
+ * voisins, puis de leurs rangs dans la ligne du colon, et comparaison avec son propre rang. Le rang propre et celui
+ * d'un voisin sans objet sont calculés une fois par colon ; les voisins qui ne remplissent pas un paquet sont
+ * parcourus un à un. Seul un tampon d'indices de la largeur d'un registre est alloué à chaque appel.
+ * À compiler et lancer avec --add-modules jdk.incubator.vector ; chargée par NoyauJalousie.chargerVectoriel().
+ */
+final class NoyauVectoriel implements NoyauJalousie {
+    private static final VectorSpecies<Integer> ESPECE = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int getLargeurBits() {
+        return ESPECE.vectorBitSize();
+    }
+
+    @Override
+    public int compter(int[] rangs, int nombreRessources, int[] nombresPreferences, int[] debutVoisins, int[] voisins,
+                       int[] objets, int debut, int fin) {
+        int largeur = ESPECE.length();
+        int[] indices = new int[largeur]; // Objets des voisins d'un paquet, 0 pour les voisins sans objet
+        int jalousie = 0;
+        for (int c = debut; c < fin; c++) {
+            if (objets[c] < 0) continue; // Un colon sans objet n'est jamais jaloux
+            int ligne = c * nombreRessources;
+            int rangPropre = rangs[ligne + objets[c]];
+            int rangSansObjet = rangPropre < nombresPreferences[c] ? -1 : rangPropre; // Rang d'un voisin sans objet
+            int k = debutVoisins[c];
+            int finVoisins = debutVoisins[c + 1];
+            boolean jaloux = false;
+            for (int borne = k + ESPECE.loopBound(finVoisins - k); !jaloux && k < borne; k += largeur) {
+                IntVector objet = IntVector.fromArray(ESPECE, objets, 0, voisins, k);
+                VectorMask<Integer> sansObjet = objet.compare(VectorOperators.LT, 0);
+                objet.blend(0, sansObjet).intoArray(indices, 0);
+                IntVector rang = IntVector.fromArray(ESPECE, rangs, ligne, indices, 0).blend(rangSansObjet, sansObjet);
+                jaloux = rang.compare(VectorOperators.LT, rangPropre).anyTrue();
+            }
+            for (; !jaloux && k < finVoisins; k++) {
+                int objet = objets[voisins[k]];
+                jaloux = (objet < 0 ? rangSansObjet : rangs[ligne + objet]) < rangPropre;
+            }
+            if (jaloux) jalousie++; // Un colon jaloux n'est compté qu'une fois
+        }
+        return jalousie;
+    }
+}